@@ -16,7 +16,12 @@ public class ByeCommand extends Command {
      */
     public ByeCommand() {
         // If user terminates the program gracefully, the program will save everything.
-        CatalogueContentManager contentManager = new CatalogueContentManager();
+        // Reuse the manager the catalogues were loaded with, so that their journals are reset too
+        // and catalogues unchanged since they were loaded are not rewritten.
+        CatalogueContentManager contentManager = KitchenCTRL.getContentManager();
+        if (contentManager == null) {
+            contentManager = new CatalogueContentManager();
+        }
 
         ArrayList<Catalogue<?>> catalogues = KitchenCTRL.getAllCatalogues();
 
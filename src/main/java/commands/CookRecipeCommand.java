@@ -8,6 +8,7 @@ import model.catalogue.Inventory;
 import model.catalogue.RecipeBook;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 
 /**
  * Represents a command to cook a recipe by consuming ingredients from the inventory.
@@ -19,6 +20,7 @@ import java.util.ArrayList;
 public class CookRecipeCommand extends Command {
 
     private final Recipe targetRecipe;
+    private final int servings;
 
     /**
      * Constructs a {@code CookRecipeCommand} with the specified recipe.
@@ -27,28 +29,47 @@ public class CookRecipeCommand extends Command {
      * @throws AssertionError if the recipeToCook is null.
      */
     public CookRecipeCommand(Recipe targetRecipe) {
+        this(targetRecipe, 1);
+    }
 
+    /**
+     * Constructs a {@code CookRecipeCommand} cooking the specified recipe several times at once.
+     *
+     * @param targetRecipe The recipe to be cooked.
+     * @param servings     The number of times to cook it.
+     * @throws AssertionError if the recipeToCook is null or servings is not positive.
+     */
+    public CookRecipeCommand(Recipe targetRecipe, int servings) {
         assert targetRecipe != null : "Recipe to cook must not be null";
+        assert servings > 0 : "Servings must be positive";
         this.targetRecipe = targetRecipe;
+        this.servings = servings;
     }
 
     /**
      * Retrieves the missing ingredients needed to cook the recipe.
+     * An ingredient listed on several lines is required in the sum of their quantities, as cooking does.
      *
      * @param inventory The inventory catalogue to check available ingredients.
      * @return A list of missing ingredients required to cook the recipe.
      */
     public ArrayList<Ingredient> getMissingIngredients(Inventory inventory) {
         ArrayList<Ingredient> missingIngredients = new ArrayList<>();
-        ArrayList<Ingredient> inventoryItems = inventory.getItems();
-        ArrayList<Ingredient> recipeIngredients = targetRecipe.getItems();
 
-        for (Ingredient requiredIngredient : recipeIngredients) {
-            if (!inventoryItems.contains(requiredIngredient)) {
+        // Ingredient ID -> total quantity required, in the order first listed
+        LinkedHashMap<Integer, Ingredient> required = new LinkedHashMap<>();
+        for (Ingredient ingredient : targetRecipe.getIngredients()) {
+            Ingredient total = required.putIfAbsent(ingredient.getId(), ingredient);
+            if (total != null && ingredient.getQuantity() > 0) {
+                total.addQuantity(ingredient.getQuantity());
+            }
+        }
+
+        for (Ingredient requiredIngredient : required.values()) {
+            Ingredient availableIngredient = inventory.getItemByName(requiredIngredient.getIngredientName());
+            if (availableIngredient == null) {
                 missingIngredients.add(requiredIngredient);
             } else {
-                int index = inventoryItems.indexOf(requiredIngredient);
-                Ingredient availableIngredient = inventoryItems.get(index);
                 if (availableIngredient.getQuantity() < requiredIngredient.getQuantity()) {
                     int shortage = requiredIngredient.getQuantity() - availableIngredient.getQuantity();
                     missingIngredients.add(new Ingredient(requiredIngredient.getIngredientName(), shortage));
@@ -61,9 +82,10 @@ public class CookRecipeCommand extends Command {
     /**
      * Attempts to cook the recipe by deducting ingredient quantities from the inventory.
      *
-     * This method first checks if all required ingredients are available in the inventory.
+     * All servings are cooked in a single transaction: every ingredient is checked first, and either
+     * all the quantities are deducted or none are (see {@link Inventory#consumeAll}).
      * If any ingredient is missing, it returns a {@code CommandResult} listing the missing ingredients.
-     * Otherwise, it deducts the necessary quantities from the inventory and confirms the recipe has been cooked.
+     * Otherwise, it confirms the recipe has been cooked.
      *
      * @return A {@code CommandResult} indicating success gor failure with a list of missing ingredients.
      */
@@ -74,27 +96,18 @@ public class CookRecipeCommand extends Command {
         }
         Inventory inventory = KitchenCTRL.getInventory();
 
-        ArrayList<Ingredient> recipeIngredients = targetRecipe.getItems();
+        ArrayList<Ingredient> recipeIngredients = targetRecipe.getIngredients();
         if (recipeIngredients.isEmpty()) {
             return new CommandResult("Recipe does not contain any ingredients!");
         }
 
-        ArrayList<Ingredient> missingIngredients = getMissingIngredients(inventory);
-
+        ArrayList<Ingredient> missingIngredients = inventory.consumeAll(recipeIngredients, servings);
         if (!missingIngredients.isEmpty()) {
             return new CommandResult("Missing ingredients: " + missingIngredients);
         }
 
-        ArrayList<Ingredient> inventoryItems = inventory.getItems();
-
-        //subtracts the item from inventory
-        for (Ingredient requiredIngredient : recipeIngredients) {
-            int index = inventoryItems.indexOf(requiredIngredient);
-            Ingredient ingredientInInventory = inventoryItems.get(index);
-            ingredientInInventory.subtractQuantity(requiredIngredient.getQuantity());
-        }
-
-        return new CommandResult("Recipe successfully cooked: " + targetRecipe.getRecipeName()
+        String cooked = servings == 1 ? "" : " x" + servings;
+        return new CommandResult("Recipe successfully cooked: " + targetRecipe.getRecipeName() + cooked
             + ". Ingredients have been deducted from inventory.");
     }
 }
@@ -1,11 +1,12 @@
 package commands;
 
 import controller.KitchenCTRL;
-import model.Ingredient;
 import model.catalogue.Catalogue;
 import model.catalogue.Recipe;
 import model.catalogue.RecipeBook;
 import model.catalogue.Inventory;
+import model.index.CookableIndex;
+import model.index.CookableScan;
 
 import java.util.ArrayList;
 import java.util.stream.Collectors;
@@ -18,6 +19,8 @@ import java.util.stream.Collectors;
  * It then returns a list of these cookable recipes.</p>
  */
 public class CookableRecipesCommand extends Command {
+    /** Maximum number of almost cookable recipes suggested when nothing can be cooked. */
+    private static final int MAX_SUGGESTIONS = 3;
 
     private final RecipeBook recipeBook;
 
@@ -33,56 +36,22 @@ public class CookableRecipesCommand extends Command {
     /**
      * Determines which recipes can be cooked with the available ingredients in the inventory.
      *
-     * <p>Each recipe in the {@code RecipeBook} is checked against the inventory.
-     * A recipe is considered cookable if all of its required ingredients are present
-     * in the inventory in at least the required quantities.</p>
+     * <p>A recipe is considered cookable if all of its required ingredients are present
+     * in the inventory in at least the required quantities. The answer comes from the
+     * application's {@link CookableIndex}, which is kept up to date as the catalogues change;
+     * other catalogues are checked against a {@link CookableScan} snapshot of the inventory,
+     * in parallel when the recipe book is large.</p>
      *
      * @param inventory The inventory containing available ingredients.
-     * @return A list of {@code Recipe} objects that can be fully cooked.
+     * @return A list of {@code Recipe} objects that can be fully cooked, in recipe book order.
      */
     public ArrayList<Recipe> getCookableRecipes(RecipeBook recipeBook, Inventory inventory) {
-        ArrayList<Recipe> cookableRecipes = new ArrayList<>();
-
-        ArrayList<Recipe> allRecipes = recipeBook.getItems(); // Retrieves all recipes from RecipeBook
-        ArrayList<Ingredient> inventoryItems = inventory.getItems(); // Retrieves all ingredients in inventory
-
-        //iterate through every recipe in RecipeBook
-        for (Recipe recipe : allRecipes) {
-            boolean canCook = true;
-            //check if all the ingredients of the recipe is there
-            for (Ingredient requiredIngredient : recipe.getItems()) {
-                String requiredIngredientName = requiredIngredient.getIngredientName();
-                int requiredIngredientQuantity = requiredIngredient.getQuantity();
-
-                Ingredient availableIngredient = findIngredientByName(inventoryItems, requiredIngredientName);
-
-                if (availableIngredient == null || availableIngredient.getQuantity() < requiredIngredientQuantity) {
-                    canCook = false;
-                    break;
-                }
-            }
-            if (canCook) {
-                cookableRecipes.add(recipe);
-            }
+        CookableIndex cookableIndex = KitchenCTRL.getCookableIndex();
+        if (cookableIndex != null && cookableIndex.tracks(recipeBook, inventory)) {
+            return cookableIndex.getCookableRecipes();
         }
 
-        return cookableRecipes;
-    }
-
-    /**
-     * Finds an ingredient by name within a list of ingredients.
-     *
-     * @param ingredients The list of ingredients to search.
-     * @param name The name of the ingredient to find.
-     * @return The {@code Ingredient} if found, or {@code null} if not found.
-     */
-    private Ingredient findIngredientByName(ArrayList<Ingredient> ingredients, String name) {
-        for (Ingredient ingredient : ingredients) {
-            if (ingredient.getIngredientName().equalsIgnoreCase(name)) {
-                return ingredient;
-            }
-        }
-        return null;
+        return CookableScan.snapshot(inventory).findCookable(recipeBook.getItems());
     }
 
     /**
@@ -110,6 +79,13 @@ public class CookableRecipesCommand extends Command {
 
         if (cookableRecipes.isEmpty()) {
             String feedback = "No recipes can be cooked with the current inventory. Please get more ingredients!";
+            ArrayList<Recipe> nearCookable = NearCookableCommand.getNearCookableRecipes(recipeBook, inventory,
+                    1, 0, MAX_SUGGESTIONS);
+            if (!nearCookable.isEmpty()) {
+                feedback += "\nRecipes missing only one ingredient: " + nearCookable.stream()
+                        .map(Recipe::getRecipeName)
+                        .collect(Collectors.joining(", "));
+            }
             return new CommandResult(feedback);
         }
 
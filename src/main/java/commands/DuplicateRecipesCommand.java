@@ -0,0 +1,49 @@
+package commands;
+
+import model.catalogue.Catalogue;
+import model.catalogue.RecipeBook;
+import model.index.RecipeSimilarityIndex;
+
+import java.util.ArrayList;
+
+/**
+ * Represents a command that reports the pairs of recipes in the book that are near-duplicates.
+ *
+ * <p>Two recipes are near-duplicates if the Jaccard similarity of their ingredient sets is at least
+ * {@link #MIN_SIMILARITY}. Pairs are found through the recipe book's {@link RecipeSimilarityIndex},
+ * which only compares recipes likely to be similar instead of every pair.</p>
+ */
+public class DuplicateRecipesCommand extends Command {
+    /** Smallest similarity for two recipes to be reported. */
+    public static final double MIN_SIMILARITY = 0.8;
+    /** Maximum number of pairs listed. */
+    public static final int MAX_LISTED = 20;
+
+    /**
+     * Lists the near-duplicate recipes of the recipe book.
+     *
+     * @param catalogue The current catalogue, which must be the recipe book.
+     * @return A {@code CommandResult} listing the pairs and their similarity.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof RecipeBook recipeBook)) {
+            return new CommandResult("Command only executable in RecipeBook screen!");
+        }
+
+        ArrayList<RecipeSimilarityIndex.Match> pairs = recipeBook.getSimilarityIndex()
+                .findNearDuplicates(MIN_SIMILARITY, MAX_LISTED);
+        if (pairs.isEmpty()) {
+            return new CommandResult("No near-duplicate recipes found.");
+        }
+
+        StringBuilder result = new StringBuilder("Near-duplicate recipes:\n");
+        for (int i = 0; i < pairs.size(); i++) {
+            RecipeSimilarityIndex.Match pair = pairs.get(i);
+            result.append(i + 1).append(". ").append(pair.getFirst().getRecipeName()).append(" ~ ")
+                    .append(pair.getSecond().getRecipeName())
+                    .append(" (").append(Math.round(pair.getSimilarity() * 100)).append("% shared)\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+}
@@ -3,13 +3,18 @@ package commands;
 
 import controller.KitchenCTRL;
 import controller.ScreenState;
+import model.catalogue.Catalogue;
 import model.catalogue.Recipe;
 import model.catalogue.RecipeBook;
 import ui.inputparser.Ui;
 
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
 /**
  * Represents a command to enter a specific recipe for editing.
  * It sets the active recipe in the controller and transitions to the RECIPE screen.
+ * If no recipe has that exact name, the recipes whose names are a few typos away are suggested.
  */
 public class EditRecipeCommand extends Command {
     private final String recipeName;
@@ -38,9 +43,16 @@ public class EditRecipeCommand extends Command {
         Recipe recipe = recipeBook.getItemByName(recipeName);
 
         if (recipe == null) {
-            return new CommandResult("Recipe not found: " + recipeName, ScreenState.RECIPEBOOK);
+            ArrayList<Recipe> suggestions = recipeBook.findItemsByFuzzyName(recipeName, Catalogue.MAX_SUGGESTIONS);
+            if (suggestions.isEmpty()) {
+                return new CommandResult("Recipe not found: " + recipeName, ScreenState.RECIPEBOOK);
+            }
+            String names = suggestions.stream().map(Recipe::getRecipeName).collect(Collectors.joining(", "));
+            return new CommandResult("Recipe not found: " + recipeName + ". Did you mean: " + names + "?",
+                    ScreenState.RECIPEBOOK);
         }
 
+        recipe.expand();
         KitchenCTRL.setActiveRecipe(recipe);
         Ui.showRecipeMessage();
         return new CommandResult("Now editing recipe: " + recipeName, ScreenState.RECIPE);
@@ -0,0 +1,98 @@
+package commands;
+
+import controller.KitchenCTRL;
+import model.Ingredient;
+import model.catalogue.Catalogue;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.CookableIndex;
+
+import java.util.ArrayList;
+
+/**
+ * Represents a command that lists the recipes that are almost cookable with the current inventory.
+ *
+ * <p>A recipe is almost cookable if it cannot be cooked yet, but lacks at most a given number of
+ * ingredients, or at most a given number of units in total. Recipes are ranked by how many units
+ * they lack, and each is listed with its missing ingredients, as reported by
+ * {@link CookRecipeCommand#getMissingIngredients(Inventory)}.</p>
+ */
+public class NearCookableCommand extends Command {
+    /** Maximum number of recipes listed. */
+    public static final int MAX_LISTED = 10;
+
+    private final int maxMissing;
+    private final int maxShortfall;
+
+    /**
+     * Constructs a {@code NearCookableCommand}.
+     *
+     * @param maxMissing   The largest number of missing ingredients accepted.
+     * @param maxShortfall The largest number of missing units accepted, or 0 to only count ingredients.
+     */
+    public NearCookableCommand(int maxMissing, int maxShortfall) {
+        assert maxMissing >= 0 && maxShortfall >= 0 : "Limits must not be negative";
+        this.maxMissing = maxMissing;
+        this.maxShortfall = maxShortfall;
+    }
+
+    /**
+     * Returns the recipes that are almost cookable, closest first.
+     * The application's {@link CookableIndex} answers for the loaded catalogues; other catalogues are
+     * indexed just for this call.
+     *
+     * @param recipeBook   The recipe book to search.
+     * @param inventory    The inventory to cook from.
+     * @param maxMissing   The largest number of missing ingredients accepted.
+     * @param maxShortfall The largest number of missing units accepted, or 0 to only count ingredients.
+     * @param limit        The maximum number of recipes to return.
+     * @return The recipes, with the fewest missing units first.
+     */
+    public static ArrayList<Recipe> getNearCookableRecipes(RecipeBook recipeBook, Inventory inventory,
+            int maxMissing, int maxShortfall, int limit) {
+        CookableIndex cookableIndex = KitchenCTRL.getCookableIndex();
+        if (cookableIndex != null && cookableIndex.tracks(recipeBook, inventory)) {
+            return cookableIndex.getNearCookableRecipes(maxMissing, maxShortfall, limit);
+        }
+
+        CookableIndex oneOffIndex = new CookableIndex(recipeBook, inventory);
+        try {
+            return oneOffIndex.getNearCookableRecipes(maxMissing, maxShortfall, limit);
+        } finally {
+            oneOffIndex.close();
+        }
+    }
+
+    /**
+     * Lists the recipes that are almost cookable with the given inventory.
+     *
+     * @param catalogue The inventory to cook from.
+     * @return A {@code CommandResult} listing the recipes and what they lack.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof Inventory inventory)) {
+            return new CommandResult("Catalogue is not Inventory!");
+        }
+
+        RecipeBook recipeBook = KitchenCTRL.getRecipeBook();
+        if (recipeBook == null) {
+            return new CommandResult("RecipeBook is empty, please add some recipes!");
+        }
+
+        ArrayList<Recipe> recipes = getNearCookableRecipes(recipeBook, inventory, maxMissing, maxShortfall,
+                MAX_LISTED);
+        if (recipes.isEmpty()) {
+            return new CommandResult("No recipes are that close to being cookable.");
+        }
+
+        StringBuilder result = new StringBuilder("Recipes you can almost cook:\n");
+        for (int i = 0; i < recipes.size(); i++) {
+            ArrayList<Ingredient> missing = new CookRecipeCommand(recipes.get(i)).getMissingIngredients(inventory);
+            result.append(i + 1).append(". ").append(recipes.get(i).getRecipeName())
+                    .append(" - missing: ").append(missing).append("\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+}
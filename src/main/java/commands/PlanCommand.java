@@ -0,0 +1,78 @@
+package commands;
+
+import controller.KitchenCTRL;
+import model.catalogue.Catalogue;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.planner.MealPlanner;
+
+import java.util.Map;
+
+/**
+ * Represents a command that plans which recipes to cook, and how many times, to make the most of the inventory.
+ *
+ * <p>The plan is found by a {@link MealPlanner} within a deadline, which can be changed with the
+ * {@code kitchenctrl.planDeadlineMillis} system property. When the deadline cuts the search short,
+ * the best plan found so far is shown.</p>
+ */
+public class PlanCommand extends Command {
+    /** Time allowed for planning, in milliseconds. */
+    public static final long DEADLINE_MILLIS = Long.getLong("kitchenctrl.planDeadlineMillis", 500);
+
+    private final MealPlanner planner;
+    private final String goalDescription;
+
+    /**
+     * Constructs a {@code PlanCommand} maximizing one of the predefined goals.
+     *
+     * @param goal The quantity to maximize.
+     */
+    public PlanCommand(MealPlanner.Goal goal) {
+        this.planner = new MealPlanner(goal);
+        this.goalDescription = goal == MealPlanner.Goal.UNITS ? "ingredient units used" : "recipes cooked";
+    }
+
+    /**
+     * Constructs a {@code PlanCommand} maximizing the total weight of the recipes cooked.
+     *
+     * @param weights The weight of each recipe. Recipes without a weight are not planned.
+     */
+    public PlanCommand(Map<Recipe, Integer> weights) {
+        this.planner = new MealPlanner(recipe -> weights.getOrDefault(recipe, 0));
+        this.goalDescription = "total weight";
+    }
+
+    /**
+     * Plans the recipes to cook with the given inventory.
+     *
+     * @param catalogue The inventory to cook from. It is not modified.
+     * @return A {@code CommandResult} listing the recipes to cook and how many times.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof Inventory inventory)) {
+            return new CommandResult("Catalogue is not Inventory!");
+        }
+
+        RecipeBook recipeBook = KitchenCTRL.getRecipeBook();
+        if (recipeBook == null) {
+            return new CommandResult("RecipeBook is empty, please add some recipes!");
+        }
+
+        MealPlanner.Plan plan = planner.plan(recipeBook.getItems(), inventory, DEADLINE_MILLIS);
+        if (plan.getServings().isEmpty()) {
+            return new CommandResult("No recipes can be cooked with the current inventory. "
+                    + "Please get more ingredients!");
+        }
+
+        StringBuilder result = new StringBuilder(plan.isOptimal() ? "Best plan" : "Best plan found in time");
+        result.append(" (").append(goalDescription).append(": ").append(plan.getValue()).append("):\n");
+        int index = 1;
+        for (Map.Entry<Recipe, Integer> entry : plan.getServings().entrySet()) {
+            result.append(index++).append(". ").append(entry.getValue()).append("x ")
+                    .append(entry.getKey().getRecipeName()).append("\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+}
@@ -0,0 +1,55 @@
+package commands;
+
+import model.catalogue.Catalogue;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import java.util.ArrayList;
+
+/**
+ * Represents a command that ranks recipes by how well their names and ingredients match a set of words.
+ *
+ * <p>Unlike {@link FindCommand}, which lists the recipes whose name contains the keyword, this matches
+ * each word separately against recipe names and ingredient names, and lists the best matches first,
+ * as ranked by {@link RecipeBook#searchRecipes(String, int)}.</p>
+ */
+public class SearchCommand extends Command {
+    /** Maximum number of recipes listed. */
+    public static final int MAX_LISTED = 10;
+
+    private final String query;
+
+    /**
+     * Constructs a {@code SearchCommand} for the given words.
+     *
+     * @param query The words to look for, separated by spaces.
+     */
+    public SearchCommand(String query) {
+        assert query != null && !query.isBlank() : "Query must not be empty";
+        this.query = query;
+    }
+
+    /**
+     * Searches the recipe book for the most relevant recipes.
+     *
+     * @param catalogue The current catalogue, which must be the recipe book.
+     * @return A {@code CommandResult} listing the matching recipes, best first.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof RecipeBook recipeBook)) {
+            return new CommandResult("Command only executable in RecipeBook screen!");
+        }
+
+        ArrayList<Recipe> recipes = recipeBook.searchRecipes(query, MAX_LISTED);
+        if (recipes.isEmpty()) {
+            return new CommandResult("No recipes match: " + query);
+        }
+
+        StringBuilder result = new StringBuilder("Best matching recipes:\n");
+        for (int i = 0; i < recipes.size(); i++) {
+            result.append(i + 1).append(". ").append(recipes.get(i).getRecipeName()).append("\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+}
@@ -0,0 +1,72 @@
+package commands;
+
+import controller.KitchenCTRL;
+import model.catalogue.Catalogue;
+import model.catalogue.Inventory;
+import model.catalogue.RecipeBook;
+import model.index.CookableScan;
+
+import java.util.ArrayList;
+
+/**
+ * Represents a command that lists how many times each recipe can be cooked with the current inventory.
+ *
+ * <p>The number of servings of a recipe is the smallest ratio of available to required quantity
+ * over its ingredients. Recipes are listed with the most servings first, and recipes that cannot
+ * be cooked at all are left out.</p>
+ */
+public class ServingsCommand extends Command {
+    private final int limit;
+
+    /**
+     * Constructs a {@code ServingsCommand} listing every cookable recipe.
+     */
+    public ServingsCommand() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a {@code ServingsCommand} listing only the recipes with the most servings.
+     *
+     * @param limit The maximum number of recipes to list.
+     */
+    public ServingsCommand(int limit) {
+        assert limit > 0 : "Limit must be positive";
+        this.limit = limit;
+    }
+
+    /**
+     * Computes the servings of every recipe against the given inventory.
+     *
+     * @param catalogue The inventory to cook from.
+     * @return A {@code CommandResult} listing the recipes and their servings, or indicating none can be cooked.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof Inventory inventory)) {
+            return new CommandResult("Catalogue is not Inventory!");
+        }
+
+        RecipeBook recipeBook = KitchenCTRL.getRecipeBook();
+        if (recipeBook == null) {
+            return new CommandResult("RecipeBook is empty, please add some recipes!");
+        }
+
+        ArrayList<CookableScan.Servings> ranked = CookableScan.snapshot(inventory)
+                .findTopServings(recipeBook.getItems(), limit);
+        if (ranked.isEmpty()) {
+            return new CommandResult("No recipes can be cooked with the current inventory. "
+                    + "Please get more ingredients!");
+        }
+
+        StringBuilder result = new StringBuilder("Servings you can cook with your inventory:\n");
+        for (int i = 0; i < ranked.size(); i++) {
+            CookableScan.Servings entry = ranked.get(i);
+            String servings = entry.getServings() == Integer.MAX_VALUE
+                    ? "unlimited" : String.valueOf(entry.getServings());
+            result.append(i + 1).append(". ").append(entry.getRecipe().getRecipeName())
+                    .append(" (").append(servings).append(")\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+}
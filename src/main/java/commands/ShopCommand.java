@@ -0,0 +1,109 @@
+package commands;
+
+import controller.KitchenCTRL;
+import model.Ingredient;
+import model.catalogue.Catalogue;
+import model.catalogue.CompactRecipe;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a command that builds one shopping list for cooking several recipes.
+ *
+ * <p>The requirements of every recipe, counted once per time it is listed, are merged into a single
+ * demand per ingredient. The inventory is then subtracted, as {@link CookRecipeCommand#getMissingIngredients}
+ * does for a single recipe, leaving what needs to be bought.</p>
+ */
+public class ShopCommand extends Command {
+    private final ArrayList<Recipe> recipes;
+
+    /**
+     * Constructs a {@code ShopCommand} for the given recipes.
+     *
+     * @param recipes The recipes to cook. A recipe listed several times is cooked that many times.
+     */
+    public ShopCommand(List<Recipe> recipes) {
+        assert recipes != null && !recipes.isEmpty() : "Recipes to shop for must not be empty";
+        this.recipes = new ArrayList<>(recipes);
+    }
+
+    /**
+     * Returns what must be bought to cook every given recipe with the given inventory.
+     * <p>
+     * Each recipe's compact lines form a sparse vector over ingredient IDs (normalized names); the vectors
+     * are added up, weighted by how often each recipe is listed, in time proportional to the number of
+     * distinct lines rather than to the size of the recipe book or inventory.
+     * </p>
+     *
+     * @param recipes   The recipes to cook, repeats included.
+     * @param inventory The inventory to cook from.
+     * @return The ingredients to buy with the quantities missing, sorted by name.
+     */
+    public static ArrayList<Ingredient> getShoppingList(List<Recipe> recipes, Inventory inventory) {
+        IdentityHashMap<Recipe, Integer> timesCooked = new IdentityHashMap<>();
+        for (Recipe recipe : recipes) {
+            timesCooked.merge(recipe, 1, Integer::sum);
+        }
+
+        // Ingredient ID -> total quantity required, and the spelling to show it under
+        HashMap<Integer, Long> demand = new HashMap<>();
+        HashMap<Integer, String> names = new HashMap<>();
+        for (Recipe recipe : recipes) {
+            // Each distinct recipe is added once, where it is first listed, so names follow the order given
+            Integer times = timesCooked.remove(recipe);
+            if (times == null) {
+                continue;
+            }
+            CompactRecipe lines = recipe.toCompact();
+            for (int i = 0; i < lines.size(); i++) {
+                demand.merge(lines.getId(i), (long) lines.getQuantity(i) * times, Long::sum);
+                names.putIfAbsent(lines.getId(i), lines.getName(i));
+            }
+        }
+
+        ArrayList<Ingredient> shoppingList = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : demand.entrySet()) {
+            String name = names.get(entry.getKey());
+            Ingredient available = inventory.getItemByName(name);
+            long shortage = entry.getValue() - (available == null ? 0 : available.getQuantity());
+            if (shortage > 0) {
+                shoppingList.add(new Ingredient(name, (int) Math.min(shortage, Integer.MAX_VALUE)));
+            }
+        }
+        shoppingList.sort((a, b) -> a.getIngredientName().compareToIgnoreCase(b.getIngredientName()));
+        return shoppingList;
+    }
+
+    /**
+     * Lists what must be bought to cook the recipes with the current inventory.
+     *
+     * @param catalogue The current catalogue, which must be the recipe book.
+     * @return A {@code CommandResult} listing the ingredients to buy.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof RecipeBook)) {
+            return new CommandResult("Command only executable in RecipeBook screen!");
+        }
+
+        ArrayList<Ingredient> shoppingList = getShoppingList(recipes, KitchenCTRL.getInventory());
+        if (shoppingList.isEmpty()) {
+            return new CommandResult("You already have everything needed for these recipes!");
+        }
+
+        StringBuilder result = new StringBuilder("Shopping list for " + recipes.size() + " recipe(s):\n");
+        for (int i = 0; i < shoppingList.size(); i++) {
+            Ingredient ingredient = shoppingList.get(i);
+            result.append(i + 1).append(". ").append(ingredient.getQuantity()).append("x ")
+                    .append(ingredient.getIngredientName()).append("\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+}
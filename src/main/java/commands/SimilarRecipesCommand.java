@@ -0,0 +1,61 @@
+package commands;
+
+import model.catalogue.Catalogue;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.RecipeSimilarityIndex;
+
+import java.util.ArrayList;
+
+/**
+ * Represents a command that lists the recipes whose ingredients overlap most with those of a given recipe.
+ *
+ * <p>Overlap is the Jaccard similarity of the two ingredient sets, as found by the recipe book's
+ * {@link RecipeSimilarityIndex}. Only recipes sharing at least {@link #MIN_SIMILARITY} of their
+ * ingredients are listed, most similar first.</p>
+ */
+public class SimilarRecipesCommand extends Command {
+    /** Smallest similarity listed. */
+    public static final double MIN_SIMILARITY = 0.5;
+    /** Maximum number of recipes listed. */
+    public static final int MAX_LISTED = 10;
+
+    private final Recipe recipe;
+
+    /**
+     * Constructs a {@code SimilarRecipesCommand} for the given recipe.
+     *
+     * @param recipe A recipe of the recipe book.
+     */
+    public SimilarRecipesCommand(Recipe recipe) {
+        assert recipe != null : "Recipe must not be null";
+        this.recipe = recipe;
+    }
+
+    /**
+     * Lists the recipes similar to the given one.
+     *
+     * @param catalogue The current catalogue, which must be the recipe book.
+     * @return A {@code CommandResult} listing the similar recipes and their similarity.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof RecipeBook recipeBook)) {
+            return new CommandResult("Command only executable in RecipeBook screen!");
+        }
+
+        ArrayList<RecipeSimilarityIndex.Match> matches = recipeBook.getSimilarityIndex()
+                .findSimilar(recipe, MIN_SIMILARITY, MAX_LISTED);
+        if (matches.isEmpty()) {
+            return new CommandResult("No recipes are similar to " + recipe.getRecipeName() + ".");
+        }
+
+        StringBuilder result = new StringBuilder("Recipes similar to " + recipe.getRecipeName() + ":\n");
+        for (int i = 0; i < matches.size(); i++) {
+            RecipeSimilarityIndex.Match match = matches.get(i);
+            result.append(i + 1).append(". ").append(match.getSecond().getRecipeName())
+                    .append(" (").append(Math.round(match.getSimilarity() * 100)).append("% shared)\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+}
@@ -0,0 +1,99 @@
+package commands;
+
+import controller.KitchenCTRL;
+import model.Ingredient;
+import model.catalogue.Catalogue;
+import model.catalogue.Inventory;
+import model.catalogue.RecipeBook;
+import model.index.CookableIndex;
+
+import java.util.ArrayList;
+
+/**
+ * Represents a command that suggests which ingredients to buy next, ranked by how many more recipes
+ * they would make cookable.
+ *
+ * <p>Each suggestion is a single ingredient, or a set of up to {@link CookableIndex#MAX_PURCHASE_SIZE}
+ * ingredients bought together, with the units of each to buy. Suggestions unlocking the same number of
+ * recipes are ranked by the fewest units to buy.</p>
+ */
+public class UnlockCommand extends Command {
+    /** Maximum number of purchases listed. */
+    public static final int MAX_LISTED = 10;
+
+    private final int size;
+
+    /**
+     * Constructs an {@code UnlockCommand}.
+     *
+     * @param size The number of distinct ingredients bought together, from 1 to
+     *             {@link CookableIndex#MAX_PURCHASE_SIZE}.
+     */
+    public UnlockCommand(int size) {
+        assert size >= 1 && size <= CookableIndex.MAX_PURCHASE_SIZE : "Unsupported purchase size";
+        this.size = size;
+    }
+
+    /**
+     * Returns the purchases that would make the most recipes cookable, best first.
+     * The application's {@link CookableIndex} answers for the loaded catalogues; other catalogues are
+     * indexed just for this call.
+     *
+     * @param recipeBook The recipe book to cook from.
+     * @param inventory  The inventory the purchase is added to.
+     * @param size       The number of distinct ingredients bought together.
+     * @param limit      The maximum number of purchases to return.
+     * @return The purchases, unlocking the most recipes first.
+     */
+    public static ArrayList<CookableIndex.Purchase> getBestPurchases(RecipeBook recipeBook, Inventory inventory,
+            int size, int limit) {
+        CookableIndex cookableIndex = KitchenCTRL.getCookableIndex();
+        if (cookableIndex != null && cookableIndex.tracks(recipeBook, inventory)) {
+            return cookableIndex.getBestPurchases(size, limit);
+        }
+
+        CookableIndex oneOffIndex = new CookableIndex(recipeBook, inventory);
+        try {
+            return oneOffIndex.getBestPurchases(size, limit);
+        } finally {
+            oneOffIndex.close();
+        }
+    }
+
+    /**
+     * Lists the ingredients to buy next to make the most recipes cookable with the given inventory.
+     *
+     * @param catalogue The inventory to cook from.
+     * @return A {@code CommandResult} listing the purchases and the number of recipes each unlocks.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof Inventory inventory)) {
+            return new CommandResult("Catalogue is not Inventory!");
+        }
+
+        RecipeBook recipeBook = KitchenCTRL.getRecipeBook();
+        if (recipeBook == null) {
+            return new CommandResult("RecipeBook is empty, please add some recipes!");
+        }
+
+        ArrayList<CookableIndex.Purchase> purchases = getBestPurchases(recipeBook, inventory, size, MAX_LISTED);
+        if (purchases.isEmpty()) {
+            return new CommandResult("No purchase of " + size + (size == 1 ? " ingredient" : " ingredients")
+                    + " would make another recipe cookable.");
+        }
+
+        StringBuilder result = new StringBuilder("Best ingredients to buy next:\n");
+        for (int i = 0; i < purchases.size(); i++) {
+            CookableIndex.Purchase purchase = purchases.get(i);
+            ArrayList<String> ingredients = new ArrayList<>();
+            for (Ingredient ingredient : purchase.getIngredients()) {
+                ingredients.add(ingredient.toString());
+            }
+            int count = purchase.getRecipeCount();
+            result.append(i + 1).append(". ").append(String.join(" + ", ingredients))
+                    .append(" -> ").append(count).append(count == 1 ? " more recipe\n" : " more recipes\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+}
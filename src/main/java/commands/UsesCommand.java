@@ -0,0 +1,108 @@
+package commands;
+
+import model.catalogue.Catalogue;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.RecipePostingIndex;
+import model.index.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a command that lists the recipes using a combination of ingredients.
+ *
+ * <p>The query is a list of alternatives, any of which a recipe may satisfy. Each alternative requires
+ * some ingredients and excludes others, e.g. "egg and milk but not nuts". The alternatives are answered
+ * with the bitmap operations of the recipe book's {@link RecipePostingIndex}.</p>
+ */
+public class UsesCommand extends Command {
+    private final ArrayList<Clause> clauses;
+
+    /**
+     * Constructs a {@code UsesCommand} matching any of the given alternatives.
+     *
+     * @param clauses The alternatives, at least one.
+     */
+    public UsesCommand(List<Clause> clauses) {
+        assert clauses != null && !clauses.isEmpty() : "Query must have at least one alternative";
+        this.clauses = new ArrayList<>(clauses);
+    }
+
+    /**
+     * Returns the recipes of a recipe book satisfying any of the given alternatives.
+     *
+     * @param recipeBook The recipe book to search.
+     * @param clauses    The alternatives.
+     * @return The matching recipes, in recipe book order.
+     */
+    public static ArrayList<Recipe> getMatchingRecipes(RecipeBook recipeBook, List<Clause> clauses) {
+        RecipePostingIndex index = recipeBook.getPostingIndex();
+        RoaringBitmap matches = new RoaringBitmap();
+        for (Clause clause : clauses) {
+            matches = RoaringBitmap.or(matches, index.match(clause.getRequired(), clause.getExcluded()));
+        }
+        return index.getRecipes(matches);
+    }
+
+    /**
+     * Lists the recipes matching the query.
+     *
+     * @param catalogue The current catalogue, which must be the recipe book.
+     * @return A {@code CommandResult} listing the matching recipes.
+     */
+    @Override
+    public CommandResult execute(Catalogue<?> catalogue) {
+        if (!(catalogue instanceof RecipeBook recipeBook)) {
+            return new CommandResult("Command only executable in RecipeBook screen!");
+        }
+
+        ArrayList<Recipe> recipes = getMatchingRecipes(recipeBook, clauses);
+        if (recipes.isEmpty()) {
+            return new CommandResult("No recipes use that combination of ingredients.");
+        }
+
+        StringBuilder result = new StringBuilder("Recipes using that combination of ingredients:\n");
+        for (int i = 0; i < recipes.size(); i++) {
+            result.append(i + 1).append(". ").append(recipes.get(i).getRecipeName()).append("\n");
+        }
+        return new CommandResult(result.toString().trim());
+    }
+
+    /**
+     * One alternative of a query: the ingredients a recipe must all use, and those it must not use.
+     */
+    public static class Clause {
+        private final List<String> required;
+        private final List<String> excluded;
+
+        /**
+         * Constructs an alternative.
+         *
+         * @param required The ingredient names a recipe must all use. If empty, any recipe qualifies.
+         * @param excluded The ingredient names a recipe must not use.
+         */
+        public Clause(List<String> required, List<String> excluded) {
+            this.required = List.copyOf(required);
+            this.excluded = List.copyOf(excluded);
+        }
+
+        /**
+         * Returns the ingredient names a recipe must all use.
+         *
+         * @return The required names.
+         */
+        public List<String> getRequired() {
+            return required;
+        }
+
+        /**
+         * Returns the ingredient names a recipe must not use.
+         *
+         * @return The excluded names.
+         */
+        public List<String> getExcluded() {
+            return excluded;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import model.catalogue.Catalogue;
 import model.catalogue.Recipe;
 import model.catalogue.RecipeBook;
 import model.catalogue.Inventory;
+import model.index.CookableIndex;
 
 import ui.inputparser.Parser;
 import ui.inputparser.Ui;
@@ -32,6 +33,8 @@ public class KitchenCTRL {
     private static RecipeBook recipeBook;
     private static ScreenState currentScreen = ScreenState.WELCOME;
     private static Recipe activeRecipe;
+    private static CatalogueContentManager contentManager;
+    private static CookableIndex cookableIndex;
 
     // Instance variables
     private Ui ui;
@@ -66,10 +69,14 @@ public class KitchenCTRL {
 
     /**
      * Sets the currently active recipe in the application context.
+     * The previously active recipe, if any, is frozen again.
      *
      * @param recipe The {@code Recipe} to set as active.
      */
     public static void setActiveRecipe(Recipe recipe) {
+        if (activeRecipe != null && activeRecipe != recipe) {
+            activeRecipe.freeze(); // Done editing, so return it to its compact form
+        }
         activeRecipe = recipe;
     }
 
@@ -115,9 +122,13 @@ public class KitchenCTRL {
     //for test cases
     public void initializeCatalogues() {
         try {
-            CatalogueContentManager contentManager = new CatalogueContentManager();
+            contentManager = new CatalogueContentManager();
             inventory = contentManager.loadInventory();
             recipeBook = contentManager.loadRecipeBook();
+            if (cookableIndex != null) {
+                cookableIndex.close();
+            }
+            cookableIndex = new CookableIndex(recipeBook, inventory);
         } catch (Exception e) {
             throw new RuntimeException("Error initializing catalogues", e);
         }
@@ -135,6 +146,7 @@ public class KitchenCTRL {
             this.ui = new Ui();
             this.parser = new Parser();
             initializeCatalogues();
+            contentManager.openJournals(inventory, recipeBook);
             ui.showInitMessage();
             Ui.showWelcomeMessage();
         } catch (Exception e) {
@@ -184,6 +196,7 @@ public class KitchenCTRL {
             if (command instanceof BackCommand || command instanceof GoToCommand ||
                     command instanceof EditRecipeCommand || command instanceof ListCommandsCommand) {
                 result = command.execute();
+                contentManager.commitJournals();
                 if (result.getNewScreen() != null) {
                     currentScreen = result.getNewScreen();
                 }
@@ -200,6 +213,9 @@ public class KitchenCTRL {
                     ? command.execute() // e.g., welcome screen or global commands
                     : command.execute(catalogue); // inventory/active recipe
 
+            // Persist the changes made by the command with a single journal flush
+            contentManager.commitJournals();
+
             // Display result to the user
             ui.showResultToUser(result);
             ui.showDivider();
@@ -210,6 +226,7 @@ public class KitchenCTRL {
      * Cleans up and performs any final actions required before the program terminates.
      */
     private void exit() {
+        contentManager.closeJournals();
         ui.showGoodbyeMessage();
         System.exit(0);
     }
@@ -237,6 +254,24 @@ public class KitchenCTRL {
         return inventory;
     }
 
+    /**
+     * Returns the content manager the catalogues were loaded with, or {@code null} before initialization.
+     *
+     * @return The active {@code CatalogueContentManager}.
+     */
+    public static CatalogueContentManager getContentManager() {
+        return contentManager;
+    }
+
+    /**
+     * Returns the index of cookable recipes for the loaded catalogues, or {@code null} before initialization.
+     *
+     * @return The active {@code CookableIndex}.
+     */
+    public static CookableIndex getCookableIndex() {
+        return cookableIndex;
+    }
+
     public static ArrayList<Catalogue<?>> getAllCatalogues() {
         ArrayList<Catalogue<?>> catalogues = new ArrayList<>();
         catalogues.add(inventory);
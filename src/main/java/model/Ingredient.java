@@ -1,7 +1,13 @@
 package model;
 
+/**
+ * An ingredient and its quantity, as held by an inventory or a recipe.
+ * Ingredients are equal when their names match case-insensitively, which is decided
+ * by comparing the IDs assigned by the {@link IngredientDictionary}.
+ */
 public class Ingredient {
     private String ingredientName;
+    private int id;
     private int quantity;
 
     public Ingredient(String ingredientName, int quantity) {
@@ -11,10 +17,32 @@ public class Ingredient {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be a positive integer.");
         }
+        this.ingredientName = IngredientDictionary.intern(ingredientName);
+        this.id = IngredientDictionary.getId(ingredientName);
+        this.quantity = quantity;
+    }
+
+    private Ingredient(String ingredientName, int id, int quantity) {
         this.ingredientName = ingredientName;
+        this.id = id;
         this.quantity = quantity;
     }
 
+    /**
+     * Returns a new ingredient with the same name and a different quantity. Unlike the constructor,
+     * this does not look the name up in the {@link IngredientDictionary}, which matters when decoding
+     * many lines naming the same ingredients.
+     *
+     * @param quantity The quantity of the new ingredient.
+     * @return The new ingredient.
+     */
+    public Ingredient withQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be a positive integer.");
+        }
+        return new Ingredient(ingredientName, id, quantity);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -26,12 +54,12 @@ public class Ingredient {
         }
 
         Ingredient that = (Ingredient) obj;
-        return ingredientName.equalsIgnoreCase(that.ingredientName); // Case-insensitive comparison
+        return id == that.id; // Same ID means same name, ignoring case
     }
 
     @Override
     public int hashCode() {
-        return ingredientName.toLowerCase().hashCode();
+        return id;
     }
 
     @Override
@@ -43,11 +71,21 @@ public class Ingredient {
         return ingredientName;
     }
 
+    /**
+     * Returns the ID the {@link IngredientDictionary} assigned to this ingredient's name.
+     *
+     * @return The ingredient ID.
+     */
+    public int getId() {
+        return id;
+    }
+
     public void setIngredientName(String ingredientName) {
         if (ingredientName == null || ingredientName.trim().isEmpty()) {
             throw new IllegalArgumentException("Ingredient name cannot be null or empty.");
         }
-        this.ingredientName = ingredientName;
+        this.ingredientName = IngredientDictionary.intern(ingredientName);
+        this.id = IngredientDictionary.getId(ingredientName);
     }
 
     public void setQuantity(int quantity) {
@@ -0,0 +1,95 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A global dictionary of ingredient names shared by every catalogue.
+ * <p>
+ * Each distinct ingredient, compared case-insensitively and ignoring surrounding whitespace, is assigned
+ * a dense integer ID the first time it is seen. The first spelling seen becomes its canonical name.
+ * Spellings are also interned, so the thousands of recipes naming the same ingredient share a single
+ * {@code String} instance instead of holding their own copies.
+ * </p>
+ * <p>
+ * IDs are only meaningful within a single run of the application and are never written to storage.
+ * The dictionary is safe to use from several threads.
+ * </p>
+ */
+public final class IngredientDictionary {
+    private static final ConcurrentHashMap<String, Integer> idsByKey = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, String> spellings = new ConcurrentHashMap<>();
+    private static final ArrayList<String> canonicalNames = new ArrayList<>();
+
+    private IngredientDictionary() {
+    }
+
+    /**
+     * Normalizes an ingredient name into the form ingredients are compared by.
+     *
+     * @param name The ingredient name.
+     * @return The name without surrounding whitespace, in lower case.
+     */
+    public static String normalize(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * Returns the ID of an ingredient name, assigning a new one if the name has not been seen before.
+     *
+     * @param name The ingredient name, in any spelling.
+     * @return The ID shared by every spelling of the name.
+     */
+    public static int getId(String name) {
+        Integer id = idsByKey.get(normalize(name));
+        if (id != null) {
+            return id;
+        }
+        return idsByKey.computeIfAbsent(normalize(name), key -> register(intern(name)));
+    }
+
+    /**
+     * Returns the ID of an ingredient name without assigning one.
+     *
+     * @param name The ingredient name, in any spelling.
+     * @return The ID of the name, or -1 if it has never been seen.
+     */
+    public static int findId(String name) {
+        return idsByKey.getOrDefault(normalize(name), -1);
+    }
+
+    /**
+     * Returns the canonical name of an ingredient: the first spelling the dictionary saw.
+     *
+     * @param id An ID returned by {@link #getId(String)}.
+     * @return The canonical name.
+     */
+    public static synchronized String getCanonicalName(int id) {
+        return canonicalNames.get(id);
+    }
+
+    /**
+     * Returns the shared instance of a spelling.
+     *
+     * @param spelling An ingredient name exactly as written.
+     * @return An equal string, shared by every caller interning the same spelling.
+     */
+    public static String intern(String spelling) {
+        String existing = spellings.putIfAbsent(spelling, spelling);
+        return existing == null ? spelling : existing;
+    }
+
+    /**
+     * Returns the number of distinct ingredients seen so far, which is also the next ID to be assigned.
+     *
+     * @return The number of IDs assigned.
+     */
+    public static synchronized int size() {
+        return canonicalNames.size();
+    }
+
+    private static synchronized int register(String canonicalName) {
+        canonicalNames.add(canonicalName);
+        return canonicalNames.size() - 1;
+    }
+}
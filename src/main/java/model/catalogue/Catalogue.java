@@ -2,10 +2,18 @@ package model.catalogue;
 
 import commands.CommandResult;
 import model.Ingredient;
+import model.index.BkTreeIndex;
+import model.index.ItemIndex;
+import model.index.SubstringIndex;
+import model.index.TokenIndex;
+import model.index.TrigramIndex;
 
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
 /**
  * A generic catalogue of items, providing common methods for managing them.
@@ -15,7 +23,32 @@ import java.util.ArrayList;
  * @param <T> The type of item stored in the catalogue.
  */
 public abstract class Catalogue<T> {
+    /** Maximum number of close names suggested when a search or lookup finds nothing. */
+    public static final int MAX_SUGGESTIONS = 5;
+
     protected ArrayList<T> items;
+    /** Registered listeners, allocated on first registration; see {@link #notifyListeners(Consumer)}. */
+    private ArrayList<CatalogueListener> listeners;
+    /** Number of changes made so far; see {@link #getVersion()}. */
+    private long version;
+    /** The catalogue this one is part of (a recipe's book), whose version changes along with this one's. */
+    private Catalogue<?> owner;
+
+    /**
+     * Case-folded item name -> first item in the list with that name, for O(1) exact-name lookups.
+     * Allocated when the first item is stored, so a frozen recipe, which stores none, carries no map.
+     */
+    private HashMap<String, T> nameIndex;
+    /** Case-folded names shared by more than one item -> number of such items, allocated on first duplicate. */
+    private HashMap<String, Integer> duplicateNameCounts;
+    /** Token index for similar-name searches; built on first use, then maintained incrementally. */
+    private TokenIndex<T> tokenIndex;
+    /** Substring index for find queries; built on first use, then maintained incrementally. */
+    private SubstringIndex<T> substringIndex;
+    /** BK-tree over names for typo-tolerant searches; built on first use, then maintained incrementally. */
+    private BkTreeIndex<T> fuzzyIndex;
+    /** Every secondary index built so far, updated by the mutation helpers below; allocated with the first one. */
+    private ArrayList<ItemIndex<T>> secondaryIndexes;
 
     /**
      * Constructs an empty catalogue.
@@ -24,6 +57,361 @@ public abstract class Catalogue<T> {
         this.items = new ArrayList<>();
     }
 
+    /**
+     * Registers a listener to be notified whenever this catalogue is modified.
+     *
+     * @param listener The listener to register.
+     */
+    public void addListener(CatalogueListener listener) {
+        if (listener == null) {
+            return;
+        }
+        if (listeners == null) {
+            listeners = new ArrayList<>(1);
+        }
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Unregisters a previously registered listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(CatalogueListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Returns the version of the contents of this catalogue, which changes whenever an item is added, removed,
+     * edited or cooked. A recipe book's version also changes when one of its recipes is edited.
+     * Two equal versions of the same catalogue mean that its contents did not change in between.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Marks the contents of this catalogue, and those of the catalogue it is part of, as changed.
+     */
+    protected void markChanged() {
+        version++;
+        if (owner != null) {
+            owner.markChanged();
+        }
+    }
+
+    /**
+     * Sets the catalogue this one is part of, whose version then changes along with this one's.
+     *
+     * @param owner The owning catalogue, or {@code null} if this catalogue stands alone.
+     */
+    void setOwner(Catalogue<?> owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Returns the catalogue this one is part of.
+     *
+     * @return The owning catalogue, or {@code null} if this catalogue stands alone.
+     */
+    Catalogue<?> getOwner() {
+        return owner;
+    }
+
+    /**
+     * Marks the catalogue as changed and delivers a change notification to every registered listener.
+     * Every mutation that notifies listeners therefore also changes the version.
+     * <p>
+     * The notification is then delivered to the listeners of the catalogue this one is part of, so a
+     * listener registered on a recipe book also hears about edits to each of its recipes without
+     * registering on every recipe.
+     * </p>
+     *
+     * @param event The notification to deliver.
+     */
+    protected void notifyListeners(Consumer<CatalogueListener> event) {
+        markChanged();
+        for (Catalogue<?> catalogue = this; catalogue != null; catalogue = catalogue.owner) {
+            if (catalogue.listeners != null) {
+                // Copy so that listeners may (un)register themselves while being notified
+                for (CatalogueListener listener : new ArrayList<>(catalogue.listeners)) {
+                    event.accept(listener);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the name an item is looked up by.
+     *
+     * @param item An item of this catalogue.
+     * @return The item's name, or {@code null} if it has none.
+     */
+    protected abstract String getItemName(T item);
+
+    /**
+     * Normalizes a name into the key used by the name index: surrounding whitespace is ignored
+     * and the comparison is case-insensitive.
+     *
+     * @param name The name to normalize.
+     * @return The index key, or {@code null} if the name is {@code null}.
+     */
+    protected static String toNameKey(String name) {
+        return name == null ? null : name.trim().toLowerCase();
+    }
+
+    /**
+     * Returns the first item whose name matches the given name (case-insensitive), in O(1).
+     *
+     * @param name The name to look up.
+     * @return The matching item, or {@code null} if there is none.
+     */
+    protected T findByName(String name) {
+        String key = toNameKey(name);
+        return key == null || nameIndex == null ? null : nameIndex.get(key);
+    }
+
+    /**
+     * Appends an item to the catalogue and indexes it.
+     * Subclasses must modify {@link #items} only through these helpers to keep the indexes in sync.
+     *
+     * @param item The item to append.
+     */
+    protected void appendItem(T item) {
+        items.add(item);
+        indexItem(item);
+        if (secondaryIndexes != null) {
+            for (ItemIndex<T> secondaryIndex : secondaryIndexes) {
+                secondaryIndex.add(item);
+            }
+        }
+    }
+
+    /**
+     * Removes an item from the catalogue and from the indexes.
+     *
+     * @param item The item to remove.
+     * @return True if the item was in the catalogue.
+     */
+    protected boolean removeStoredItem(T item) {
+        int index = items.indexOf(item);
+        if (index == -1) {
+            return false;
+        }
+        T removed = items.remove(index);
+        unindexItem(removed);
+        if (secondaryIndexes != null) {
+            for (ItemIndex<T> secondaryIndex : secondaryIndexes) {
+                secondaryIndex.remove(removed);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the item at the given position and updates the indexes.
+     *
+     * @param index   The position of the item to replace.
+     * @param newItem The item to store at that position.
+     */
+    protected void replaceItemAt(int index, T newItem) {
+        T oldItem = items.get(index);
+        unindexItem(oldItem);
+        items.set(index, newItem);
+        indexItem(newItem);
+        if (secondaryIndexes != null) {
+            for (ItemIndex<T> secondaryIndex : secondaryIndexes) {
+                secondaryIndex.replace(oldItem, newItem);
+            }
+        }
+    }
+
+    /**
+     * Inserts an item at the given position and indexes it.
+     * The secondary indexes can only append, so they are rebuilt: this is meant for rare operations such
+     * as putting back an item removed by a change that failed.
+     *
+     * @param index The position to insert the item at.
+     * @param item  The item to insert.
+     */
+    protected void insertItemAt(int index, T item) {
+        items.add(index, item);
+        indexItem(item);
+        String key = toNameKey(getItemName(item));
+        if (key != null && duplicateNameCounts != null && duplicateNameCounts.containsKey(key)
+                && items.indexOf(nameIndex.get(key)) > index) {
+            nameIndex.put(key, item); // The name index points at the first item with a name
+        }
+        if (secondaryIndexes != null) {
+            for (ItemIndex<T> secondaryIndex : secondaryIndexes) {
+                secondaryIndex.clear();
+                for (T existing : items) {
+                    secondaryIndex.add(existing);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every item from the catalogue and clears the indexes.
+     */
+    protected void clearItems() {
+        items.clear();
+        nameIndex = null;
+        duplicateNameCounts = null;
+        if (secondaryIndexes != null) {
+            for (ItemIndex<T> secondaryIndex : secondaryIndexes) {
+                secondaryIndex.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the name used for similar-name searches: the item's name, lower-cased.
+     * Subclasses may override this to normalize names further.
+     *
+     * @param item An item of this catalogue.
+     * @return The normalized name, or {@code null} if the item has none.
+     */
+    protected String getSimilarityKey(T item) {
+        String name = getItemName(item);
+        return name == null ? null : name.toLowerCase();
+    }
+
+    /**
+     * Returns every item whose name shares a partially overlapping word with the given name,
+     * i.e. some word of one name contains some word of the other.
+     * <p>
+     * The token index is only built the first time a catalogue is searched, so catalogues that
+     * are never searched (e.g. most recipes) do not pay for it.
+     * </p>
+     *
+     * @param key The normalized name to compare against (see {@link #getSimilarityKey(Object)}).
+     * @return The similar items, in catalogue order.
+     */
+    protected ArrayList<T> findSimilarItems(String key) {
+        if (tokenIndex == null) {
+            tokenIndex = registerIndex(new TokenIndex<>(this::getSimilarityKey));
+        }
+        return tokenIndex.findSimilar(key);
+    }
+
+    /**
+     * Creates the index used to answer substring queries on item names.
+     * Subclasses may override this to plug in a different implementation.
+     *
+     * @return An empty substring index over the lower-cased item names.
+     */
+    protected SubstringIndex<T> createSubstringIndex() {
+        return new TrigramIndex<>(item -> {
+            String name = getItemName(item);
+            return name == null ? null : name.toLowerCase();
+        });
+    }
+
+    /**
+     * Returns every item whose name contains the given query, case-insensitively.
+     *
+     * @param query The text to look for.
+     * @return The matching items, in catalogue order.
+     */
+    protected ArrayList<T> findItemsByName(String query) {
+        if (substringIndex == null) {
+            substringIndex = registerIndex(createSubstringIndex());
+        }
+        return substringIndex.find(query.toLowerCase());
+    }
+
+    /**
+     * Returns the largest number of typos tolerated in a name of the given length: none for very short
+     * names, which are within a couple of edits of almost anything, then one, then two.
+     *
+     * @param name The name as entered by the user.
+     * @return The largest edit distance accepted when looking for names close to it.
+     */
+    protected static int getMaxTypos(String name) {
+        int length = name.trim().length();
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Returns the items whose name is a few typos away from the given name, case-insensitively.
+     * <p>
+     * Like the other secondary indexes, the BK-tree behind this is only built the first time a
+     * catalogue is searched this way, then kept in sync with the catalogue.
+     * </p>
+     *
+     * @param name  The name as entered by the user.
+     * @param limit The maximum number of items to return.
+     * @return The closest items within {@link #getMaxTypos(String)} edits, closest first, then in catalogue order.
+     */
+    public ArrayList<T> findItemsByFuzzyName(String name, int limit) {
+        if (fuzzyIndex == null) {
+            fuzzyIndex = registerIndex(new BkTreeIndex<>(item -> toNameKey(getItemName(item))));
+        }
+        return fuzzyIndex.findWithin(toNameKey(name), getMaxTypos(name), limit);
+    }
+
+    private <I extends ItemIndex<T>> I registerIndex(I index) {
+        for (T item : items) {
+            index.add(item);
+        }
+        if (secondaryIndexes == null) {
+            secondaryIndexes = new ArrayList<>(1);
+        }
+        secondaryIndexes.add(index);
+        return index;
+    }
+
+    private void indexItem(T item) {
+        String key = toNameKey(getItemName(item));
+        if (key == null) {
+            return;
+        }
+        if (nameIndex == null) {
+            nameIndex = new HashMap<>();
+        }
+        T existing = nameIndex.putIfAbsent(key, item);
+        if (existing != null) {
+            if (duplicateNameCounts == null) {
+                duplicateNameCounts = new HashMap<>();
+            }
+            duplicateNameCounts.merge(key, 2, (count, two) -> count + 1);
+        }
+    }
+
+    private void unindexItem(T item) {
+        String key = toNameKey(getItemName(item));
+        if (key == null) {
+            return;
+        }
+
+        Integer count = duplicateNameCounts == null ? null : duplicateNameCounts.get(key);
+        if (count == null) {
+            nameIndex.remove(key, item);
+            return;
+        }
+
+        // Rare: several items share the name, so the index must point at the first remaining one
+        if (count == 2) {
+            duplicateNameCounts.remove(key);
+        } else {
+            duplicateNameCounts.put(key, count - 1);
+        }
+        for (T remaining : items) {
+            if (remaining != item && key.equals(toNameKey(getItemName(remaining)))) {
+                nameIndex.put(key, remaining);
+                return;
+            }
+        }
+    }
+
     /**
      * Adds an item to the catalogue.
      *
@@ -32,6 +420,18 @@ public abstract class Catalogue<T> {
      */
     public abstract CommandResult addItem(T item, boolean isSilenced);
 
+    /**
+     * Adds many items at once, e.g. when loading a catalogue from storage.
+     * <p>
+     * Unlike {@link #addItem(Object, boolean)}, this trusts the given items: it never looks for similar
+     * items or prompts the user, and only merges exact duplicates, in a single pass over the input.
+     * The resulting contents are the same as adding each item in order with {@code addItem(item, true)}.
+     * </p>
+     *
+     * @param newItems The items to add, in order.
+     */
+    public abstract void addAllItems(List<T> newItems);
+
     /**
      * Deletes an item from the catalogue.
      *
@@ -47,9 +447,14 @@ public abstract class Catalogue<T> {
      * @param newItem The updated item.
      */
     public void updateItem(T oldItem, T newItem) {
+        T indexed = findByName(getItemName(oldItem));
+        if (indexed == null) {
+            return; // No item with that name, so no need to scan the list
+        }
         int index = items.indexOf(oldItem);
         if (index != -1) {
-            items.set(index, newItem);
+            replaceItemAt(index, newItem);
+            markChanged();
         }
     }
 
@@ -104,12 +509,61 @@ public abstract class Catalogue<T> {
                     return str != null && str.toLowerCase().contains(lowerQuery);
                 })
                 .collect(Collectors.toCollection(ArrayList::new));
+        return formatFoundItems(query, matching, extractor);
+    }
+
+    /**
+     * Default findItem method to be optionally overridden by subclasses.
+     *
+     * @param query The search keyword.
+     * @return A CommandResult (default implementation just returns unsupported).
+     */
+    public CommandResult findItem(String query) {
+        return new CommandResult("Search is not supported for this catalogue.");
+    }
+
+    /**
+     * Searches for items whose name contains the given query, using the substring index.
+     * Equivalent to {@link #findItem(String, java.util.function.Function)} with the item name as extractor.
+     *
+     * @param query The search keyword to look for.
+     * @return A {@link CommandResult} containing either a formatted list of matches or a not-found message.
+     */
+    protected CommandResult findItemByName(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return new CommandResult("Please provide a keyword to search.");
+        }
+        return formatFoundItems(query, findItemsByName(query.trim()), this::getItemName);
+    }
 
+    /**
+     * Formats the result of a find query as a numbered list.
+     * When nothing matches, the items a few typos away from the query are suggested instead.
+     *
+     * @param query     The query as entered by the user.
+     * @param matching  The matching items, in catalogue order.
+     * @param extractor Extracts the text shown for items other than ingredients.
+     * @return A {@link CommandResult} containing either a formatted list of matches or a not-found message.
+     */
+    protected CommandResult formatFoundItems(String query, ArrayList<T> matching,
+                                             java.util.function.Function<T, String> extractor) {
         if (matching.isEmpty()) {
-            return new CommandResult("No items found containing: " + query);
+            ArrayList<T> suggestions = findItemsByFuzzyName(query, MAX_SUGGESTIONS);
+            if (suggestions.isEmpty()) {
+                return new CommandResult("No items found containing: " + query);
+            }
+            StringBuilder result = new StringBuilder("No items found containing: " + query + "\nDid you mean:\n");
+            appendFoundItems(result, suggestions, extractor);
+            return new CommandResult(result.toString().trim());
         }
 
         StringBuilder result = new StringBuilder("Found items:\n");
+        appendFoundItems(result, matching, extractor);
+        return new CommandResult(result.toString().trim());
+    }
+
+    private void appendFoundItems(StringBuilder result, ArrayList<T> matching,
+                                  java.util.function.Function<T, String> extractor) {
         for (int i = 0; i < matching.size(); i++) {
             T item = matching.get(i);
             result.append(i + 1).append(". ");
@@ -123,19 +577,6 @@ public abstract class Catalogue<T> {
 
             result.append("\n");
         }
-
-
-        return new CommandResult(result.toString().trim());
-    }
-
-    /**
-     * Default findItem method to be optionally overridden by subclasses.
-     *
-     * @param query The search keyword.
-     * @return A CommandResult (default implementation just returns unsupported).
-     */
-    public CommandResult findItem(String query) {
-        return new CommandResult("Search is not supported for this catalogue.");
     }
 
     /**
@@ -0,0 +1,58 @@
+package model.catalogue;
+
+/**
+ * Receives notifications whenever the contents of a {@link Catalogue} change.
+ * <p>
+ * Listeners let other components (e.g., the storage journal) mirror catalogue state
+ * without rescanning the whole catalogue after every command. Every method has an empty
+ * default implementation, so a listener only overrides the events it cares about.
+ * </p>
+ */
+public interface CatalogueListener {
+
+    /**
+     * Called after the quantity of an ingredient in an {@link IngredientCatalogue} changes.
+     *
+     * @param catalogue      The catalogue (inventory or recipe) that was modified.
+     * @param ingredientName The name of the affected ingredient.
+     * @param newQuantity    The quantity after the change, or 0 if the ingredient was removed.
+     */
+    default void ingredientChanged(IngredientCatalogue catalogue, String ingredientName, int newQuantity) {
+    }
+
+    /**
+     * Called after all ingredients have been removed from an {@link IngredientCatalogue}.
+     *
+     * @param catalogue The catalogue that was cleared.
+     */
+    default void ingredientsCleared(IngredientCatalogue catalogue) {
+    }
+
+    /**
+     * Called after a recipe has been added to a {@link RecipeBook}.
+     *
+     * @param recipeBook The recipe book that was modified.
+     * @param recipe     The recipe that was added.
+     */
+    default void recipeAdded(RecipeBook recipeBook, Recipe recipe) {
+    }
+
+    /**
+     * Called after a recipe has been removed from a {@link RecipeBook}.
+     *
+     * @param recipeBook The recipe book that was modified.
+     * @param recipe     The recipe that was removed.
+     */
+    default void recipeRemoved(RecipeBook recipeBook, Recipe recipe) {
+    }
+
+    /**
+     * Called after a recipe in a {@link RecipeBook} has been replaced by a new version.
+     *
+     * @param recipeBook The recipe book that was modified.
+     * @param oldRecipe  The recipe that was replaced.
+     * @param newRecipe  The recipe that took its place.
+     */
+    default void recipeReplaced(RecipeBook recipeBook, Recipe oldRecipe, Recipe newRecipe) {
+    }
+}
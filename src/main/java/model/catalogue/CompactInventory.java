@@ -0,0 +1,278 @@
+package model.catalogue;
+
+import commands.CommandResult;
+import model.Ingredient;
+import model.IngredientDictionary;
+import model.index.BkTreeIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * An {@link Inventory} that stores its ingredients in primitive arrays instead of {@link Ingredient} objects.
+ * <p>
+ * Quantities live in an {@code int[]} indexed by the ingredient ID from the {@link IngredientDictionary},
+ * with a bitset marking which IDs are present. A second array keeps the IDs in insertion order, so listings
+ * match those of a regular {@code Inventory}. Names are the interned spellings shared with the dictionary.
+ * This takes a few bytes per ingredient instead of an object, a list slot and several index entries,
+ * which matters for very large inventories.
+ * </p>
+ * <p>
+ * The {@link Ingredient} objects returned by {@link #getItems()} and {@link #getItemByName(String)} are
+ * detached copies: pass them back to this inventory's methods to modify it. Similar-name, substring and
+ * typo-tolerant searches scan the arrays instead of keeping secondary indexes, trading query time for footprint.
+ * </p>
+ */
+public class CompactInventory extends Inventory {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private String[] spellings = new String[INITIAL_CAPACITY];
+    private long[] present = new long[(INITIAL_CAPACITY + 63) / 64];
+    /** IDs of the stored ingredients, in insertion order. */
+    private int[] orderedIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the number of ingredients stored.
+     *
+     * @return The number of distinct ingredients in the inventory.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns copies of the stored ingredients, in insertion order.
+     *
+     * @return A new list of detached ingredients.
+     */
+    @Override
+    public ArrayList<Ingredient> getItems() {
+        ArrayList<Ingredient> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(toIngredient(orderedIds[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public Ingredient getItemByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        int id = IngredientDictionary.findId(name);
+        return isPresent(id) ? toIngredient(id) : null;
+    }
+
+    @Override
+    protected void storeIngredient(Ingredient ingredient) {
+        int id = ingredient.getId();
+        if (isPresent(id)) {
+            throw new IllegalStateException(ingredient.getIngredientName() + " is already stored.");
+        }
+        ensureIdCapacity(id);
+        if (size == orderedIds.length) {
+            orderedIds = Arrays.copyOf(orderedIds, size * 2);
+        }
+
+        quantities[id] = ingredient.getQuantity();
+        spellings[id] = ingredient.getIngredientName();
+        present[id >>> 6] |= 1L << id;
+        orderedIds[size++] = id;
+    }
+
+    @Override
+    protected void storeIngredientAt(int position, Ingredient ingredient) {
+        storeIngredient(ingredient);
+        System.arraycopy(orderedIds, position, orderedIds, position + 1, size - position - 1);
+        orderedIds[position] = ingredient.getId();
+    }
+
+    @Override
+    protected void storeQuantity(Ingredient ingredient) {
+        if (isPresent(ingredient.getId())) {
+            quantities[ingredient.getId()] = ingredient.getQuantity();
+        }
+    }
+
+    @Override
+    protected void unstoreIngredient(Ingredient ingredient) {
+        int id = ingredient.getId();
+        if (!isPresent(id)) {
+            return;
+        }
+        present[id >>> 6] &= ~(1L << id);
+        quantities[id] = 0;
+        spellings[id] = null;
+
+        int position = positionOf(id);
+        System.arraycopy(orderedIds, position + 1, orderedIds, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Replaces a stored ingredient with another one at the same position. As in a regular inventory,
+     * the version changes but listeners are not notified.
+     *
+     * @param oldItem The ingredient to replace.
+     * @param newItem The ingredient to store instead.
+     */
+    @Override
+    public void updateItem(Ingredient oldItem, Ingredient newItem) {
+        int oldId = oldItem.getId();
+        if (!isPresent(oldId)) {
+            return;
+        }
+        int newId = newItem.getId();
+        if (newId != oldId && isPresent(newId)) {
+            throw new IllegalStateException(newItem.getIngredientName() + " is already stored.");
+        }
+
+        present[oldId >>> 6] &= ~(1L << oldId);
+        quantities[oldId] = 0;
+        spellings[oldId] = null;
+        ensureIdCapacity(newId);
+        quantities[newId] = newItem.getQuantity();
+        spellings[newId] = newItem.getIngredientName();
+        present[newId >>> 6] |= 1L << newId;
+        orderedIds[positionOf(oldId)] = newId;
+        markChanged();
+    }
+
+    @Override
+    protected void clearIngredients() {
+        for (int i = 0; i < size; i++) {
+            quantities[orderedIds[i]] = 0;
+            spellings[orderedIds[i]] = null;
+        }
+        Arrays.fill(present, 0L);
+        size = 0;
+    }
+
+    @Override
+    public ArrayList<Ingredient> searchSimilarIngredient(Ingredient ingredient) {
+        String[] inputKeywords = ingredient.getIngredientName().toLowerCase().split(" ");
+        ArrayList<Ingredient> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String[] itemKeywords = spellings[orderedIds[i]].toLowerCase().split(" ");
+            if (isSimilar(inputKeywords, itemKeywords)) {
+                result.add(toIngredient(orderedIds[i]));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public CommandResult findItem(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return new CommandResult("Please provide a keyword to search.");
+        }
+
+        String lowerQuery = query.trim().toLowerCase();
+        ArrayList<Ingredient> matching = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (spellings[orderedIds[i]].toLowerCase().contains(lowerQuery)) {
+                matching.add(toIngredient(orderedIds[i]));
+            }
+        }
+        return formatFoundItems(query, matching, Ingredient::getIngredientName);
+    }
+
+    @Override
+    public CommandResult findItem(String query, Function<Ingredient, String> extractor) {
+        if (query == null || query.trim().isEmpty()) {
+            return new CommandResult("Please provide a keyword to search.");
+        }
+
+        String lowerQuery = query.trim().toLowerCase();
+        ArrayList<Ingredient> matching = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Ingredient ingredient = toIngredient(orderedIds[i]);
+            String text = extractor.apply(ingredient);
+            if (text != null && text.toLowerCase().contains(lowerQuery)) {
+                matching.add(ingredient);
+            }
+        }
+        return formatFoundItems(query, matching, extractor);
+    }
+
+    @Override
+    public ArrayList<Ingredient> findItemsByFuzzyName(String name, int limit) {
+        String key = toNameKey(name);
+        int maxTypos = getMaxTypos(name);
+        // Matches packed as (distance, position) so that sorting them ranks by distance, then by position
+        long[] matches = new long[size];
+        int matchCount = 0;
+        for (int i = 0; i < size; i++) {
+            String candidate = spellings[orderedIds[i]].toLowerCase();
+            if (Math.abs(candidate.length() - key.length()) <= maxTypos) {
+                int distance = BkTreeIndex.distance(key, candidate);
+                if (distance <= maxTypos) {
+                    matches[matchCount++] = ((long) distance << 32) | i;
+                }
+            }
+        }
+
+        Arrays.sort(matches, 0, matchCount);
+        ArrayList<Ingredient> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(matchCount, limit); i++) {
+            result.add(toIngredient(orderedIds[(int) matches[i]]));
+        }
+        return result;
+    }
+
+    @Override
+    public String getCatalogueContent() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            int id = orderedIds[i];
+            content.append(spellings[id]).append(" (").append(quantities[id]).append(")\n");
+        }
+        return content.toString();
+    }
+
+    private static boolean isSimilar(String[] inputKeywords, String[] itemKeywords) {
+        for (String inputWord : inputKeywords) {
+            for (String itemWord : itemKeywords) {
+                if (inputWord.contains(itemWord) || itemWord.contains(inputWord)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isPresent(int id) {
+        return id >= 0 && id < quantities.length && (present[id >>> 6] & (1L << id)) != 0;
+    }
+
+    @Override
+    protected int positionOf(Ingredient ingredient) {
+        return isPresent(ingredient.getId()) ? positionOf(ingredient.getId()) : -1;
+    }
+
+    private int positionOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (orderedIds[i] == id) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Ingredient " + id + " is not in insertion order.");
+    }
+
+    private Ingredient toIngredient(int id) {
+        return new Ingredient(spellings[id], quantities[id]);
+    }
+
+    private void ensureIdCapacity(int id) {
+        if (id < quantities.length) {
+            return;
+        }
+        int capacity = Math.max(id + 1, quantities.length * 2);
+        quantities = Arrays.copyOf(quantities, capacity);
+        spellings = Arrays.copyOf(spellings, capacity);
+        present = Arrays.copyOf(present, (capacity + 63) / 64);
+    }
+}
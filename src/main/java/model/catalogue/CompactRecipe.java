@@ -0,0 +1,154 @@
+package model.catalogue;
+
+import model.Ingredient;
+import model.IngredientDictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable, compact encoding of the ingredient lines of a recipe.
+ * <p>
+ * Lines are stored as two parallel arrays sorted by ingredient ID (see {@link IngredientDictionary}),
+ * so recipes can be compared against each other or against an inventory with linear merges.
+ * The original order and spelling of the lines are only stored when they cannot be derived:
+ * {@code lineOrder} is {@code null} when the lines were already sorted, and {@code spellings} is
+ * {@code null} when every line uses the canonical spelling of its ingredient.
+ * </p>
+ */
+public final class CompactRecipe {
+    private static final CompactRecipe EMPTY = new CompactRecipe(new int[0], new int[0], null, null);
+
+    private final int[] ids;
+    private final int[] quantities;
+    /** Spelling of each sorted line, or {@code null} if all are canonical. */
+    private final String[] spellings;
+    /** Index into the sorted lines of each line in its original order, or {@code null} if already sorted. */
+    private final int[] lineOrder;
+
+    private CompactRecipe(int[] ids, int[] quantities, String[] spellings, int[] lineOrder) {
+        this.ids = ids;
+        this.quantities = quantities;
+        this.spellings = spellings;
+        this.lineOrder = lineOrder;
+    }
+
+    /**
+     * Encodes a list of ingredient lines.
+     *
+     * @param ingredients The lines, in their original order. Duplicate ingredients are kept as separate lines.
+     * @return The compact encoding.
+     */
+    public static CompactRecipe of(List<Ingredient> ingredients) {
+        int count = ingredients.size();
+        if (count == 0) {
+            return EMPTY;
+        }
+
+        // Insertion sort of the line numbers by ingredient ID: recipes are short, and the sort is stable,
+        // so duplicate lines keep their order
+        int[] sortedLines = new int[count];
+        for (int i = 0; i < count; i++) {
+            int id = ingredients.get(i).getId();
+            int j = i;
+            while (j > 0 && ingredients.get(sortedLines[j - 1]).getId() > id) {
+                sortedLines[j] = sortedLines[j - 1];
+                j--;
+            }
+            sortedLines[j] = i;
+        }
+
+        int[] ids = new int[count];
+        int[] quantities = new int[count];
+        String[] spellings = new String[count];
+        int[] lineOrder = new int[count];
+        boolean isSorted = true;
+        boolean isCanonical = true;
+        for (int position = 0; position < count; position++) {
+            int line = sortedLines[position];
+            Ingredient ingredient = ingredients.get(line);
+            ids[position] = ingredient.getId();
+            quantities[position] = ingredient.getQuantity();
+            spellings[position] = ingredient.getIngredientName();
+            lineOrder[line] = position;
+            isSorted &= line == position;
+            isCanonical &= spellings[position].equals(IngredientDictionary.getCanonicalName(ids[position]));
+        }
+        return new CompactRecipe(ids, quantities, isCanonical ? null : spellings, isSorted ? null : lineOrder);
+    }
+
+    /**
+     * Returns the number of ingredient lines.
+     *
+     * @return The number of lines.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the ingredient ID of a line, in ID order.
+     *
+     * @param position The position of the line in ID order.
+     * @return The ingredient ID.
+     */
+    public int getId(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Returns the required quantity of a line, in ID order.
+     *
+     * @param position The position of the line in ID order.
+     * @return The required quantity.
+     */
+    public int getQuantity(int position) {
+        return quantities[position];
+    }
+
+    /**
+     * Returns the name of a line as it was written, in ID order.
+     *
+     * @param position The position of the line in ID order.
+     * @return The ingredient name.
+     */
+    public String getName(int position) {
+        return spellings == null ? IngredientDictionary.getCanonicalName(ids[position]) : spellings[position];
+    }
+
+    /**
+     * Decodes the lines into new {@link Ingredient} objects, in their original order.
+     *
+     * @return The ingredient lines.
+     */
+    public ArrayList<Ingredient> toIngredients() {
+        ArrayList<Ingredient> ingredients = new ArrayList<>(ids.length);
+        for (int line = 0; line < ids.length; line++) {
+            int position = getPosition(line);
+            ingredients.add(new Ingredient(getName(position), quantities[position]));
+        }
+        return ingredients;
+    }
+
+    /**
+     * Appends the lines in the storage format ({@code name (quantity)}, one per line), in their original order.
+     *
+     * @param content The builder to append to.
+     */
+    public void appendTo(StringBuilder content) {
+        for (int line = 0; line < ids.length; line++) {
+            int position = getPosition(line);
+            content.append(getName(position)).append(" (").append(quantities[position]).append(")\n");
+        }
+    }
+
+    /**
+     * Returns where a line in the original order sits in ID order.
+     *
+     * @param line The index of the line in its original order.
+     * @return The position of the line in ID order.
+     */
+    public int getPosition(int line) {
+        return lineOrder == null ? line : lineOrder[line];
+    }
+}
@@ -5,8 +5,9 @@ import model.Ingredient;
 import ui.inputparser.ConflictHelper;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Abstract class for catalogues that manage ingredients (e.g., Inventory, Recipe).
@@ -29,20 +30,7 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
      * @return A list of similar matching ingredients.
      */
     public ArrayList<Ingredient> searchSimilarIngredient(Ingredient ingredient) {
-        String[] inputKeywords = ingredient.getIngredientName().toLowerCase().split(" ");
-
-        return items.stream()
-                .filter(currIngredient -> {
-                    String[] itemKeywords = currIngredient.getIngredientName().toLowerCase().split(" ");
-
-                    // Check if any input word is in the item, or vice versa
-                    return Arrays.stream(inputKeywords).anyMatch(inputWord ->
-                            Arrays.stream(itemKeywords).anyMatch(itemWord ->
-                                    inputWord.contains(itemWord) || itemWord.contains(inputWord)
-                            )
-                    );
-                })
-                .collect(Collectors.toCollection(ArrayList::new));
+        return findSimilarItems(ingredient.getIngredientName().toLowerCase());
     }
 
     /**
@@ -53,23 +41,71 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
      */
     @Override
     public Ingredient getItemByName(String name) {
-        for (Ingredient item : items) {
-            if (item.getIngredientName().equalsIgnoreCase(name)) {
-                return item;
-            }
-        }
-        return null;
+        return findByName(name);
+    }
+
+    @Override
+    protected String getItemName(Ingredient item) {
+        return item.getIngredientName();
+    }
+
+    /**
+     * Stores a new ingredient after the existing ones.
+     * <p>
+     * This and the other storage methods below are the only places where the ingredients are written,
+     * so a subclass may keep them in a different layout by overriding them together with the read
+     * methods ({@link #getItems()}, {@link #getItemByName(String)}, ...).
+     * </p>
+     *
+     * @param ingredient The ingredient to store.
+     */
+    protected void storeIngredient(Ingredient ingredient) {
+        appendItem(ingredient);
+    }
+
+    /**
+     * Stores an ingredient at the given position among the stored ones.
+     *
+     * @param position   The position, from 0 to the number of stored ingredients.
+     * @param ingredient The ingredient to store.
+     */
+    protected void storeIngredientAt(int position, Ingredient ingredient) {
+        insertItemAt(position, ingredient);
+    }
+
+    /**
+     * Returns the position of a stored ingredient.
+     *
+     * @param ingredient An ingredient with the same name as a stored one.
+     * @return The position of the stored ingredient, or -1 if there is none.
+     */
+    protected int positionOf(Ingredient ingredient) {
+        return items.indexOf(ingredient);
+    }
+
+    /**
+     * Records the new quantity of a stored ingredient that was modified in place.
+     * The default storage holds the ingredient objects themselves, so there is nothing to do.
+     *
+     * @param ingredient The ingredient whose quantity changed.
+     */
+    protected void storeQuantity(Ingredient ingredient) {
     }
 
     /**
-     * Checks if two ingredients match by name (case-insensitive).
+     * Removes a stored ingredient.
      *
-     * @param existingIngredient An ingredient already in the catalogue.
-     * @param newIngredient      A new ingredient being compared.
-     * @return True if their names match; false otherwise.
+     * @param ingredient The ingredient to remove.
+     */
+    protected void unstoreIngredient(Ingredient ingredient) {
+        removeStoredItem(ingredient);
+    }
+
+    /**
+     * Removes every stored ingredient.
      */
-    protected boolean isExactMatchFound(Ingredient existingIngredient, Ingredient newIngredient) {
-        return existingIngredient.getIngredientName().equalsIgnoreCase(newIngredient.getIngredientName());
+    protected void clearIngredients() {
+        clearItems();
     }
 
     /**
@@ -97,19 +133,18 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
                 return new CommandResult("Invalid ingredient: quantity must be positive.");
             }
 
+            // Check for an exact match first; an exact match is always among the similar ingredients
+            Ingredient exactMatch = getItemByName(name);
+            if (exactMatch != null) {
+                return increaseQuantity(exactMatch, ingredient);
+            }
+
             ArrayList<Ingredient> similarIngredient = searchSimilarIngredient(ingredient);
 
             if (similarIngredient.isEmpty()) {
                 return addIngredient(ingredient);
             }
 
-            // Check for an exact match first
-            for (Ingredient existingIngredient : similarIngredient) {
-                if (isExactMatchFound(existingIngredient, ingredient)) {
-                    return increaseQuantity(existingIngredient, ingredient);
-                }
-            }
-
             //Silent mode: skip user interaction, default to adding as new
             if (isSilenced) {
                 return addIngredient(ingredient);
@@ -129,6 +164,37 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
         }
     }
 
+    /**
+     * Adds many ingredients at once. Ingredients whose names exactly match (case-insensitive) an
+     * ingredient already in the catalogue, or an earlier one in the list, are merged by adding quantities.
+     * Invalid entries (null or non-positive quantity) are skipped.
+     *
+     * @param ingredients The ingredients to add, in order.
+     */
+    @Override
+    public void addAllItems(List<Ingredient> ingredients) {
+        ArrayList<Ingredient> changed = new ArrayList<>();
+        for (Ingredient ingredient : ingredients) {
+            if (ingredient == null || ingredient.getQuantity() <= 0) {
+                continue;
+            }
+
+            Ingredient existing = getItemByName(ingredient.getIngredientName());
+            if (existing == null) {
+                storeIngredient(ingredient);
+                changed.add(ingredient);
+            } else {
+                existing.addQuantity(ingredient.getQuantity());
+                storeQuantity(existing);
+                changed.add(existing);
+            }
+        }
+
+        for (Ingredient ingredient : changed) {
+            notifyIngredientChanged(ingredient);
+        }
+    }
+
     /**
      * Adds a new ingredient to the catalogue without checking for duplicates.
      *
@@ -136,7 +202,8 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
      * @return A {@link CommandResult} confirming the addition.
      */
     private CommandResult addIngredient(Ingredient ingredient) {
-        items.add(ingredient);
+        storeIngredient(ingredient);
+        notifyIngredientChanged(ingredient);
         return new CommandResult(ingredient.getQuantity() + "x " + ingredient.getIngredientName() +
             " added to " + getCatalogueLabel() + ".");
     }
@@ -151,6 +218,8 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
     private CommandResult increaseQuantity(Ingredient existingIngredient, Ingredient newIngredient) {
         int addedQuantity = newIngredient.getQuantity();
         existingIngredient.addQuantity(addedQuantity);
+        storeQuantity(existingIngredient);
+        notifyIngredientChanged(existingIngredient);
 
         return new CommandResult(
                 addedQuantity + "x " + existingIngredient.getIngredientName() +
@@ -158,6 +227,46 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
         );
     }
 
+    /**
+     * Notifies listeners of the current quantity of an ingredient in this catalogue.
+     *
+     * @param ingredient The ingredient whose quantity changed.
+     */
+    private void notifyIngredientChanged(Ingredient ingredient) {
+        String name = ingredient.getIngredientName();
+        int quantity = ingredient.getQuantity();
+        notifyListeners(listener -> listener.ingredientChanged(this, name, quantity));
+    }
+
+    /**
+     * Sets the quantity of the ingredient with the given name (case-insensitive), adding it if it is
+     * absent and removing it if the quantity is zero. No similarity checks or user prompts are involved.
+     * <p>
+     * Used when restoring previously persisted state, e.g. when replaying the storage journal.
+     * </p>
+     *
+     * @param name     The name of the ingredient.
+     * @param quantity The quantity to set; zero removes the ingredient.
+     */
+    public void restoreQuantity(String name, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must be zero or more.");
+        }
+
+        Ingredient existing = getItemByName(name);
+        if (existing == null) {
+            if (quantity > 0) {
+                addIngredient(new Ingredient(name, quantity));
+            }
+        } else if (quantity == 0) {
+            removeIngredient(existing);
+        } else if (quantity != existing.getQuantity()) {
+            existing.setQuantity(quantity);
+            storeQuantity(existing);
+            notifyIngredientChanged(existing);
+        }
+    }
+
     /**
      * Removes or decreases an ingredient's quantity based on user interaction.
      *
@@ -166,6 +275,12 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
      */
     @Override
     public CommandResult deleteItem(Ingredient ingredient) {
+        // Check for an exact match first
+        Ingredient exactMatch = getItemByName(ingredient.getIngredientName());
+        if (exactMatch != null) {
+            return decreaseQuantity(exactMatch, ingredient);
+        }
+
         ArrayList<Ingredient> similarIngredient = searchSimilarIngredient(ingredient);
 
         if (similarIngredient.isEmpty()) {
@@ -173,13 +288,6 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
                     + getCatalogueLabel() + ".");
         }
 
-        // Check for an exact match first
-        for (Ingredient existingIngredient : similarIngredient) {
-            if (isExactMatchFound(existingIngredient, ingredient)) {
-                return decreaseQuantity(existingIngredient, ingredient);
-            }
-        }
-
         int choice = ConflictHelper.getUserChoiceForDeleteIngredient(similarIngredient, ingredient);
 
         if (choice > 0 && choice <= similarIngredient.size()) {
@@ -199,7 +307,8 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
         int quantity = ingredient.getQuantity(); // store quantity before mutation
         String name = ingredient.getIngredientName(); // store name just in case too
 
-        items.remove(ingredient);
+        unstoreIngredient(ingredient);
+        notifyListeners(listener -> listener.ingredientChanged(this, name, 0));
 
         return new CommandResult(
                 quantity + "x " + name + " removed from " + getCatalogueLabel() + "."
@@ -213,7 +322,8 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
      * @return A {@link CommandResult} confirming all ingredients were removed.
      */
     public CommandResult removeAllIngredients() {
-        items.clear();
+        clearIngredients();
+        notifyListeners(listener -> listener.ingredientsCleared(this));
         return new CommandResult("All ingredients removed from " + getCatalogueLabel() + ".");
     }
 
@@ -238,7 +348,11 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
         boolean wasFullyRemoved = existingIngredient.getQuantity() <= 0;
 
         if (wasFullyRemoved) {
-            items.remove(existingIngredient);
+            unstoreIngredient(existingIngredient);
+            notifyListeners(listener -> listener.ingredientChanged(this, name, 0));
+        } else {
+            storeQuantity(existingIngredient);
+            notifyIngredientChanged(existingIngredient);
         }
 
         StringBuilder message = new StringBuilder();
@@ -252,6 +366,82 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
         return new CommandResult(message.toString());
     }
 
+    /**
+     * Removes the given quantities, multiplied by {@code times}, as a single transaction: either every
+     * quantity is removed or none is.
+     * <p>
+     * Repeated ingredients are added up, each ingredient is looked up once by name, and every quantity is
+     * checked before anything is changed. If a change fails part-way (e.g. a listener throws), the quantities
+     * already changed are restored before the exception is passed on. Ingredients left with nothing are
+     * removed last, so a failure rarely has to re-add one; when it does, the ingredient goes back to its
+     * original position.
+     * </p>
+     *
+     * @param ingredients The quantities to remove, e.g. the ingredients of a recipe.
+     * @param times       The number of times to remove them.
+     * @return The ingredients lacking, with the quantity missing, in the order given; empty if the
+     *     quantities were removed.
+     */
+    public ArrayList<Ingredient> consumeAll(List<Ingredient> ingredients, int times) {
+        assert times > 0 : "Number of times must be positive";
+
+        // Ingredient ID -> total quantity to remove, in the order first seen
+        LinkedHashMap<Integer, Long> demand = new LinkedHashMap<>();
+        LinkedHashMap<Integer, String> names = new LinkedHashMap<>();
+        for (Ingredient ingredient : ingredients) {
+            demand.merge(ingredient.getId(), (long) ingredient.getQuantity() * times, Long::sum);
+            names.putIfAbsent(ingredient.getId(), ingredient.getIngredientName());
+        }
+
+        ArrayList<Ingredient> shortages = new ArrayList<>();
+        ArrayList<Ingredient> reduced = new ArrayList<>();
+        ArrayList<Ingredient> emptied = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : demand.entrySet()) {
+            String name = names.get(entry.getKey());
+            Ingredient available = getItemByName(name);
+            long remaining = (available == null ? 0 : available.getQuantity()) - entry.getValue();
+            if (remaining < 0) {
+                shortages.add(new Ingredient(name, (int) Math.min(-remaining, Integer.MAX_VALUE)));
+            } else if (remaining == 0) {
+                emptied.add(new Ingredient(available.getIngredientName(), available.getQuantity()));
+            } else if (remaining < available.getQuantity()) {
+                reduced.add(new Ingredient(available.getIngredientName(), (int) remaining));
+            }
+        }
+        if (!shortages.isEmpty()) {
+            return shortages;
+        }
+
+        // Original quantities of the ingredients changed so far, and their positions, to restore on failure
+        ArrayList<Ingredient> applied = new ArrayList<>();
+        ArrayList<Integer> positions = new ArrayList<>();
+        try {
+            for (Ingredient target : reduced) {
+                Ingredient original = getItemByName(target.getIngredientName());
+                applied.add(new Ingredient(original.getIngredientName(), original.getQuantity()));
+                positions.add(-1);
+                restoreQuantity(target.getIngredientName(), target.getQuantity());
+            }
+            for (Ingredient original : emptied) {
+                applied.add(original);
+                positions.add(positionOf(original));
+                restoreQuantity(original.getIngredientName(), 0);
+            }
+        } catch (RuntimeException e) {
+            // Undone in reverse, so each removed ingredient goes back where it was when it was removed
+            for (int i = applied.size() - 1; i >= 0; i--) {
+                Ingredient original = applied.get(i);
+                if (getItemByName(original.getIngredientName()) == null) {
+                    storeIngredientAt(positions.get(i), original);
+                    notifyIngredientChanged(original);
+                } else {
+                    restoreQuantity(original.getIngredientName(), original.getQuantity());
+                }
+            }
+            throw e;
+        }
+        return shortages;
+    }
 
     /**
      * Searches for ingredients by a keyword in their name (case-insensitive).
@@ -261,7 +451,7 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
      */
     @Override
     public CommandResult findItem(String query) {
-        return super.findItem(query, Ingredient::getIngredientName);
+        return findItemByName(query);
     }
 
     private CommandResult adjustQuantity(Ingredient existing, int newQuantity) {
@@ -297,19 +487,18 @@ public abstract class IngredientCatalogue extends Catalogue<Ingredient> {
                 return new CommandResult("Invalid ingredient: quantity must be zero or more.");
             }
 
+            // Exact match first
+            Ingredient exactMatch = getItemByName(name);
+            if (exactMatch != null) {
+                return adjustQuantity(exactMatch, newQuantity);
+            }
+
             ArrayList<Ingredient> similarIngredients = searchSimilarIngredient(ingredient);
 
             if (similarIngredients.isEmpty()) {
                 return new CommandResult("The ingredient does not exist in the " + getCatalogueLabel() + ".");
             }
 
-            // Exact match first
-            for (Ingredient existing : similarIngredients) {
-                if (isExactMatchFound(existing, ingredient)) {
-                    return adjustQuantity(existing, newQuantity);
-                }
-            }
-
             // Let user choose which one to edit
             int choice = ConflictHelper.getUserChoiceForEditIngredient(similarIngredients, ingredient);
 
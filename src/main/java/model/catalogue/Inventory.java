@@ -3,6 +3,8 @@ package model.catalogue;
 import commands.CommandResult;
 import model.Ingredient;
 
+import java.util.ArrayList;
+
 /**
  * Represents an inventory of ingredients.
  * <p>
@@ -42,6 +44,7 @@ public class Inventory extends IngredientCatalogue {
      */
     @Override
     public CommandResult listItems() {
+        ArrayList<Ingredient> items = getItems();
         if (items.isEmpty()) {
             return new CommandResult("Nothing found in inventory.");
         }
@@ -4,6 +4,8 @@ import commands.CommandResult;
 import model.Ingredient;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * Represents a recipe, which is a fixed list of ingredients.
@@ -11,9 +13,18 @@ import java.util.ArrayList;
  * This class extends {@link IngredientCatalogue} to reuse common ingredient-related
  * logic, while also adding recipe-specific behavior such as naming and formatted output.
  * </p>
+ * <p>
+ * A recipe can be <i>frozen</i> into a {@link CompactRecipe}, which keeps its lines in two small arrays
+ * instead of a list of ingredients with its indexes. Recipes loaded from storage start frozen and are only
+ * expanded when opened for editing (see {@link #expand()}). Read-only operations such as
+ * {@link #getIngredients()}, {@link #toCompact()} and {@link #toString()} work on either form; any other
+ * operation expands the recipe first.
+ * </p>
  */
 public class Recipe extends IngredientCatalogue {
     private String recipeName;
+    /** The lines of a frozen recipe, or {@code null} while the recipe is expanded. */
+    private CompactRecipe frozenLines;
 
     /**
      * Constructs an empty recipe with no name or ingredients.
@@ -37,7 +48,7 @@ public class Recipe extends IngredientCatalogue {
      */
     public Recipe(String name, ArrayList<Ingredient> ingredients) {
         this.recipeName = name;
-        this.items.addAll(ingredients);
+        this.frozenLines = CompactRecipe.of(ingredients);
     }
 
     /**
@@ -49,6 +60,161 @@ public class Recipe extends IngredientCatalogue {
         return recipeName;
     }
 
+    /**
+     * Returns whether the recipe is currently held in its compact form.
+     *
+     * @return True if the recipe is frozen.
+     */
+    public boolean isFrozen() {
+        return frozenLines != null;
+    }
+
+    /**
+     * Converts the recipe into its compact form, dropping the ingredient objects and their indexes.
+     * No listeners are notified, as the contents do not change.
+     */
+    public void freeze() {
+        if (frozenLines == null) {
+            frozenLines = CompactRecipe.of(items);
+            clearItems();
+        }
+    }
+
+    /**
+     * Expands a frozen recipe into an editable list of ingredients.
+     * No listeners are notified, as the contents do not change.
+     */
+    public void expand() {
+        if (frozenLines == null) {
+            return;
+        }
+        CompactRecipe lines = frozenLines;
+        frozenLines = null;
+        for (Ingredient ingredient : lines.toIngredients()) {
+            appendItem(ingredient);
+        }
+    }
+
+    /**
+     * Returns the ingredient lines in compact form without expanding the recipe.
+     *
+     * @return The compact lines.
+     */
+    public CompactRecipe toCompact() {
+        return frozenLines != null ? frozenLines : CompactRecipe.of(items);
+    }
+
+    /**
+     * Returns a copy of the ingredient lines without expanding the recipe.
+     * Modifying the returned ingredients does not modify the recipe.
+     *
+     * @return The ingredients, in recipe order.
+     */
+    public ArrayList<Ingredient> getIngredients() {
+        if (frozenLines != null) {
+            return frozenLines.toIngredients();
+        }
+        ArrayList<Ingredient> ingredients = new ArrayList<>(items.size());
+        for (Ingredient ingredient : items) {
+            ingredients.add(new Ingredient(ingredient.getIngredientName(), ingredient.getQuantity()));
+        }
+        return ingredients;
+    }
+
+    @Override
+    public ArrayList<Ingredient> getItems() {
+        expand();
+        return super.getItems();
+    }
+
+    @Override
+    public Ingredient getItemByName(String name) {
+        expand();
+        return super.getItemByName(name);
+    }
+
+    @Override
+    public ArrayList<Ingredient> searchSimilarIngredient(Ingredient ingredient) {
+        expand();
+        return super.searchSimilarIngredient(ingredient);
+    }
+
+    @Override
+    public CommandResult addItem(Ingredient ingredient, boolean isSilenced) {
+        expand();
+        return super.addItem(ingredient, isSilenced);
+    }
+
+    @Override
+    public void addAllItems(List<Ingredient> ingredients) {
+        expand();
+        super.addAllItems(ingredients);
+    }
+
+    @Override
+    public void restoreQuantity(String name, int quantity) {
+        expand();
+        super.restoreQuantity(name, quantity);
+    }
+
+    @Override
+    public CommandResult deleteItem(Ingredient ingredient) {
+        expand();
+        return super.deleteItem(ingredient);
+    }
+
+    @Override
+    public CommandResult removeAllIngredients() {
+        expand();
+        return super.removeAllIngredients();
+    }
+
+    @Override
+    public CommandResult decreaseQuantity(Ingredient existingIngredient, Ingredient newIngredient) {
+        expand();
+        return super.decreaseQuantity(existingIngredient, newIngredient);
+    }
+
+    @Override
+    public CommandResult editItem(Ingredient ingredient) {
+        expand();
+        return super.editItem(ingredient);
+    }
+
+    @Override
+    public void updateItem(Ingredient oldItem, Ingredient newItem) {
+        expand();
+        super.updateItem(oldItem, newItem);
+    }
+
+    @Override
+    public CommandResult findItem(String query, Function<Ingredient, String> extractor) {
+        expand();
+        return super.findItem(query, extractor);
+    }
+
+    @Override
+    public CommandResult findItem(String query) {
+        expand();
+        return super.findItem(query);
+    }
+
+    @Override
+    public ArrayList<Ingredient> findItemsByFuzzyName(String name, int limit) {
+        expand();
+        return super.findItemsByFuzzyName(name, limit);
+    }
+
+    @Override
+    public String getCatalogueContent() {
+        if (frozenLines == null) {
+            return super.getCatalogueContent();
+        }
+        StringBuilder content = new StringBuilder();
+        frozenLines.appendTo(content);
+        return content.toString();
+    }
+
     /**
      * Returns the type identifier of this catalogue.
      *
@@ -77,6 +243,7 @@ public class Recipe extends IngredientCatalogue {
      */
     @Override
     public CommandResult listItems() {
+        ArrayList<Ingredient> items = getItems();
         if (items.isEmpty()) {
             return new CommandResult("No ingredients found.");
         }
@@ -100,6 +267,10 @@ public class Recipe extends IngredientCatalogue {
     public String toString() {
         StringBuilder content = new StringBuilder();
         content.append(recipeName).append("\n");
+        if (frozenLines != null) {
+            frozenLines.appendTo(content);
+            return content.toString();
+        }
         for (Ingredient ingredient : items) {
             content.append(ingredient.toString()).append("\n");
         }
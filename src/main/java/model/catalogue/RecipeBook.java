@@ -1,17 +1,25 @@
 package model.catalogue;
 
 import commands.CommandResult;
+import model.index.RecipePostingIndex;
+import model.index.RecipeSearchIndex;
+import model.index.RecipeSimilarityIndex;
 import ui.inputparser.ConflictHelper;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * A RecipeBook that manages a collection of recipes with CRUD operations.
  * This class allows adding, deleting, editing, and listing recipes.
  */
 public class RecipeBook extends Catalogue<Recipe> {
+    /** Full-text index for relevance-ranked searches; built on first use, then maintained incrementally. */
+    private RecipeSearchIndex searchIndex;
+    /** Ingredient -> recipe postings for boolean queries; built on first use, then maintained incrementally. */
+    private RecipePostingIndex postingIndex;
+    /** MinHash signatures in LSH buckets for similarity queries; built on first use, then maintained. */
+    private RecipeSimilarityIndex similarityIndex;
 
     /**
      * Constructs an empty RecipeBook.
@@ -59,20 +67,16 @@ public class RecipeBook extends Catalogue<Recipe> {
      * @return A list of recipes with similar names.
      */
     public ArrayList<Recipe> searchSimilarRecipe(Recipe recipe) {
-        String[] inputKeywords = getRecipeNameLowercase(recipe).split(" ");
-
-        return items.stream()
-                .filter(currRecipe -> {
-                    String[] itemKeywords = getRecipeNameLowercase(currRecipe).split(" ");
-
-                    // Match if any word in either name partially overlaps
-                    return Arrays.stream(inputKeywords).anyMatch(inputWord ->
-                            Arrays.stream(itemKeywords).anyMatch(itemWord ->
-                                    inputWord.contains(itemWord) || itemWord.contains(inputWord)
-                            )
-                    );
-                })
-                .collect(Collectors.toCollection(ArrayList::new));
+        return findSimilarItems(getRecipeNameLowercase(recipe));
+    }
+
+    /**
+     * Recipe names are compared without surrounding whitespace.
+     */
+    @Override
+    protected String getSimilarityKey(Recipe recipe) {
+        String name = recipe.getRecipeName();
+        return name == null ? null : name.trim().toLowerCase();
     }
 
     /**
@@ -86,23 +90,12 @@ public class RecipeBook extends Catalogue<Recipe> {
         if (name == null || name.trim().isEmpty()) {
             return null;
         }
-        for (Recipe item : items) {
-            if (item.getRecipeName().equalsIgnoreCase(name.trim())) {
-                return item;
-            }
-        }
-        return null;
+        return findByName(name);
     }
 
-    /**
-     * Checks if two recipes have the exact same name.
-     *
-     * @param existingRecipe The existing recipe.
-     * @param newRecipe The new recipe.
-     * @return True if both recipes have the same name, false otherwise.
-     */
-    private boolean isExactMatchFound(Recipe existingRecipe, Recipe newRecipe) {
-        return getRecipeNameLowercase(existingRecipe).equals(getRecipeNameLowercase(newRecipe));
+    @Override
+    protected String getItemName(Recipe item) {
+        return item.getRecipeName();
     }
 
     /**
@@ -124,6 +117,18 @@ public class RecipeBook extends Catalogue<Recipe> {
                 return new CommandResult("Invalid recipe: name must be non-empty.");
             }
 
+            // An exact match is always among the similar recipes, so check it first
+            Recipe existing = getItemByName(name);
+            if (existing != null) {
+                // Console warning if not silenced and similar recipe found
+                if (!isSilenced) {
+                    System.out.println("Warning: A similar recipe already exists.");
+                    System.out.println("Automatically switching to editing mode.");
+                }
+                return new CommandResult("Recipe with name \"" +
+                    existing.getRecipeName() + "\" already exists.");
+            }
+
             ArrayList<Recipe> similarRecipes = searchSimilarRecipe(recipe);
 
             if (similarRecipes.isEmpty()) {
@@ -131,18 +136,6 @@ public class RecipeBook extends Catalogue<Recipe> {
                 return new CommandResult(recipe.getRecipeName() + " added to recipe book.");
             }
 
-            for (Recipe existing : similarRecipes) {
-                if (isExactMatchFound(existing, recipe)) {
-                    // Console warning if not silenced and similar recipe found
-                    if (!isSilenced) {
-                        System.out.println("Warning: A similar recipe already exists.");
-                        System.out.println("Automatically switching to editing mode.");
-                    }
-                    return new CommandResult("Recipe with name \"" +
-                        existing.getRecipeName() + "\" already exists.");
-                }
-            }
-
             // Silent mode: skip user input and add directly
             if (isSilenced) {
                 return addRecipe(recipe);
@@ -161,6 +154,24 @@ public class RecipeBook extends Catalogue<Recipe> {
         }
     }
 
+    /**
+     * Adds many recipes at once. A recipe whose name exactly matches (case-insensitive) a recipe already
+     * in the book, or an earlier one in the list, is skipped. Recipes without a name are skipped.
+     *
+     * @param recipes The recipes to add, in order.
+     */
+    @Override
+    public void addAllItems(List<Recipe> recipes) {
+        for (Recipe recipe : recipes) {
+            if (recipe == null || recipe.getRecipeName() == null || recipe.getRecipeName().trim().isEmpty()) {
+                continue;
+            }
+            if (getItemByName(recipe.getRecipeName()) == null) {
+                addRecipe(recipe);
+            }
+        }
+    }
+
     /**
      * Helper method to add a recipe to the RecipeBook.
      *
@@ -170,7 +181,9 @@ public class RecipeBook extends Catalogue<Recipe> {
         if (recipe == null) {
             throw new IllegalArgumentException("Cannot add null recipe.");
         }
-        items.add(recipe);
+        appendItem(recipe);
+        recipe.setOwner(this);
+        notifyListeners(listener -> listener.recipeAdded(this, recipe));
         return new CommandResult(recipe.getRecipeName() + " added to recipe book.");
     }
 
@@ -192,20 +205,19 @@ public class RecipeBook extends Catalogue<Recipe> {
                 return new CommandResult("Invalid recipe: name must be non-empty.");
             }
 
+            Recipe existing = getItemByName(name);
+            if (existing != null) {
+                String recipeName = existing.getRecipeName().trim();
+                removeRecipe(existing);
+                return new CommandResult(recipeName + " removed from recipe book.");
+            }
+
             ArrayList<Recipe> similarRecipes = searchSimilarRecipe(recipe);
 
             if (similarRecipes.isEmpty()) {
                 return new CommandResult(name + " does not exist in the recipe book.");
             }
 
-            for (Recipe existing : similarRecipes) {
-                if (isExactMatchFound(existing, recipe)) {
-                    String recipeName = existing.getRecipeName().trim();
-                    removeRecipe(existing);
-                    return new CommandResult(recipeName + " removed from recipe book.");
-                }
-            }
-
             int choice = ConflictHelper.getUserChoiceForDeleteRecipe(similarRecipes, recipe);
             if (choice > 0 && choice <= similarRecipes.size()) {
                 String recipeName = similarRecipes.get(choice - 1).getRecipeName().trim();
@@ -228,7 +240,39 @@ public class RecipeBook extends Catalogue<Recipe> {
         if (recipe == null) {
             throw new IllegalArgumentException("Cannot remove null recipe.");
         }
-        items.remove(recipe);
+        if (removeStoredItem(recipe)) {
+            releaseRecipe(recipe);
+            notifyListeners(listener -> listener.recipeRemoved(this, recipe));
+        }
+    }
+
+    /**
+     * Detaches a recipe that left the book, so that editing it no longer changes the book's version.
+     *
+     * @param recipe The recipe that was removed or replaced.
+     */
+    private void releaseRecipe(Recipe recipe) {
+        if (recipe.getOwner() == this) {
+            recipe.setOwner(null);
+        }
+    }
+
+    /**
+     * Removes the recipe with exactly the given name (case-insensitive), without any user prompts.
+     * <p>
+     * Used when restoring previously persisted state, e.g. when replaying the storage journal.
+     * </p>
+     *
+     * @param name The name of the recipe to remove.
+     * @return True if a recipe was removed, false if no recipe has that name.
+     */
+    public boolean removeItemByName(String name) {
+        Recipe existing = getItemByName(name);
+        if (existing == null) {
+            return false;
+        }
+        removeRecipe(existing);
+        return true;
     }
 
     /**
@@ -243,16 +287,18 @@ public class RecipeBook extends Catalogue<Recipe> {
             return new CommandResult("Cannot edit a null recipe.");
         }
 
-        for (Recipe existing : items) {
-            if (existing.getRecipeName().equalsIgnoreCase(newRecipe.getRecipeName())
-                    && !Objects.equals(existing, oldRecipe)) {
-                return new CommandResult("A recipe with the name " + newRecipe.getRecipeName() + " already exists.");
-            }
+        Recipe existing = getItemByName(newRecipe.getRecipeName());
+        if (existing != null && !Objects.equals(existing, oldRecipe)) {
+            return new CommandResult("A recipe with the name " + newRecipe.getRecipeName() + " already exists.");
         }
 
-        int index = items.indexOf(oldRecipe);
+        // Recipe names are unique, so the index tells whether oldRecipe is in the book without a scan
+        int index = findByName(oldRecipe.getRecipeName()) == oldRecipe ? items.indexOf(oldRecipe) : -1;
         if (index != -1) {
-            items.set(index, newRecipe);
+            replaceItemAt(index, newRecipe);
+            releaseRecipe(oldRecipe);
+            newRecipe.setOwner(this);
+            notifyListeners(listener -> listener.recipeReplaced(this, oldRecipe, newRecipe));
             return new CommandResult(oldRecipe.getRecipeName() + " updated to " + newRecipe.getRecipeName());
         }
 
@@ -279,6 +325,7 @@ public class RecipeBook extends Catalogue<Recipe> {
 
     /**
      * Finds recipes whose names contain the given query (case-insensitive).
+     * If none does, suggests the recipes whose names are a few typos away from the query instead.
      *
      * @param query The search keyword or partial name of the recipe.
      * @return A CommandResult listing the matching recipes.
@@ -288,16 +335,19 @@ public class RecipeBook extends Catalogue<Recipe> {
             return new CommandResult("Please provide a keyword to search.");
         }
 
-        String lowerQuery = query.trim().toLowerCase();
-        ArrayList<Recipe> matching = items.stream()
-                .filter(r -> r.getRecipeName() != null && r.getRecipeName().toLowerCase().contains(lowerQuery))
-                .collect(Collectors.toCollection(ArrayList::new));
+        ArrayList<Recipe> matching = findItemsByName(query.trim());
 
+        StringBuilder result = new StringBuilder();
         if (matching.isEmpty()) {
-            return new CommandResult("No recipes found containing: " + query);
+            matching = findItemsByFuzzyName(query, MAX_SUGGESTIONS);
+            if (matching.isEmpty()) {
+                return new CommandResult("No recipes found containing: " + query);
+            }
+            result.append("No recipes found containing: ").append(query).append("\nDid you mean:\n");
+        } else {
+            result.append("Found recipes:\n");
         }
 
-        StringBuilder result = new StringBuilder("Found recipes:\n");
         for (int i = 0; i < matching.size(); i++) {
             result.append(i + 1).append(". ").append(matching.get(i).getRecipeName()).append("\n");
         }
@@ -305,6 +355,50 @@ public class RecipeBook extends Catalogue<Recipe> {
         return new CommandResult(result.toString().trim());
     }
 
+    /**
+     * Returns the recipes most relevant to the given words, matched against recipe and ingredient names.
+     * <p>
+     * The full-text index is only built the first time the recipe book is searched, then updated as
+     * recipes and their ingredients change.
+     * </p>
+     *
+     * @param query The words to look for, case-insensitive.
+     * @param limit The maximum number of recipes to return.
+     * @return The recipes matching at least one word, most relevant first.
+     */
+    public ArrayList<Recipe> searchRecipes(String query, int limit) {
+        if (searchIndex == null) {
+            searchIndex = new RecipeSearchIndex(this);
+        }
+        return searchIndex.search(query, limit);
+    }
+
+    /**
+     * Returns the index of the recipes using each ingredient, building it the first time it is needed.
+     * The index then stays in sync with the recipe book and its recipes.
+     *
+     * @return The posting index over this recipe book.
+     */
+    public RecipePostingIndex getPostingIndex() {
+        if (postingIndex == null) {
+            postingIndex = new RecipePostingIndex(this);
+        }
+        return postingIndex;
+    }
+
+    /**
+     * Returns the index of recipes with similar ingredients, building it the first time it is needed.
+     * The index then stays in sync with the recipe book and its recipes.
+     *
+     * @return The similarity index over this recipe book.
+     */
+    public RecipeSimilarityIndex getSimilarityIndex() {
+        if (similarityIndex == null) {
+            similarityIndex = new RecipeSimilarityIndex(this);
+        }
+        return similarityIndex;
+    }
+
     /**
      * Returns the type identifier of this catalogue.
      * Used to distinguish this catalogue from others (e.g., Inventory, Shopping List).
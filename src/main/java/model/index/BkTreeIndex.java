@@ -0,0 +1,278 @@
+package model.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.function.Function;
+
+/**
+ * An index that finds the items whose (normalized) name is within a small edit distance of a query,
+ * backed by a BK-tree.
+ * <p>
+ * Every distinct name is a node of the tree, and each child hangs off its parent under the Levenshtein
+ * distance between their names. Since the distance is a metric, a query within distance {@code d} of a
+ * node's name {@code n} away from the query can only be found under the children labelled
+ * {@code n - d} to {@code n + d}, so a query with a small {@code d} only visits a small part of the tree.
+ * </p>
+ * <p>
+ * As in {@link TrigramIndex}, every item occupies a slot numbered in the order items were added, which
+ * breaks ties between matches at the same distance. Removals and renames leave stale slots in the tree;
+ * they are skipped when collecting matches, and the tree is rebuilt once they outnumber the live items.
+ * </p>
+ *
+ * @param <T> The type of item indexed.
+ */
+public class BkTreeIndex<T> implements ItemIndex<T> {
+    private static final int MIN_STALE_BEFORE_REBUILD = 64;
+
+    private final Function<T, String> keyExtractor;
+    private final ArrayList<T> slots = new ArrayList<>();
+    private final ArrayList<String> keys = new ArrayList<>();
+    private final IdentityHashMap<T, Integer> slotByItem = new IdentityHashMap<>();
+    private final HashMap<String, Node> nodeByKey = new HashMap<>();
+    private Node root;
+    private int staleCount;
+    /** Scratch rows for the edit-distance computations, grown as needed. */
+    private int[] rowA = new int[32];
+    private int[] rowB = new int[32];
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param keyExtractor Returns the normalized (e.g. lower-case) name of an item, or {@code null} if it has none.
+     */
+    public BkTreeIndex(Function<T, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Returns the Levenshtein distance between two strings: the fewest single-character insertions,
+     * deletions and substitutions turning one into the other.
+     *
+     * @param a The first string.
+     * @param b The second string.
+     * @return The edit distance between the strings.
+     */
+    public static int distance(String a, String b) {
+        return distance(a, b, new int[Math.min(a.length(), b.length()) + 1],
+                new int[Math.min(a.length(), b.length()) + 1]);
+    }
+
+    private static int distance(String a, String b, int[] previous, int[] current) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Returns the edit distance between two names, reusing this index's scratch rows.
+     */
+    private int measure(String a, String b) {
+        int length = Math.min(a.length(), b.length()) + 1;
+        if (rowA.length < length) {
+            rowA = new int[length * 2];
+            rowB = new int[length * 2];
+        }
+        return distance(a, b, rowA, rowB);
+    }
+
+    @Override
+    public void add(T item) {
+        int slot = slots.size();
+        slots.add(item);
+        keys.add(null);
+        fillSlot(slot, item);
+    }
+
+    @Override
+    public void remove(T item) {
+        Integer slot = slotByItem.remove(item);
+        if (slot == null) {
+            return;
+        }
+        slots.set(slot, null);
+        keys.set(slot, null);
+        staleCount++;
+    }
+
+    @Override
+    public void replace(T oldItem, T newItem) {
+        Integer slot = slotByItem.remove(oldItem);
+        if (slot == null) {
+            add(newItem);
+            return;
+        }
+        staleCount++; // The old name's node still lists this slot
+        fillSlot(slot, newItem);
+    }
+
+    @Override
+    public void clear() {
+        slots.clear();
+        keys.clear();
+        slotByItem.clear();
+        nodeByKey.clear();
+        root = null;
+        staleCount = 0;
+    }
+
+    /**
+     * Finds the indexed items whose normalized name is within the given edit distance of the query.
+     *
+     * @param query       The normalized (e.g. lower-case) name to look for.
+     * @param maxDistance The largest edit distance accepted.
+     * @param limit       The maximum number of items to return.
+     * @return The matching items, closest first, then in the order they were added.
+     */
+    public ArrayList<T> findWithin(String query, int maxDistance, int limit) {
+        if (staleCount > Math.max(MIN_STALE_BEFORE_REBUILD, slotByItem.size())) {
+            rebuild();
+        }
+
+        // Matches packed as (distance, slot) so that sorting them ranks by distance, then by slot
+        long[] matches = new long[16];
+        int matchCount = 0;
+        ArrayList<Node> pending = new ArrayList<>();
+        if (root != null) {
+            pending.add(root);
+        }
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            int distance = measure(query, node.key);
+            if (distance <= maxDistance) {
+                for (int i = 0; i < node.slotCount; i++) {
+                    int slot = node.slots[i];
+                    if (node.key.equals(keys.get(slot))) {
+                        if (matchCount == matches.length) {
+                            matches = Arrays.copyOf(matches, matchCount * 2);
+                        }
+                        matches[matchCount++] = ((long) distance << 32) | slot;
+                    }
+                }
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                if (Math.abs(node.childDistances[i] - distance) <= maxDistance) {
+                    pending.add(node.children[i]);
+                }
+            }
+        }
+
+        // A renamed slot may be listed twice under the same name, so skip repeats
+        Arrays.sort(matches, 0, matchCount);
+        ArrayList<T> result = new ArrayList<>();
+        for (int i = 0; i < matchCount && result.size() < limit; i++) {
+            if (i == 0 || matches[i] != matches[i - 1]) {
+                result.add(slots.get((int) matches[i]));
+            }
+        }
+        return result;
+    }
+
+    private void fillSlot(int slot, T item) {
+        String key = keyExtractor.apply(item);
+        slots.set(slot, item);
+        keys.set(slot, key);
+        slotByItem.put(item, slot);
+        if (key == null) {
+            return;
+        }
+
+        Node node = nodeByKey.get(key);
+        if (node == null) {
+            node = new Node(key);
+            nodeByKey.put(key, node);
+            insert(node);
+        }
+        node.addSlot(slot);
+    }
+
+    private void insert(Node node) {
+        if (root == null) {
+            root = node;
+            return;
+        }
+        Node parent = root;
+        while (true) {
+            int distance = measure(node.key, parent.key);
+            Node child = parent.getChild(distance);
+            if (child == null) {
+                parent.addChild(distance, node);
+                return;
+            }
+            parent = child;
+        }
+    }
+
+    private void rebuild() {
+        ArrayList<T> live = new ArrayList<>(slotByItem.size());
+        for (T item : slots) {
+            if (item != null) {
+                live.add(item);
+            }
+        }
+        clear();
+        for (T item : live) {
+            add(item);
+        }
+    }
+
+    /**
+     * A distinct name in the tree, with the slots of the items bearing it and its children by distance.
+     */
+    private static class Node {
+        private final String key;
+        private int[] slots = new int[1];
+        private int slotCount;
+        private int[] childDistances = new int[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+
+        private Node(String key) {
+            this.key = key;
+        }
+
+        private void addSlot(int slot) {
+            if (slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, slotCount * 2);
+            }
+            slots[slotCount++] = slot;
+        }
+
+        private Node getChild(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (childDistances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(int distance, Node child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                childDistances = Arrays.copyOf(childDistances, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            childDistances[childCount] = distance;
+            children[childCount++] = child;
+        }
+    }
+}
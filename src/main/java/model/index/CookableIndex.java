@@ -0,0 +1,567 @@
+package model.index;
+
+import model.Ingredient;
+import model.IngredientDictionary;
+import model.catalogue.CatalogueListener;
+import model.catalogue.CompactRecipe;
+import model.catalogue.IngredientCatalogue;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps track of which recipes in a {@link RecipeBook} can be cooked with the current {@link Inventory}.
+ * <p>
+ * The index maps every ingredient ID to the recipe lines that require it, and counts for each recipe
+ * how many of its lines the inventory does not satisfy. It listens to the inventory and to the recipe book,
+ * which passes on the edits made to its recipes, so a quantity change only revisits the recipes that use
+ * the changed ingredient.
+ * A recipe is cookable when its count is zero, so listing the cookable recipes takes time proportional
+ * to the answer.
+ * </p>
+ */
+public class CookableIndex implements CatalogueListener {
+    /** Largest number of distinct ingredients {@link #getBestPurchases(int, int)} considers buying together. */
+    public static final int MAX_PURCHASE_SIZE = 2;
+
+    private final RecipeBook recipeBook;
+    private final Inventory inventory;
+
+    /** Ingredient ID -> quantity in the inventory. */
+    private final HashMap<Integer, Integer> stock = new HashMap<>();
+    /** Ingredient ID -> recipe lines requiring it. */
+    private final HashMap<Integer, Set<Requirement>> requirementsByIngredient = new HashMap<>();
+    private final IdentityHashMap<Recipe, RecipeState> states = new IdentityHashMap<>();
+    /** Cookable recipes, keyed by their position in the recipe book. */
+    private final TreeMap<Long, Recipe> cookable = new TreeMap<>();
+    /**
+     * Recipes that cannot be cooked, bucketed by their number of unsatisfied lines: bucket {@code k} holds the
+     * recipes lacking {@code k} lines, keyed by their position in the recipe book. Queries about recipes
+     * lacking few lines, such as near-cookable recipes and purchases, only visit the first buckets.
+     */
+    private final ArrayList<HashMap<Long, RecipeState>> missingBuckets = new ArrayList<>();
+    private long nextOrder;
+
+    /**
+     * Builds the index and starts tracking changes to the given catalogues.
+     *
+     * @param recipeBook The recipe book whose recipes are checked.
+     * @param inventory  The inventory supplying the ingredients.
+     */
+    public CookableIndex(RecipeBook recipeBook, Inventory inventory) {
+        assert recipeBook != null && inventory != null : "Recipe book and inventory must not be null";
+        this.recipeBook = recipeBook;
+        this.inventory = inventory;
+
+        for (Ingredient ingredient : inventory.getItems()) {
+            stock.putIfAbsent(ingredient.getId(), ingredient.getQuantity());
+        }
+        for (Recipe recipe : recipeBook.getItems()) {
+            addRecipe(recipe, nextOrder++);
+        }
+        inventory.addListener(this);
+        recipeBook.addListener(this);
+    }
+
+    /**
+     * Returns whether this index tracks the given pair of catalogues.
+     *
+     * @param recipeBook The recipe book.
+     * @param inventory  The inventory.
+     * @return True if this index answers queries about exactly these catalogues.
+     */
+    public boolean tracks(RecipeBook recipeBook, Inventory inventory) {
+        return this.recipeBook == recipeBook && this.inventory == inventory;
+    }
+
+    /**
+     * Returns the recipes that can be cooked with the current inventory, in recipe book order.
+     *
+     * @return The cookable recipes.
+     */
+    public ArrayList<Recipe> getCookableRecipes() {
+        return new ArrayList<>(cookable.values());
+    }
+
+    /**
+     * Returns how many ingredient lines of a recipe the inventory does not currently satisfy.
+     *
+     * @param recipe A recipe in the tracked recipe book.
+     * @return The number of unsatisfied lines, or -1 if the recipe is not tracked.
+     */
+    public int getUnsatisfiedCount(Recipe recipe) {
+        RecipeState state = states.get(recipe);
+        return state == null ? -1 : state.unsatisfied;
+    }
+
+    /**
+     * Returns how many units the inventory lacks to cook a recipe, summed over its ingredient lines.
+     *
+     * @param recipe A recipe in the tracked recipe book.
+     * @return The total shortfall, or -1 if the recipe is not tracked.
+     */
+    public int getShortfall(Recipe recipe) {
+        RecipeState state = states.get(recipe);
+        return state == null ? -1 : state.shortfall;
+    }
+
+    /**
+     * Returns the recipes that cannot be cooked yet but are close: they lack at most {@code maxMissing}
+     * ingredient lines, or at most {@code maxShortfall} units in total.
+     * <p>
+     * Every unsatisfied line lacks at least one unit, so a recipe within either bound lacks at most
+     * {@code max(maxMissing, maxShortfall)} lines. Only the buckets of recipes lacking that many lines or fewer
+     * are visited, and the best candidates are kept in a heap of at most {@code limit} entries.
+     * </p>
+     *
+     * @param maxMissing   The largest number of unsatisfied lines accepted.
+     * @param maxShortfall The largest total shortfall accepted, or 0 to only filter by missing lines.
+     * @param limit        The maximum number of recipes to return.
+     * @return The recipes, with the smallest shortfall first, then the fewest missing lines, then in
+     *     recipe book order.
+     */
+    public ArrayList<Recipe> getNearCookableRecipes(int maxMissing, int maxShortfall, int limit) {
+        // Max-heap on the ranking: the head is the entry to evict when a closer one comes along
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        Comparator<RecipeState> closestFirst = Comparator.comparingInt((RecipeState state) -> state.shortfall)
+                .thenComparingInt(state -> state.unsatisfied)
+                .thenComparingLong(state -> state.order);
+        PriorityQueue<RecipeState> closest = new PriorityQueue<>(closestFirst.reversed());
+        int maxBucket = Math.min(Math.max(maxMissing, maxShortfall), missingBuckets.size() - 1);
+        for (int missing = 1; missing <= maxBucket; missing++) {
+            for (RecipeState state : missingBuckets.get(missing).values()) {
+                if (state.unsatisfied > maxMissing && state.shortfall > maxShortfall) {
+                    continue;
+                }
+                if (closest.size() == limit && closestFirst.compare(state, closest.peek()) >= 0) {
+                    continue;
+                }
+                closest.add(state);
+                if (closest.size() > limit) {
+                    closest.poll();
+                }
+            }
+        }
+
+        ArrayList<RecipeState> ranked = new ArrayList<>(closest);
+        ranked.sort(closestFirst);
+        ArrayList<Recipe> recipes = new ArrayList<>(ranked.size());
+        for (RecipeState state : ranked) {
+            recipes.add(state.recipe);
+        }
+        return recipes;
+    }
+
+    /**
+     * Ranks the ingredients, or sets of ingredients, worth buying next by how many more recipes they
+     * would make cookable, along with how many units of each to buy.
+     * <p>
+     * Buying a set of ingredients unlocks exactly the recipes whose unsatisfied lines all name an
+     * ingredient in the set, so only the recipes lacking at most {@code size} lines matter. The index
+     * keeps those up to date as quantities change, and this reads the missing lines of each of them once,
+     * crediting single-line recipes to their ingredient and two-line recipes to their pair. A pair then
+     * unlocks its own recipes plus those of each of its ingredients; pairs sharing no recipe are only
+     * worth considering among the best single ingredients.
+     * </p>
+     *
+     * @param size  The number of distinct ingredients bought together, from 1 to {@link #MAX_PURCHASE_SIZE}.
+     * @param limit The maximum number of purchases to return.
+     * @return The purchases, unlocking the most recipes first, then needing the fewest units, then by name.
+     */
+    public ArrayList<Purchase> getBestPurchases(int size, int limit) {
+        assert size >= 1 && size <= MAX_PURCHASE_SIZE : "Purchase size must be from 1 to " + MAX_PURCHASE_SIZE;
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        HashMap<Integer, Purchase> singles = new HashMap<>();
+        HashMap<Long, Purchase> pairs = new HashMap<>();
+        int maxBucket = Math.min(size, missingBuckets.size() - 1);
+        for (int missing = 1; missing <= maxBucket; missing++) {
+            for (RecipeState state : missingBuckets.get(missing).values()) {
+                countPurchase(state, singles, pairs);
+            }
+        }
+
+        ArrayList<Purchase> ranked = new ArrayList<>(singles.values());
+        ranked.sort(Purchase.BEST_FIRST);
+        if (size == 2) {
+            ranked = combinePairs(ranked, singles, pairs, limit);
+        }
+        return new ArrayList<>(ranked.subList(0, Math.min(limit, ranked.size())));
+    }
+
+    /**
+     * Stops tracking changes to the catalogues.
+     */
+    public void close() {
+        inventory.removeListener(this);
+        recipeBook.removeListener(this);
+    }
+
+    @Override
+    public void ingredientChanged(IngredientCatalogue catalogue, String ingredientName, int newQuantity) {
+        if (catalogue == inventory) {
+            updateStock(IngredientDictionary.getId(ingredientName), newQuantity);
+        } else if (catalogue instanceof Recipe recipe && states.containsKey(recipe)) {
+            reindexRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void ingredientsCleared(IngredientCatalogue catalogue) {
+        if (catalogue == inventory) {
+            for (int id : new ArrayList<>(stock.keySet())) {
+                updateStock(id, 0);
+            }
+        } else if (catalogue instanceof Recipe recipe && states.containsKey(recipe)) {
+            reindexRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void recipeAdded(RecipeBook recipeBook, Recipe recipe) {
+        if (recipeBook == this.recipeBook) {
+            addRecipe(recipe, nextOrder++);
+        }
+    }
+
+    @Override
+    public void recipeRemoved(RecipeBook recipeBook, Recipe recipe) {
+        if (recipeBook == this.recipeBook) {
+            removeRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void recipeReplaced(RecipeBook recipeBook, Recipe oldRecipe, Recipe newRecipe) {
+        if (recipeBook != this.recipeBook) {
+            return;
+        }
+        RecipeState oldState = removeRecipe(oldRecipe);
+        addRecipe(newRecipe, oldState == null ? nextOrder++ : oldState.order);
+    }
+
+    /**
+     * Turns the single-ingredient and pair-only purchases into pair purchases, ranked best first.
+     * A pair without recipes of its own unlocks what its two ingredients do separately, and the best
+     * {@code limit} such pairs are formed from the best {@code limit + 1} single ingredients.
+     */
+    private static ArrayList<Purchase> combinePairs(ArrayList<Purchase> rankedSingles,
+            HashMap<Integer, Purchase> singles, HashMap<Long, Purchase> pairs, int limit) {
+        ArrayList<Purchase> combined = new ArrayList<>();
+        for (Purchase pair : pairs.values()) {
+            Purchase purchase = new Purchase(pair.ids);
+            purchase.add(pair);
+            purchase.add(singles.get(pair.ids[0]));
+            purchase.add(singles.get(pair.ids[1]));
+            combined.add(purchase);
+        }
+
+        int candidates = (int) Math.min(rankedSingles.size(), limit + 1L);
+        for (int i = 0; i < candidates; i++) {
+            for (int j = i + 1; j < candidates; j++) {
+                Purchase first = rankedSingles.get(i);
+                Purchase second = rankedSingles.get(j);
+                int[] ids = {Math.min(first.ids[0], second.ids[0]), Math.max(first.ids[0], second.ids[0])};
+                if (pairs.containsKey((long) ids[0] << 32 | ids[1])) {
+                    continue;
+                }
+                Purchase purchase = new Purchase(ids);
+                purchase.add(first);
+                purchase.add(second);
+                combined.add(purchase);
+            }
+        }
+        combined.sort(Purchase.BEST_FIRST);
+        return combined;
+    }
+
+    /**
+     * Credits a recipe lacking one or two lines to the purchase of its missing ingredients.
+     */
+    private void countPurchase(RecipeState state, HashMap<Integer, Purchase> singles,
+            HashMap<Long, Purchase> pairs) {
+        // Lines of a compact recipe are sorted by ingredient ID, so a pair comes out in ID order
+        int[] ids = new int[state.unsatisfied];
+        int[] shortfalls = new int[state.unsatisfied];
+        int missingCount = 0;
+        for (Requirement requirement : state.requirements) {
+            int available = stock.getOrDefault(requirement.ingredientId, 0);
+            if (!requirement.isSatisfiedBy(available)) {
+                ids[missingCount] = requirement.ingredientId;
+                shortfalls[missingCount++] = requirement.getShortfall(available);
+            }
+        }
+        if (missingCount == 1) {
+            singles.computeIfAbsent(ids[0], id -> new Purchase(ids)).unlock(ids, shortfalls);
+        } else {
+            long key = (long) ids[0] << 32 | ids[1];
+            pairs.computeIfAbsent(key, id -> new Purchase(ids)).unlock(ids, shortfalls);
+        }
+    }
+
+    private void addRecipe(Recipe recipe, long order) {
+        RecipeState state = new RecipeState(recipe, order);
+        states.put(recipe, state);
+        addRequirements(state);
+    }
+
+    private RecipeState removeRecipe(Recipe recipe) {
+        RecipeState state = states.remove(recipe);
+        if (state == null) {
+            return null;
+        }
+        removeRequirements(state);
+        cookable.remove(state.order);
+        fileUnder(state, 0);
+        return state;
+    }
+
+    private void reindexRecipe(Recipe recipe) {
+        RecipeState state = states.get(recipe);
+        removeRequirements(state);
+        addRequirements(state);
+    }
+
+    private void addRequirements(RecipeState state) {
+        CompactRecipe lines = state.recipe.toCompact(); // Does not expand frozen recipes
+        int i = 0;
+        while (i < lines.size()) {
+            // Lines are sorted by ID, so repeated ingredients are adjacent; cooking requires their sum
+            int ingredientId = lines.getId(i);
+            long quantity = 0;
+            for (; i < lines.size() && lines.getId(i) == ingredientId; i++) {
+                quantity += lines.getQuantity(i);
+            }
+            Requirement requirement = new Requirement(state, ingredientId, (int) Math.min(quantity, Integer.MAX_VALUE));
+            state.requirements.add(requirement);
+            requirementsByIngredient.computeIfAbsent(requirement.ingredientId, id -> new HashSet<>()).add(requirement);
+            int available = stock.getOrDefault(requirement.ingredientId, 0);
+            if (!requirement.isSatisfiedBy(available)) {
+                state.unsatisfied++;
+                state.shortfall += requirement.getShortfall(available);
+            }
+        }
+        updateCookable(state);
+    }
+
+    private void removeRequirements(RecipeState state) {
+        for (Requirement requirement : state.requirements) {
+            Set<Requirement> requirements = requirementsByIngredient.get(requirement.ingredientId);
+            requirements.remove(requirement);
+            if (requirements.isEmpty()) {
+                requirementsByIngredient.remove(requirement.ingredientId);
+            }
+        }
+        state.requirements.clear();
+        state.unsatisfied = 0;
+        state.shortfall = 0;
+    }
+
+    private void updateStock(int ingredientId, int newQuantity) {
+        int oldQuantity = stock.getOrDefault(ingredientId, 0);
+        if (newQuantity == 0) {
+            stock.remove(ingredientId);
+        } else {
+            stock.put(ingredientId, newQuantity);
+        }
+
+        for (Requirement requirement : requirementsByIngredient.getOrDefault(ingredientId, Collections.emptySet())) {
+            int shortfallChange = requirement.getShortfall(newQuantity) - requirement.getShortfall(oldQuantity);
+            requirement.state.shortfall += shortfallChange;
+            boolean wasSatisfied = requirement.isSatisfiedBy(oldQuantity);
+            boolean isSatisfied = requirement.isSatisfiedBy(newQuantity);
+            if (wasSatisfied != isSatisfied) {
+                requirement.state.unsatisfied += isSatisfied ? -1 : 1;
+                updateCookable(requirement.state);
+            }
+        }
+    }
+
+    private void updateCookable(RecipeState state) {
+        if (state.unsatisfied == 0) {
+            cookable.put(state.order, state.recipe);
+        } else {
+            cookable.remove(state.order);
+        }
+        fileUnder(state, state.unsatisfied);
+    }
+
+    /**
+     * Moves a recipe to the bucket of recipes lacking the given number of lines, or out of every bucket if 0.
+     */
+    private void fileUnder(RecipeState state, int missing) {
+        if (state.bucket == missing) {
+            return;
+        }
+        if (state.bucket > 0) {
+            missingBuckets.get(state.bucket).remove(state.order);
+        }
+        if (missing > 0) {
+            while (missingBuckets.size() <= missing) {
+                missingBuckets.add(new HashMap<>());
+            }
+            missingBuckets.get(missing).put(state.order, state);
+        }
+        state.bucket = missing;
+    }
+
+    /**
+     * Tracking state of one recipe in the book.
+     */
+    private static class RecipeState {
+        private final Recipe recipe;
+        private final long order;
+        private final ArrayList<Requirement> requirements = new ArrayList<>();
+        private int unsatisfied;
+        /** The bucket of {@code missingBuckets} holding the recipe, or 0 if it is in none. */
+        private int bucket;
+        /** Units missing over all lines, as listed by {@code CookRecipeCommand.getMissingIngredients}. */
+        private int shortfall;
+
+        private RecipeState(Recipe recipe, long order) {
+            this.recipe = recipe;
+            this.order = order;
+        }
+    }
+
+    /**
+     * The total quantity of one ingredient a recipe requires, over all the lines listing it.
+     */
+    private static class Requirement {
+        private final RecipeState state;
+        private final int ingredientId;
+        private final int quantity;
+
+        private Requirement(RecipeState state, int ingredientId, int quantity) {
+            this.state = state;
+            this.ingredientId = ingredientId;
+            this.quantity = quantity;
+        }
+
+        private boolean isSatisfiedBy(int availableQuantity) {
+            return availableQuantity >= quantity;
+        }
+
+        private int getShortfall(int availableQuantity) {
+            return Math.max(0, quantity - availableQuantity);
+        }
+    }
+
+    /**
+     * A set of ingredients to buy, with the units of each needed to unlock every recipe it can.
+     */
+    public static class Purchase {
+        private static final Comparator<Purchase> BEST_FIRST = Comparator
+                .comparingInt((Purchase purchase) -> -purchase.recipeCount)
+                .thenComparingLong(Purchase::getTotalUnits)
+                .thenComparing(Purchase::getSortKey);
+
+        private final int[] ids;
+        private final int[] units;
+        private int recipeCount;
+        /** Lower-case names of the ingredients, joined in order, computed when first ranked. */
+        private String sortKey;
+
+        private Purchase(int[] ids) {
+            this.ids = ids.clone();
+            this.units = new int[ids.length];
+        }
+
+        /**
+         * Counts a recipe this purchase unlocks, lacking the given units of some of its ingredients.
+         */
+        private void unlock(int[] missingIds, int[] shortfalls) {
+            for (int i = 0; i < missingIds.length; i++) {
+                int position = indexOf(missingIds[i]);
+                units[position] = Math.max(units[position], shortfalls[i]);
+            }
+            recipeCount++;
+        }
+
+        /**
+         * Adds the recipes unlocked by a purchase of some of the same ingredients.
+         */
+        private void add(Purchase other) {
+            if (other == null) {
+                return;
+            }
+            for (int i = 0; i < other.ids.length; i++) {
+                int position = indexOf(other.ids[i]);
+                units[position] = Math.max(units[position], other.units[i]);
+            }
+            recipeCount += other.recipeCount;
+        }
+
+        private String getSortKey() {
+            if (sortKey == null) {
+                String[] names = new String[ids.length];
+                for (int i = 0; i < ids.length; i++) {
+                    names[i] = IngredientDictionary.getCanonicalName(ids[i]).toLowerCase();
+                }
+                Arrays.sort(names);
+                sortKey = String.join("\n", names);
+            }
+            return sortKey;
+        }
+
+        private int indexOf(int id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Ingredient " + id + " is not part of this purchase");
+        }
+
+        /**
+         * Returns the ingredients to buy, each with the number of units to buy, sorted by name.
+         *
+         * @return The ingredients and quantities.
+         */
+        public ArrayList<Ingredient> getIngredients() {
+            Ingredient[] ingredients = new Ingredient[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                ingredients[i] = new Ingredient(IngredientDictionary.getCanonicalName(ids[i]), units[i]);
+            }
+            Arrays.sort(ingredients, Comparator.comparing(ingredient -> ingredient.getIngredientName().toLowerCase()));
+            return new ArrayList<>(Arrays.asList(ingredients));
+        }
+
+        /**
+         * Returns how many recipes that cannot be cooked now could be once this purchase is made.
+         *
+         * @return The number of recipes unlocked.
+         */
+        public int getRecipeCount() {
+            return recipeCount;
+        }
+
+        /**
+         * Returns the number of units to buy, over all ingredients of the purchase.
+         *
+         * @return The total units.
+         */
+        public long getTotalUnits() {
+            long total = 0;
+            for (int unit : units) {
+                total += unit;
+            }
+            return total;
+        }
+    }
+}
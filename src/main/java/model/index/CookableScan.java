@@ -0,0 +1,252 @@
+package model.index;
+
+import model.Ingredient;
+import model.IngredientDictionary;
+import model.catalogue.CompactRecipe;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates which recipes can be cooked against a read-only snapshot of an {@link Inventory}.
+ * <p>
+ * Unlike {@link CookableIndex}, nothing is kept up to date: the snapshot copies the inventory's quantities
+ * into an array indexed by ingredient ID (see {@link IngredientDictionary}), and each evaluation checks every
+ * recipe against it. Because the snapshot is never modified, large recipe books can be split into chunks
+ * and checked on a {@link ForkJoinPool}; the chunks are merged back in recipe book order.
+ * </p>
+ */
+public final class CookableScan {
+    /** Number of recipes below which {@link #findCookable(List)} does not bother going parallel. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    /** Fewest recipes handed to a single task, so that scheduling does not outweigh the work. */
+    private static final int MIN_CHUNK_SIZE = 1024;
+    /** Chunks per worker, so that workers finishing early can steal from slower ones. */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /** Ingredient ID -> quantity in the inventory, 0 if absent. */
+    private final int[] stock;
+
+    private CookableScan(int[] stock) {
+        this.stock = stock;
+    }
+
+    /**
+     * Takes a snapshot of the quantities in an inventory.
+     * Later changes to the inventory are not reflected in the snapshot.
+     *
+     * @param inventory The inventory to copy.
+     * @return The snapshot.
+     */
+    public static CookableScan snapshot(Inventory inventory) {
+        int[] stock = new int[IngredientDictionary.size()];
+        for (Ingredient ingredient : inventory.getItems()) {
+            stock[ingredient.getId()] = ingredient.getQuantity();
+        }
+        return new CookableScan(stock);
+    }
+
+    /**
+     * Returns whether the snapshot holds at least the quantity a recipe requires of every ingredient.
+     * An ingredient listed on several lines requires the sum of their quantities, as cooking it does.
+     *
+     * @param recipe The recipe to check. It is not expanded.
+     * @return True if the recipe can be cooked.
+     */
+    public boolean canCook(Recipe recipe) {
+        return getServings(recipe) > 0;
+    }
+
+    /**
+     * Returns how many times a recipe can be cooked from the snapshot: the smallest ratio of available to
+     * required quantity over its ingredients. Repeated lines of an ingredient are added up, as
+     * {@link Inventory#consumeAll} does when the recipe is cooked.
+     *
+     * @param recipe The recipe to check. It is not expanded.
+     * @return The number of servings, or {@link Integer#MAX_VALUE} if the recipe requires nothing.
+     */
+    public int getServings(Recipe recipe) {
+        int servings = Integer.MAX_VALUE;
+        CompactRecipe lines = recipe.toCompact();
+        int i = 0;
+        while (i < lines.size()) {
+            // Lines are sorted by ID, so repeated ingredients are adjacent
+            int id = lines.getId(i);
+            long required = 0;
+            for (; i < lines.size() && lines.getId(i) == id; i++) {
+                required += Math.max(0, lines.getQuantity(i));
+            }
+            servings = Math.min(servings, servingsOf(id, required));
+            if (servings == 0) {
+                return 0;
+            }
+        }
+        return servings;
+    }
+
+    /**
+     * Returns the recipes that can be cooked the most times, in one pass over the recipes.
+     * A heap holding at most {@code limit} entries keeps the best ones seen so far, so this takes
+     * O(n log limit) time for n recipes; when every recipe may be returned, they are simply sorted.
+     *
+     * @param recipes The recipes to rank.
+     * @param limit   The maximum number of recipes to return.
+     * @return Up to {@code limit} recipes that can be cooked at least once, with the most servings first.
+     *     Ties keep the order given.
+     */
+    public ArrayList<Servings> findTopServings(List<Recipe> recipes, int limit) {
+        // Min-heap on the ranking: the head is the entry to evict when a better one comes along
+        Comparator<Servings> byRank = Comparator.comparingInt(Servings::getServings)
+                .thenComparing(Comparator.comparingInt((Servings entry) -> entry.position).reversed());
+        if (limit >= recipes.size()) {
+            // Everything cookable is returned, so a plain sort beats going through the heap
+            ArrayList<Servings> ranked = new ArrayList<>();
+            for (int position = 0; position < recipes.size(); position++) {
+                int servings = getServings(recipes.get(position));
+                if (servings > 0) {
+                    ranked.add(new Servings(recipes.get(position), servings, position));
+                }
+            }
+            // Stable, so ties stay in the order given
+            ranked.sort((a, b) -> Integer.compare(b.servings, a.servings));
+            return ranked;
+        }
+
+        PriorityQueue<Servings> best = new PriorityQueue<>(limit + 1, byRank);
+        for (int position = 0; position < recipes.size() && limit > 0; position++) {
+            Recipe recipe = recipes.get(position);
+            int servings = getServings(recipe);
+            if (servings == 0 || best.size() == limit && best.peek().servings >= servings) {
+                continue;
+            }
+            best.add(new Servings(recipe, servings, position));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        ArrayList<Servings> ranked = new ArrayList<>(best);
+        ranked.sort(byRank.reversed());
+        return ranked;
+    }
+
+    /**
+     * Returns the recipes that can be cooked, using the common pool once there are enough recipes
+     * (see {@link #DEFAULT_PARALLEL_THRESHOLD}).
+     *
+     * @param recipes The recipes to check, e.g. {@code RecipeBook.getItems()}. Must not change during the call.
+     * @return The cookable recipes, in the order given.
+     */
+    public ArrayList<Recipe> findCookable(List<Recipe> recipes) {
+        return findCookable(recipes, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Returns the recipes that can be cooked, splitting the work across a pool once there are enough recipes.
+     *
+     * @param recipes           The recipes to check. Must not change during the call.
+     * @param pool              The pool to run on.
+     * @param parallelThreshold Number of recipes below which the scan runs on the calling thread.
+     * @return The cookable recipes, in the order given.
+     */
+    public ArrayList<Recipe> findCookable(List<Recipe> recipes, ForkJoinPool pool, int parallelThreshold) {
+        int count = recipes.size();
+        if (count < parallelThreshold || pool.getParallelism() == 1) {
+            return scan(recipes, 0, count);
+        }
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, count / (pool.getParallelism() * CHUNKS_PER_WORKER));
+        return pool.invoke(new ScanTask(recipes, 0, count, chunkSize));
+    }
+
+    private int servingsOf(int ingredientId, long requiredQuantity) {
+        if (requiredQuantity <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        int available = ingredientId < stock.length ? stock[ingredientId] : 0;
+        return (int) (available / requiredQuantity);
+    }
+
+    private ArrayList<Recipe> scan(List<Recipe> recipes, int from, int to) {
+        ArrayList<Recipe> cookable = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Recipe recipe = recipes.get(i);
+            if (canCook(recipe)) {
+                cookable.add(recipe);
+            }
+        }
+        return cookable;
+    }
+
+    /**
+     * Checks a range of recipes, splitting it in halves until it is no larger than a chunk.
+     */
+    @SuppressWarnings("serial") // Never serialized: tasks only live inside a scan
+    private class ScanTask extends RecursiveTask<ArrayList<Recipe>> {
+        private final List<Recipe> recipes;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        private ScanTask(List<Recipe> recipes, int from, int to, int chunkSize) {
+            this.recipes = recipes;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected ArrayList<Recipe> compute() {
+            if (to - from <= chunkSize) {
+                return scan(recipes, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(recipes, from, middle, chunkSize);
+            left.fork();
+            ArrayList<Recipe> right = new ScanTask(recipes, middle, to, chunkSize).compute();
+            ArrayList<Recipe> merged = left.join();
+            merged.addAll(right);
+            return merged;
+        }
+    }
+
+    /**
+     * A recipe together with the number of times it can be cooked.
+     */
+    public static final class Servings {
+        private final Recipe recipe;
+        private final int servings;
+        /** Position of the recipe in the ranked list, to break ties. */
+        private final int position;
+
+        private Servings(Recipe recipe, int servings, int position) {
+            this.recipe = recipe;
+            this.servings = servings;
+            this.position = position;
+        }
+
+        /**
+         * Returns the recipe.
+         *
+         * @return The recipe.
+         */
+        public Recipe getRecipe() {
+            return recipe;
+        }
+
+        /**
+         * Returns the number of times the recipe can be cooked.
+         *
+         * @return The number of servings, or {@link Integer#MAX_VALUE} if the recipe requires nothing.
+         */
+        public int getServings() {
+            return servings;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package model.index;
+
+/**
+ * A secondary index over the items of a catalogue, kept in sync with the catalogue's item list.
+ * <p>
+ * Items are identified by reference, and the index remembers the order in which they were added
+ * so that query results can be returned in catalogue order.
+ * </p>
+ *
+ * @param <T> The type of item indexed.
+ */
+public interface ItemIndex<T> {
+
+    /**
+     * Adds an item after all items already in the index.
+     *
+     * @param item The item to add.
+     */
+    void add(T item);
+
+    /**
+     * Removes an item from the index.
+     *
+     * @param item The item to remove.
+     */
+    void remove(T item);
+
+    /**
+     * Replaces an item with another one that takes over its position in the ordering.
+     *
+     * @param oldItem The item to remove.
+     * @param newItem The item to add in its place.
+     */
+    void replace(T oldItem, T newItem);
+
+    /**
+     * Removes every item from the index.
+     */
+    void clear();
+}
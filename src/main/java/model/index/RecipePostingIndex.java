@@ -0,0 +1,214 @@
+package model.index;
+
+import model.IngredientDictionary;
+import model.catalogue.CatalogueListener;
+import model.catalogue.CompactRecipe;
+import model.catalogue.IngredientCatalogue;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Maps every ingredient to the recipes of a {@link RecipeBook} that use it, as {@link RoaringBitmap}s.
+ * <p>
+ * Each recipe occupies a slot, numbered in recipe book order, and each ingredient ID has a posting
+ * bitmap of the slots of the recipes requiring it. A query such as "egg and milk but not nuts" is then
+ * an intersection of two bitmaps minus a third, costing time proportional to the compressed size of the
+ * postings rather than to the number of recipes.
+ * </p>
+ * <p>
+ * Adding or removing an ingredient line flips at most one bit; adding, removing or replacing a recipe
+ * updates one bit per line. Removed recipes leave an empty slot behind, and slots are renumbered on the
+ * next query once they outnumber the recipes in the book.
+ * </p>
+ */
+public class RecipePostingIndex implements CatalogueListener {
+    private static final int MIN_STALE_BEFORE_REBUILD = 64;
+
+    private final RecipeBook recipeBook;
+    private final ArrayList<Recipe> slots = new ArrayList<>();
+    private final IdentityHashMap<Recipe, Integer> slotByRecipe = new IdentityHashMap<>();
+    /** Ingredient ID -> slots of the recipes using it. */
+    private final HashMap<Integer, RoaringBitmap> postings = new HashMap<>();
+    /** Slots of every recipe in the book. */
+    private RoaringBitmap live = new RoaringBitmap();
+
+    /**
+     * Builds the index and starts tracking changes to the given recipe book.
+     *
+     * @param recipeBook The recipe book to index.
+     */
+    public RecipePostingIndex(RecipeBook recipeBook) {
+        assert recipeBook != null : "Recipe book must not be null";
+        this.recipeBook = recipeBook;
+        for (Recipe recipe : recipeBook.getItems()) {
+            addRecipe(recipe);
+        }
+        recipeBook.addListener(this);
+    }
+
+    /**
+     * Returns the recipes using every one of the required ingredients and none of the excluded ones.
+     * <p>
+     * The required postings are intersected smallest first, so the intermediate results shrink as fast
+     * as possible; the union of the excluded postings is then subtracted.
+     * </p>
+     *
+     * @param required The ingredient names that must all be used. If empty, every recipe qualifies.
+     * @param excluded The ingredient names that must not be used.
+     * @return The slots of the matching recipes, as a new bitmap.
+     */
+    public RoaringBitmap match(List<String> required, List<String> excluded) {
+        if (slots.size() - slotByRecipe.size() > Math.max(MIN_STALE_BEFORE_REBUILD, slotByRecipe.size())) {
+            rebuild();
+        }
+
+        ArrayList<RoaringBitmap> requiredPostings = new ArrayList<>();
+        for (String name : required) {
+            requiredPostings.add(getPosting(name));
+        }
+        requiredPostings.sort(Comparator.comparingInt(RoaringBitmap::cardinality));
+
+        RoaringBitmap result = live;
+        for (RoaringBitmap posting : requiredPostings) {
+            result = RoaringBitmap.and(result, posting);
+        }
+        for (String name : excluded) {
+            result = RoaringBitmap.andNot(result, getPosting(name));
+        }
+        return result == live ? live.copy() : result;
+    }
+
+    /**
+     * Returns the recipes in the given slots.
+     *
+     * @param matches Slots returned by {@link #match(List, List)}, possibly combined with other such sets.
+     * @return The recipes, in recipe book order.
+     */
+    public ArrayList<Recipe> getRecipes(RoaringBitmap matches) {
+        ArrayList<Recipe> recipes = new ArrayList<>(matches.cardinality());
+        matches.forEach(slot -> recipes.add(slots.get(slot)));
+        return recipes;
+    }
+
+    /**
+     * Stops tracking changes to the recipe book.
+     */
+    public void close() {
+        recipeBook.removeListener(this);
+    }
+
+    @Override
+    public void ingredientChanged(IngredientCatalogue catalogue, String ingredientName, int newQuantity) {
+        if (!(catalogue instanceof Recipe recipe) || !slotByRecipe.containsKey(recipe)) {
+            return;
+        }
+        int slot = slotByRecipe.get(recipe);
+        int id = IngredientDictionary.getId(ingredientName);
+        if (newQuantity > 0) {
+            postings.computeIfAbsent(id, key -> new RoaringBitmap()).add(slot);
+        } else if (recipe.getItemByName(ingredientName) == null) {
+            // Only one line may have been removed: a recipe can list an ingredient on several lines
+            removeFromPosting(id, slot);
+        }
+    }
+
+    @Override
+    public void ingredientsCleared(IngredientCatalogue catalogue) {
+        if (!(catalogue instanceof Recipe recipe) || !slotByRecipe.containsKey(recipe)) {
+            return;
+        }
+        // The cleared lines are gone, so look for the slot in every posting; clearing a recipe is rare
+        int slot = slotByRecipe.get(recipe);
+        for (int id : new ArrayList<>(postings.keySet())) {
+            removeFromPosting(id, slot);
+        }
+    }
+
+    @Override
+    public void recipeAdded(RecipeBook recipeBook, Recipe recipe) {
+        if (recipeBook == this.recipeBook) {
+            addRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void recipeRemoved(RecipeBook recipeBook, Recipe recipe) {
+        if (recipeBook == this.recipeBook && slotByRecipe.containsKey(recipe)) {
+            int slot = removeRecipe(recipe);
+            slots.set(slot, null);
+            live.remove(slot);
+        }
+    }
+
+    @Override
+    public void recipeReplaced(RecipeBook recipeBook, Recipe oldRecipe, Recipe newRecipe) {
+        if (recipeBook != this.recipeBook) {
+            return;
+        }
+        if (!slotByRecipe.containsKey(oldRecipe)) {
+            addRecipe(newRecipe);
+            return;
+        }
+        int slot = removeRecipe(oldRecipe);
+        fillSlot(slot, newRecipe);
+    }
+
+    private RoaringBitmap getPosting(String ingredientName) {
+        RoaringBitmap posting = postings.get(IngredientDictionary.findId(ingredientName));
+        return posting == null ? new RoaringBitmap() : posting;
+    }
+
+    private void addRecipe(Recipe recipe) {
+        int slot = slots.size();
+        slots.add(recipe);
+        live.add(slot);
+        fillSlot(slot, recipe);
+    }
+
+    private void fillSlot(int slot, Recipe recipe) {
+        slots.set(slot, recipe);
+        slotByRecipe.put(recipe, slot);
+        CompactRecipe lines = recipe.toCompact();
+        for (int i = 0; i < lines.size(); i++) {
+            postings.computeIfAbsent(lines.getId(i), id -> new RoaringBitmap()).add(slot);
+        }
+    }
+
+    /**
+     * Clears the bits of a recipe, leaving its slot to the caller.
+     */
+    private int removeRecipe(Recipe recipe) {
+        int slot = slotByRecipe.remove(recipe);
+        CompactRecipe lines = recipe.toCompact();
+        for (int i = 0; i < lines.size(); i++) {
+            removeFromPosting(lines.getId(i), slot);
+        }
+        return slot;
+    }
+
+    private void removeFromPosting(int id, int slot) {
+        RoaringBitmap posting = postings.get(id);
+        if (posting != null) {
+            posting.remove(slot);
+            if (posting.isEmpty()) {
+                postings.remove(id);
+            }
+        }
+    }
+
+    private void rebuild() {
+        slots.clear();
+        slotByRecipe.clear();
+        postings.clear();
+        live = new RoaringBitmap();
+        for (Recipe recipe : recipeBook.getItems()) {
+            addRecipe(recipe);
+        }
+    }
+}
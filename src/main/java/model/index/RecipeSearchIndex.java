@@ -0,0 +1,290 @@
+package model.index;
+
+import model.catalogue.CatalogueListener;
+import model.catalogue.CompactRecipe;
+import model.catalogue.IngredientCatalogue;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A full-text index over the recipes of a {@link RecipeBook}, ranking them against a query with BM25.
+ * <p>
+ * Each recipe is a document made of the words of its name and of its ingredient names, with words of
+ * the recipe name counted {@link #NAME_WEIGHT} times so that a recipe named after a query word ranks
+ * above one that merely uses it. An inverted index maps every word to the recipes containing it and how
+ * often, so a query only scores the recipes sharing at least one word with it.
+ * </p>
+ * <p>
+ * Adding, removing or replacing a recipe, or editing the ingredients of one, only re-indexes that recipe.
+ * </p>
+ */
+public class RecipeSearchIndex implements CatalogueListener {
+    /** How many times a word of the recipe name counts, relative to a word of an ingredient name. */
+    public static final int NAME_WEIGHT = 2;
+
+    /** BM25 term frequency saturation. */
+    private static final double K1 = 1.2;
+    /** BM25 document length normalization. */
+    private static final double B = 0.75;
+
+    private final RecipeBook recipeBook;
+    private final IdentityHashMap<Recipe, Document> documents = new IdentityHashMap<>();
+    /** Word -> documents containing it -> weighted number of occurrences. */
+    private final HashMap<String, HashMap<Document, Integer>> postings = new HashMap<>();
+    /** Sum of the weighted lengths of all documents. */
+    private long totalLength;
+    private long nextOrder;
+
+    /**
+     * Builds the index and starts tracking changes to the given recipe book.
+     *
+     * @param recipeBook The recipe book to index.
+     */
+    public RecipeSearchIndex(RecipeBook recipeBook) {
+        assert recipeBook != null : "Recipe book must not be null";
+        this.recipeBook = recipeBook;
+        for (Recipe recipe : recipeBook.getItems()) {
+            addRecipe(recipe, nextOrder++);
+        }
+        recipeBook.addListener(this);
+    }
+
+    /**
+     * Splits a text into lower-case words, at every character that is not a letter or digit.
+     *
+     * @param text The text to split.
+     * @return The words of the text, in order, repeats included.
+     */
+    public static ArrayList<String> tokenize(String text) {
+        ArrayList<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordCharacter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordCharacter && start < 0) {
+                start = i;
+            } else if (!isWordCharacter && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns the recipes most relevant to a query, by BM25 score.
+     *
+     * @param query The words to look for; repeated words count once.
+     * @param limit The maximum number of recipes to return.
+     * @return The recipes sharing at least one word with the query, best first, ties in recipe book order.
+     */
+    public ArrayList<Recipe> search(String query, int limit) {
+        ArrayList<Recipe> recipes = new ArrayList<>();
+        for (Match match : rank(query, limit)) {
+            recipes.add(match.document.recipe);
+        }
+        return recipes;
+    }
+
+    /**
+     * Returns the BM25 score of a recipe against a query.
+     *
+     * @param recipe A recipe in the tracked recipe book.
+     * @param query  The words to look for; repeated words count once.
+     * @return The score, or 0 if the recipe shares no word with the query or is not tracked.
+     */
+    public double getScore(Recipe recipe, String query) {
+        Document document = documents.get(recipe);
+        if (document == null) {
+            return 0;
+        }
+        double score = 0;
+        for (String word : new LinkedHashSet<>(tokenize(query))) {
+            HashMap<Document, Integer> posting = postings.get(word);
+            if (posting != null && posting.containsKey(document)) {
+                score += termScore(posting.size(), posting.get(document), document.length);
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Stops tracking changes to the recipe book.
+     */
+    public void close() {
+        recipeBook.removeListener(this);
+    }
+
+    @Override
+    public void ingredientChanged(IngredientCatalogue catalogue, String ingredientName, int newQuantity) {
+        if (catalogue instanceof Recipe recipe && documents.containsKey(recipe)) {
+            reindexRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void ingredientsCleared(IngredientCatalogue catalogue) {
+        if (catalogue instanceof Recipe recipe && documents.containsKey(recipe)) {
+            reindexRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void recipeAdded(RecipeBook recipeBook, Recipe recipe) {
+        if (recipeBook == this.recipeBook) {
+            addRecipe(recipe, nextOrder++);
+        }
+    }
+
+    @Override
+    public void recipeRemoved(RecipeBook recipeBook, Recipe recipe) {
+        if (recipeBook == this.recipeBook) {
+            removeRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void recipeReplaced(RecipeBook recipeBook, Recipe oldRecipe, Recipe newRecipe) {
+        if (recipeBook != this.recipeBook) {
+            return;
+        }
+        Document oldDocument = removeRecipe(oldRecipe);
+        addRecipe(newRecipe, oldDocument == null ? nextOrder++ : oldDocument.order);
+    }
+
+    private ArrayList<Match> rank(String query, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Scores are accumulated word by word, in query order
+        HashMap<Document, Double> scores = new HashMap<>();
+        for (String word : new LinkedHashSet<>(tokenize(query))) {
+            HashMap<Document, Integer> posting = postings.get(word);
+            if (posting == null) {
+                continue;
+            }
+            for (Map.Entry<Document, Integer> entry : posting.entrySet()) {
+                double score = termScore(posting.size(), entry.getValue(), entry.getKey().length);
+                scores.merge(entry.getKey(), score, Double::sum);
+            }
+        }
+
+        Comparator<Match> bestFirst = Comparator.comparingDouble((Match match) -> -match.score)
+                .thenComparingLong(match -> match.document.order);
+        PriorityQueue<Match> best = new PriorityQueue<>(bestFirst.reversed());
+        for (Map.Entry<Document, Double> entry : scores.entrySet()) {
+            Match match = new Match(entry.getKey(), entry.getValue());
+            if (best.size() == limit && bestFirst.compare(match, best.peek()) >= 0) {
+                continue;
+            }
+            best.add(match);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        ArrayList<Match> ranked = new ArrayList<>(best);
+        ranked.sort(bestFirst);
+        return ranked;
+    }
+
+    private double termScore(int documentFrequency, int termFrequency, int documentLength) {
+        int documentCount = documents.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        double averageLength = (double) totalLength / documentCount;
+        double norm = K1 * (1 - B + B * documentLength / averageLength);
+        return idf * termFrequency * (K1 + 1) / (termFrequency + norm);
+    }
+
+    private void addRecipe(Recipe recipe, long order) {
+        Document document = new Document(recipe, order);
+        documents.put(recipe, document);
+        addTerms(document);
+    }
+
+    private Document removeRecipe(Recipe recipe) {
+        Document document = documents.remove(recipe);
+        if (document == null) {
+            return null;
+        }
+        removeTerms(document);
+        return document;
+    }
+
+    private void reindexRecipe(Recipe recipe) {
+        Document document = documents.get(recipe);
+        removeTerms(document);
+        addTerms(document);
+    }
+
+    private void addTerms(Document document) {
+        HashMap<String, Integer> frequencies = new HashMap<>();
+        for (String word : tokenize(document.recipe.getRecipeName())) {
+            frequencies.merge(word, NAME_WEIGHT, Integer::sum);
+        }
+        CompactRecipe lines = document.recipe.toCompact();
+        for (int i = 0; i < lines.size(); i++) {
+            for (String word : tokenize(lines.getName(i))) {
+                frequencies.merge(word, 1, Integer::sum);
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), word -> new HashMap<>()).put(document, entry.getValue());
+            document.length += entry.getValue();
+        }
+        document.words = frequencies.keySet().toArray(new String[0]);
+        totalLength += document.length;
+    }
+
+    private void removeTerms(Document document) {
+        for (String word : document.words) {
+            HashMap<Document, Integer> posting = postings.get(word);
+            posting.remove(document);
+            if (posting.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+        totalLength -= document.length;
+        document.words = new String[0];
+        document.length = 0;
+    }
+
+    /**
+     * Indexing state of one recipe in the book.
+     */
+    private static class Document {
+        private final Recipe recipe;
+        private final long order;
+        /** Distinct words of the recipe, as posted in the index. */
+        private String[] words = new String[0];
+        /** Weighted number of words. */
+        private int length;
+
+        private Document(Recipe recipe, long order) {
+            this.recipe = recipe;
+            this.order = order;
+        }
+    }
+
+    /**
+     * A scored document.
+     */
+    private static class Match {
+        private final Document document;
+        private final double score;
+
+        private Match(Document document, double score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package model.index;
+
+import model.catalogue.CatalogueListener;
+import model.catalogue.CompactRecipe;
+import model.catalogue.IngredientCatalogue;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Finds recipes with similar ingredients, by the Jaccard similarity of their ingredient sets, without
+ * comparing every pair of recipes.
+ * <p>
+ * Every recipe gets a MinHash signature: for each of {@link #NUM_HASHES} hash functions, the smallest hash
+ * of its ingredient IDs. Two recipes agree on any one position with probability equal to their Jaccard
+ * similarity. The signature is cut into {@link #BANDS} bands of {@link #ROWS} positions, and recipes are
+ * bucketed by each band (locality-sensitive hashing). Recipes sharing a bucket in any band are candidates,
+ * and only candidates have their exact similarity computed: a pair with similarity {@code s} becomes
+ * a candidate with probability {@code 1 - (1 - s^ROWS)^BANDS}, over 93% from 0.5 on and close to 100% from
+ * 0.7 on, while dissimilar pairs rarely do.
+ * </p>
+ * <p>
+ * A change to a recipe only re-hashes that recipe. Recipes without ingredients are not indexed.
+ * </p>
+ */
+public class RecipeSimilarityIndex implements CatalogueListener {
+    /** Number of MinHash functions, i.e. the length of a signature. */
+    public static final int NUM_HASHES = 60;
+    /** Number of LSH bands the signature is cut into. */
+    public static final int BANDS = 20;
+    /** Signature positions per band. */
+    public static final int ROWS = NUM_HASHES / BANDS;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed = mix(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final RecipeBook recipeBook;
+    private final IdentityHashMap<Recipe, Entry> entries = new IdentityHashMap<>();
+    /** Band hash -> recipes whose signature has that band; the band number is part of the hash. */
+    private final HashMap<Long, ArrayList<Entry>> buckets = new HashMap<>();
+    private long nextOrder;
+
+    /**
+     * Builds the index and starts tracking changes to the given recipe book.
+     *
+     * @param recipeBook The recipe book to index.
+     */
+    public RecipeSimilarityIndex(RecipeBook recipeBook) {
+        assert recipeBook != null : "Recipe book must not be null";
+        this.recipeBook = recipeBook;
+        for (Recipe recipe : recipeBook.getItems()) {
+            addRecipe(recipe, nextOrder++);
+        }
+        recipeBook.addListener(this);
+    }
+
+    /**
+     * Returns the Jaccard similarity of the ingredient sets of two recipes: the number of ingredients
+     * they share over the number of distinct ingredients they use.
+     *
+     * @param a The first recipe.
+     * @param b The second recipe.
+     * @return The similarity, from 0 to 1, or 0 if neither recipe has ingredients.
+     */
+    public static double jaccard(Recipe a, Recipe b) {
+        return jaccard(a.toCompact(), b.toCompact());
+    }
+
+    private static double jaccard(CompactRecipe a, CompactRecipe b) {
+        // Compact lines are sorted by ingredient ID, so repeated ingredients are adjacent and counted once
+        int shared = 0;
+        int union = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size() || j < b.size()) {
+            int idA = i < a.size() ? a.getId(i) : Integer.MAX_VALUE;
+            int idB = j < b.size() ? b.getId(j) : Integer.MAX_VALUE;
+            int id = Math.min(idA, idB);
+            if (idA == idB) {
+                shared++;
+            }
+            union++;
+            while (i < a.size() && a.getId(i) == id) {
+                i++;
+            }
+            while (j < b.size() && b.getId(j) == id) {
+                j++;
+            }
+        }
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    /**
+     * Returns the recipes most similar to the given one.
+     *
+     * @param recipe        A recipe in the tracked recipe book.
+     * @param minSimilarity The smallest Jaccard similarity accepted.
+     * @param limit         The maximum number of recipes to return.
+     * @return The similar recipes, most similar first, ties in recipe book order. The recipe itself is left out.
+     */
+    public ArrayList<Match> findSimilar(Recipe recipe, double minSimilarity, int limit) {
+        Entry entry = entries.get(recipe);
+        ArrayList<Match> matches = new ArrayList<>();
+        if (entry == null) {
+            return matches;
+        }
+
+        Set<Entry> candidates = new HashSet<>();
+        for (long bucketKey : entry.bucketKeys) {
+            candidates.addAll(buckets.get(bucketKey));
+        }
+        candidates.remove(entry);
+        for (Entry candidate : candidates) {
+            double similarity = jaccard(entry.lines, candidate.lines);
+            if (similarity >= minSimilarity) {
+                matches.add(new Match(entry, candidate, similarity));
+            }
+        }
+        matches.sort(Match.MOST_SIMILAR_FIRST);
+        return new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())));
+    }
+
+    /**
+     * Returns the pairs of recipes in the book that are near-duplicates of each other.
+     * Only pairs sharing an LSH bucket are compared, rather than every pair in the book.
+     *
+     * @param minSimilarity The smallest Jaccard similarity for two recipes to count as near-duplicates.
+     * @param limit         The maximum number of pairs to return.
+     * @return The pairs, most similar first, then in recipe book order of their first and second recipe.
+     */
+    public ArrayList<Match> findNearDuplicates(double minSimilarity, int limit) {
+        ArrayList<Match> matches = new ArrayList<>();
+        Set<Long> comparedPairs = new HashSet<>();
+        for (ArrayList<Entry> bucket : buckets.values()) {
+            if (bucket.size() < 2) {
+                continue;
+            }
+            Entry[] members = bucket.toArray(new Entry[0]);
+            Arrays.sort(members, Comparator.comparingLong(member -> member.order));
+            for (int i = 0; i < members.length; i++) {
+                for (int j = i + 1; j < members.length; j++) {
+                    // Orders are unique and below 2^32 in practice, so the pair packs into one long
+                    if (!comparedPairs.add(members[i].order << 32 | members[j].order)) {
+                        continue;
+                    }
+                    double similarity = jaccard(members[i].lines, members[j].lines);
+                    if (similarity >= minSimilarity) {
+                        matches.add(new Match(members[i], members[j], similarity));
+                    }
+                }
+            }
+        }
+        matches.sort(Match.MOST_SIMILAR_FIRST);
+        return new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())));
+    }
+
+    /**
+     * Stops tracking changes to the recipe book.
+     */
+    public void close() {
+        recipeBook.removeListener(this);
+    }
+
+    @Override
+    public void ingredientChanged(IngredientCatalogue catalogue, String ingredientName, int newQuantity) {
+        if (catalogue instanceof Recipe recipe && entries.containsKey(recipe)) {
+            reindexRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void ingredientsCleared(IngredientCatalogue catalogue) {
+        if (catalogue instanceof Recipe recipe && entries.containsKey(recipe)) {
+            reindexRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void recipeAdded(RecipeBook recipeBook, Recipe recipe) {
+        if (recipeBook == this.recipeBook) {
+            addRecipe(recipe, nextOrder++);
+        }
+    }
+
+    @Override
+    public void recipeRemoved(RecipeBook recipeBook, Recipe recipe) {
+        if (recipeBook == this.recipeBook) {
+            removeRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void recipeReplaced(RecipeBook recipeBook, Recipe oldRecipe, Recipe newRecipe) {
+        if (recipeBook != this.recipeBook) {
+            return;
+        }
+        Entry oldEntry = removeRecipe(oldRecipe);
+        addRecipe(newRecipe, oldEntry == null ? nextOrder++ : oldEntry.order);
+    }
+
+    /**
+     * Finalizer of the SplitMix64 generator: a cheap, well-distributed 64-bit hash.
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    private void addRecipe(Recipe recipe, long order) {
+        Entry entry = new Entry(recipe, order);
+        entries.put(recipe, entry);
+        addToBuckets(entry);
+    }
+
+    private Entry removeRecipe(Recipe recipe) {
+        Entry entry = entries.remove(recipe);
+        if (entry == null) {
+            return null;
+        }
+        removeFromBuckets(entry);
+        return entry;
+    }
+
+    private void reindexRecipe(Recipe recipe) {
+        Entry entry = entries.get(recipe);
+        removeFromBuckets(entry);
+        addToBuckets(entry);
+    }
+
+    private void addToBuckets(Entry entry) {
+        entry.lines = entry.recipe.toCompact();
+        if (entry.lines.size() == 0) {
+            entry.bucketKeys = new long[0];
+            return;
+        }
+
+        long[] signature = new long[NUM_HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (int i = 0; i < entry.lines.size(); i++) {
+            int id = entry.lines.getId(i);
+            for (int h = 0; h < NUM_HASHES; h++) {
+                signature[h] = Math.min(signature[h], mix(id ^ SEEDS[h]));
+            }
+        }
+
+        entry.bucketKeys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key * 31 + signature[band * ROWS + row]);
+            }
+            entry.bucketKeys[band] = key;
+            // Most buckets hold a single recipe
+            buckets.computeIfAbsent(key, k -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    private void removeFromBuckets(Entry entry) {
+        for (long key : entry.bucketKeys) {
+            ArrayList<Entry> bucket = buckets.get(key);
+            for (int i = 0; i < bucket.size(); i++) {
+                if (bucket.get(i) == entry) {
+                    bucket.remove(i);
+                    break;
+                }
+            }
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+        entry.bucketKeys = new long[0];
+    }
+
+    /**
+     * Indexing state of one recipe in the book.
+     */
+    private static class Entry {
+        private final Recipe recipe;
+        private final long order;
+        /** The ingredient lines hashed, kept to compute exact similarities. */
+        private CompactRecipe lines;
+        /** The bucket of each band, empty if the recipe has no ingredients. */
+        private long[] bucketKeys = new long[0];
+
+        private Entry(Recipe recipe, long order) {
+            this.recipe = recipe;
+            this.order = order;
+        }
+    }
+
+    /**
+     * A pair of recipes and the Jaccard similarity of their ingredient sets.
+     */
+    public static class Match {
+        private static final Comparator<Match> MOST_SIMILAR_FIRST = Comparator
+                .comparingDouble((Match match) -> -match.similarity)
+                .thenComparingLong(match -> match.first.order)
+                .thenComparingLong(match -> match.second.order);
+
+        private final Entry first;
+        private final Entry second;
+        private final double similarity;
+
+        private Match(Entry first, Entry second, double similarity) {
+            this.first = first;
+            this.second = second;
+            this.similarity = similarity;
+        }
+
+        /**
+         * Returns the recipe the match was found for, or the first of a near-duplicate pair in book order.
+         *
+         * @return The first recipe.
+         */
+        public Recipe getFirst() {
+            return first.recipe;
+        }
+
+        /**
+         * Returns the recipe found similar to the first one.
+         *
+         * @return The second recipe.
+         */
+        public Recipe getSecond() {
+            return second.recipe;
+        }
+
+        /**
+         * Returns the Jaccard similarity of the two recipes' ingredient sets.
+         *
+         * @return The similarity, from 0 to 1.
+         */
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package model.index;
+
+import java.util.ArrayList;
+
+/**
+ * An index that finds the items whose (normalized) name contains a given substring.
+ *
+ * @param <T> The type of item indexed.
+ */
+public interface SubstringIndex<T> extends ItemIndex<T> {
+
+    /**
+     * Finds every indexed item whose normalized name contains the given query.
+     *
+     * @param query The normalized (e.g. lower-case) substring to look for.
+     * @return The matching items, in the order they were added.
+     */
+    ArrayList<T> find(String query);
+}
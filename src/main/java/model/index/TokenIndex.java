@@ -0,0 +1,197 @@
+package model.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An incremental inverted index over the space-separated tokens of item names, used to find
+ * items with "similar" names without scanning the whole catalogue.
+ * <p>
+ * Two names are similar if some token of one contains some token of the other (in either direction).
+ * For every query token the index looks up:
+ * <ul>
+ *     <li>tokens that contain the query token, through postings of their 1-, 2- and 3-character substrings</li>
+ *     <li>tokens contained in the query token, by looking up every substring of the query token</li>
+ * </ul>
+ * Results are returned in the order the items were added, which matches their order in the catalogue.
+ * </p>
+ *
+ * @param <T> The type of item indexed.
+ */
+public class TokenIndex<T> implements ItemIndex<T> {
+    private static final int MAX_GRAM_LENGTH = 3;
+
+    private final Function<T, String> keyExtractor;
+    private final IdentityHashMap<T, String[]> tokensByItem = new IdentityHashMap<>();
+    private final IdentityHashMap<T, Long> orderByItem = new IdentityHashMap<>();
+    private final HashMap<String, Set<T>> itemsByToken = new HashMap<>();
+    private final HashMap<String, Set<String>> tokensByGram = new HashMap<>();
+    private long nextOrder;
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param keyExtractor Returns the normalized (e.g. lower-case) name of an item, or {@code null} if it has none.
+     */
+    public TokenIndex(Function<T, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Splits a normalized name into its distinct tokens, the same way the similarity check does.
+     *
+     * @param key A normalized name.
+     * @return The distinct tokens of the name.
+     */
+    public static String[] tokenize(String key) {
+        return new LinkedHashSet<>(Arrays.asList(key.split(" "))).toArray(new String[0]);
+    }
+
+    @Override
+    public void add(T item) {
+        addWithOrder(item, nextOrder++);
+    }
+
+    private void addWithOrder(T item, long order) {
+        String key = keyExtractor.apply(item);
+        String[] tokens = key == null ? new String[0] : tokenize(key);
+        tokensByItem.put(item, tokens);
+        orderByItem.put(item, order);
+
+        for (String token : tokens) {
+            Set<T> items = itemsByToken.get(token);
+            if (items == null) {
+                items = Collections.newSetFromMap(new IdentityHashMap<>());
+                itemsByToken.put(token, items);
+                for (String gram : getGrams(token)) {
+                    tokensByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+                }
+            }
+            items.add(item);
+        }
+    }
+
+    @Override
+    public void remove(T item) {
+        String[] tokens = tokensByItem.remove(item);
+        orderByItem.remove(item);
+        if (tokens == null) {
+            return;
+        }
+
+        for (String token : tokens) {
+            Set<T> items = itemsByToken.get(token);
+            items.remove(item);
+            if (!items.isEmpty()) {
+                continue;
+            }
+            itemsByToken.remove(token);
+            for (String gram : getGrams(token)) {
+                Set<String> gramTokens = tokensByGram.get(gram);
+                gramTokens.remove(token);
+                if (gramTokens.isEmpty()) {
+                    tokensByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void replace(T oldItem, T newItem) {
+        Long order = orderByItem.get(oldItem);
+        remove(oldItem);
+        addWithOrder(newItem, order == null ? nextOrder++ : order);
+    }
+
+    @Override
+    public void clear() {
+        tokensByItem.clear();
+        orderByItem.clear();
+        itemsByToken.clear();
+        tokensByGram.clear();
+    }
+
+    /**
+     * Finds every indexed item whose name has a token that contains, or is contained in,
+     * some token of the given name.
+     *
+     * @param key The normalized name to compare against.
+     * @return The similar items, in the order they were added.
+     */
+    public ArrayList<T> findSimilar(String key) {
+        Set<String> matchingTokens = new HashSet<>();
+        for (String queryToken : key.split(" ")) {
+            addTokensContaining(queryToken, matchingTokens);
+            addTokensContainedIn(queryToken, matchingTokens);
+        }
+
+        Set<T> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String token : matchingTokens) {
+            matches.addAll(itemsByToken.get(token));
+        }
+
+        ArrayList<T> result = new ArrayList<>(matches);
+        result.sort(Comparator.comparingLong(orderByItem::get));
+        return result;
+    }
+
+    private void addTokensContaining(String queryToken, Set<String> result) {
+        if (queryToken.isEmpty()) {
+            result.addAll(itemsByToken.keySet()); // Every token contains the empty string
+            return;
+        }
+        if (queryToken.length() <= MAX_GRAM_LENGTH) {
+            result.addAll(tokensByGram.getOrDefault(queryToken, Collections.emptySet()));
+            return;
+        }
+
+        // Every token containing the query token contains all of its trigrams; start from the rarest
+        Set<String> candidates = null;
+        for (int i = 0; i + MAX_GRAM_LENGTH <= queryToken.length(); i++) {
+            Set<String> posting = tokensByGram.get(queryToken.substring(i, i + MAX_GRAM_LENGTH));
+            if (posting == null) {
+                return;
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+        for (String candidate : candidates) {
+            if (candidate.contains(queryToken)) {
+                result.add(candidate);
+            }
+        }
+    }
+
+    private void addTokensContainedIn(String queryToken, Set<String> result) {
+        if (itemsByToken.containsKey("")) {
+            result.add(""); // The empty token is contained in every query token
+        }
+        for (int start = 0; start < queryToken.length(); start++) {
+            for (int end = start + 1; end <= queryToken.length(); end++) {
+                String substring = queryToken.substring(start, end);
+                if (itemsByToken.containsKey(substring)) {
+                    result.add(substring);
+                }
+            }
+        }
+    }
+
+    private static Set<String> getGrams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= MAX_GRAM_LENGTH; length++) {
+            for (int start = 0; start + length <= token.length(); start++) {
+                grams.add(token.substring(start, start + length));
+            }
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,175 @@
+package model.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A {@link SubstringIndex} backed by trigram postings.
+ * <p>
+ * Every item occupies a slot, numbered in the order items were added. For each trigram (three consecutive
+ * characters) of an item's name, the index keeps the list of slots whose names contain it. A query of three
+ * or more characters only verifies the slots in the shortest posting list of its trigrams, so its cost
+ * grows with the number of candidates rather than with the size of the catalogue. Shorter queries fall
+ * back to a scan of the stored names.
+ * </p>
+ * <p>
+ * Removals leave an empty slot and renames leave stale postings behind; both are filtered out when
+ * verifying candidates. Once a burst of mutations has left more stale entries than live items, the
+ * index is compacted and rebuilt on the next query.
+ * </p>
+ *
+ * @param <T> The type of item indexed.
+ */
+public class TrigramIndex<T> implements SubstringIndex<T> {
+    private static final int GRAM_LENGTH = 3;
+    private static final int MIN_STALE_BEFORE_REBUILD = 64;
+
+    private final Function<T, String> keyExtractor;
+    private final ArrayList<T> slots = new ArrayList<>();
+    private final ArrayList<String> keys = new ArrayList<>();
+    private final IdentityHashMap<T, Integer> slotByItem = new IdentityHashMap<>();
+    private final HashMap<String, Posting> postings = new HashMap<>();
+    private int staleCount;
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param keyExtractor Returns the normalized (e.g. lower-case) name of an item, or {@code null} if it has none.
+     */
+    public TrigramIndex(Function<T, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public void add(T item) {
+        int slot = slots.size();
+        slots.add(item);
+        keys.add(null);
+        fillSlot(slot, item);
+    }
+
+    @Override
+    public void remove(T item) {
+        Integer slot = slotByItem.remove(item);
+        if (slot == null) {
+            return;
+        }
+        slots.set(slot, null);
+        keys.set(slot, null);
+        staleCount++;
+    }
+
+    @Override
+    public void replace(T oldItem, T newItem) {
+        Integer slot = slotByItem.remove(oldItem);
+        if (slot == null) {
+            add(newItem);
+            return;
+        }
+        staleCount++; // The old name's postings still point at this slot
+        fillSlot(slot, newItem);
+    }
+
+    @Override
+    public void clear() {
+        slots.clear();
+        keys.clear();
+        slotByItem.clear();
+        postings.clear();
+        staleCount = 0;
+    }
+
+    @Override
+    public ArrayList<T> find(String query) {
+        if (staleCount > Math.max(MIN_STALE_BEFORE_REBUILD, slotByItem.size())) {
+            rebuild();
+        }
+
+        ArrayList<T> result = new ArrayList<>();
+        if (query.length() < GRAM_LENGTH) {
+            for (int slot = 0; slot < slots.size(); slot++) {
+                addIfMatching(slot, query, result);
+            }
+            return result;
+        }
+
+        Posting candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Posting posting = postings.get(query.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return result;
+            }
+            if (candidates == null || posting.size < candidates.size) {
+                candidates = posting;
+            }
+        }
+
+        // Postings of renamed slots may be out of order or repeated
+        int[] candidateSlots = Arrays.copyOf(candidates.slots, candidates.size);
+        Arrays.sort(candidateSlots);
+        for (int i = 0; i < candidateSlots.length; i++) {
+            if (i == 0 || candidateSlots[i] != candidateSlots[i - 1]) {
+                addIfMatching(candidateSlots[i], query, result);
+            }
+        }
+        return result;
+    }
+
+    private void addIfMatching(int slot, String query, ArrayList<T> result) {
+        String key = keys.get(slot);
+        if (key != null && key.contains(query)) {
+            result.add(slots.get(slot));
+        }
+    }
+
+    private void fillSlot(int slot, T item) {
+        String key = keyExtractor.apply(item);
+        slots.set(slot, item);
+        keys.set(slot, key);
+        slotByItem.put(item, slot);
+        if (key == null) {
+            return;
+        }
+
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+            String gram = key.substring(i, i + GRAM_LENGTH);
+            if (grams.add(gram)) {
+                postings.computeIfAbsent(gram, g -> new Posting()).add(slot);
+            }
+        }
+    }
+
+    private void rebuild() {
+        ArrayList<T> live = new ArrayList<>(slotByItem.size());
+        for (T item : slots) {
+            if (item != null) {
+                live.add(item);
+            }
+        }
+        clear();
+        for (T item : live) {
+            add(item);
+        }
+    }
+
+    /**
+     * A growable list of slot numbers.
+     */
+    private static class Posting {
+        private int[] slots = new int[2];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
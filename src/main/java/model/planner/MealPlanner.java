@@ -0,0 +1,378 @@
+package model.planner;
+
+import model.Ingredient;
+import model.IngredientDictionary;
+import model.catalogue.CompactRecipe;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.index.CookableScan;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Chooses how many times to cook each recipe so that the inventory yields the most value.
+ * <p>
+ * A plan never uses more of an ingredient than the inventory holds. The value of a plan is the sum of the
+ * values of the recipes cooked, e.g. one per recipe (see {@link Goal}) or a weight chosen by the user.
+ * </p>
+ * <p>
+ * Recipes are ranked by value per share of the stock they use. A greedy pass cooks each recipe as many times
+ * as possible in that order, which gives a first plan at once. A branch-and-bound search then tries every
+ * count of the best-ranked recipes, filling in the rest greedily, and prunes branches that cannot beat the
+ * best plan so far. The search stops at the deadline and returns the best plan found, so large recipe books
+ * still get an answer in time.
+ * </p>
+ */
+public final class MealPlanner {
+    /** Number of best-ranked recipes whose counts are searched exhaustively; the rest are filled greedily. */
+    private static final int SEARCH_DEPTH = 32;
+
+    private final ToLongFunction<Recipe> valueFunction;
+
+    /** Ingredient ID -> quantity left, updated as the search cooks and uncooks recipes. */
+    private int[] stock;
+
+    // The recipes that can be planned ("candidates"), best-ranked first, stored as parallel arrays
+    private Recipe[] recipes;
+    private int[] positions;
+    private long[] values;
+    private int[] initialServings;
+    /** The ingredient lines of candidate {@code c} are {@code lineStarts[c]} to {@code lineStarts[c + 1] - 1}. */
+    private int[] lineStarts;
+    /** Ingredient ID of each line, with repeated ingredients of a recipe merged into one line. */
+    private int[] lineIds;
+    /** Total quantity of each line required per serving. */
+    private int[] lineQuantities;
+
+    /** Upper bound on the value obtainable from candidates {@code c} onward with the initial stock. */
+    private long[] suffixBounds;
+    private int searchDepth;
+    private int[] counts;
+    private int[] bestCounts;
+    private long bestValue;
+    private long deadlineNanos;
+    private boolean isTimedOut;
+
+    /**
+     * Constructs a planner maximizing the given value.
+     *
+     * @param valueFunction The value of cooking a recipe once. Recipes with no positive value are never planned.
+     */
+    public MealPlanner(ToLongFunction<Recipe> valueFunction) {
+        this.valueFunction = valueFunction;
+    }
+
+    /**
+     * Constructs a planner for one of the predefined goals.
+     *
+     * @param goal The quantity to maximize.
+     */
+    public MealPlanner(Goal goal) {
+        this(goal.valueFunction);
+    }
+
+    /**
+     * Plans which recipes to cook with the given inventory.
+     *
+     * @param recipes        The recipes to choose from.
+     * @param inventory      The inventory to cook from. It is not modified.
+     * @param deadlineMillis The time allowed for the search, in milliseconds.
+     * @return The best plan found.
+     */
+    public Plan plan(List<Recipe> recipes, Inventory inventory, long deadlineMillis) {
+        deadlineNanos = System.nanoTime() + deadlineMillis * 1_000_000;
+        isTimedOut = false;
+        stock = new int[IngredientDictionary.size()];
+        for (Ingredient ingredient : inventory.getItems()) {
+            stock[ingredient.getId()] = ingredient.getQuantity();
+        }
+        findCandidates(recipes, CookableScan.snapshot(inventory));
+        int candidateCount = this.recipes.length;
+        counts = new int[candidateCount];
+
+        suffixBounds = new long[candidateCount + 1];
+        for (int c = candidateCount - 1; c >= 0; c--) {
+            suffixBounds[c] = saturatedAdd(suffixBounds[c + 1], saturatedMultiply(values[c], initialServings[c]));
+        }
+
+        // Warm start: the greedy plan over every candidate
+        bestValue = cookGreedily(0);
+        bestCounts = counts.clone();
+        uncookFrom(0);
+
+        searchDepth = Math.min(SEARCH_DEPTH, candidateCount);
+        search(0, 0);
+        return toPlan();
+    }
+
+    /**
+     * Collects the recipes worth planning and sorts them by value per share of the stock one serving uses.
+     */
+    private void findCandidates(List<Recipe> recipeList, CookableScan scan) {
+        int maxCount = recipeList.size();
+        Recipe[] foundRecipes = new Recipe[maxCount];
+        int[] foundPositions = new int[maxCount];
+        long[] foundValues = new long[maxCount];
+        int[] foundStarts = new int[maxCount + 1];
+        // Rank as a float in the high half, so that sorting the keys sorts the candidates, and index in the low half
+        long[] keys = new long[maxCount];
+        int[] ids = new int[16];
+        int[] quantities = new int[16];
+        int count = 0;
+        int lineCount = 0;
+
+        for (int position = 0; position < recipeList.size(); position++) {
+            Recipe recipe = recipeList.get(position);
+            long value = valueFunction.applyAsLong(recipe);
+            int servings = value > 0 ? scan.getServings(recipe) : 0;
+            // Recipes requiring nothing could be cooked endlessly, so they are left out
+            if (servings == 0 || servings == Integer.MAX_VALUE) {
+                continue;
+            }
+
+            CompactRecipe lines = recipe.toCompact();
+            if (lineCount + lines.size() > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, lineCount + lines.size()));
+                quantities = Arrays.copyOf(quantities, ids.length);
+            }
+            int start = lineCount;
+            double share = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                int quantity = lines.getQuantity(i);
+                if (quantity <= 0) {
+                    continue;
+                }
+                // Lines are sorted by ID, so repeated ingredients are adjacent
+                if (lineCount > start && ids[lineCount - 1] == lines.getId(i)) {
+                    quantities[lineCount - 1] += quantity;
+                } else {
+                    ids[lineCount] = lines.getId(i);
+                    quantities[lineCount++] = quantity;
+                }
+                share += (double) quantity / stock[lines.getId(i)];
+            }
+
+            // Positive floats compare like their bits; ties go to the earlier recipe
+            float rank = (float) (value / share);
+            keys[count] = (long) Float.floatToIntBits(rank) << 32 | (Integer.MAX_VALUE - count);
+            foundRecipes[count] = recipe;
+            foundPositions[count] = position;
+            foundValues[count] = value;
+            foundStarts[count++] = start;
+        }
+        foundStarts[count] = lineCount;
+        Arrays.sort(keys, 0, count);
+
+        recipes = new Recipe[count];
+        positions = new int[count];
+        values = new long[count];
+        initialServings = new int[count];
+        lineStarts = new int[count + 1];
+        lineIds = new int[lineCount];
+        lineQuantities = new int[lineCount];
+        int line = 0;
+        for (int c = 0; c < count; c++) {
+            int index = Integer.MAX_VALUE - (int) keys[count - 1 - c];
+            recipes[c] = foundRecipes[index];
+            positions[c] = foundPositions[index];
+            values[c] = foundValues[index];
+            lineStarts[c] = line;
+            for (int i = foundStarts[index]; i < foundStarts[index + 1]; i++) {
+                lineIds[line] = ids[i];
+                lineQuantities[line++] = quantities[i];
+            }
+            lineStarts[c + 1] = line;
+            initialServings[c] = getServings(c);
+        }
+    }
+
+    /**
+     * Tries every count of the candidate at {@code depth}, most first, and recurses.
+     */
+    private void search(int depth, long value) {
+        if (isPastDeadline()) {
+            return;
+        }
+        if (depth == searchDepth) {
+            long total = value + cookGreedily(depth);
+            if (total > bestValue) {
+                bestValue = total;
+                bestCounts = counts.clone();
+            }
+            uncookFrom(depth);
+            return;
+        }
+
+        for (int times = getServings(depth); times >= 0 && !isTimedOut; times--) {
+            long cookedValue = saturatedAdd(value, saturatedMultiply(times, values[depth]));
+            // Cooking fewer times only lowers this bound, so no smaller count can do better either
+            if (saturatedAdd(cookedValue, suffixBounds[depth + 1]) <= bestValue) {
+                break;
+            }
+            cook(depth, times);
+            counts[depth] = times;
+            if (saturatedAdd(cookedValue, boundFrom(depth + 1)) > bestValue) {
+                search(depth + 1, cookedValue);
+            }
+            cook(depth, -times);
+            counts[depth] = 0;
+        }
+    }
+
+    /**
+     * Returns an upper bound on the value obtainable from candidates {@code from} onward with the current stock:
+     * each searched candidate cooked as often as it could be on its own, plus the bound for the rest.
+     */
+    private long boundFrom(int from) {
+        long bound = suffixBounds[Math.max(from, searchDepth)];
+        for (int c = from; c < searchDepth; c++) {
+            bound = saturatedAdd(bound, saturatedMultiply(values[c], getServings(c)));
+        }
+        return bound;
+    }
+
+    /**
+     * Cooks each candidate from {@code from} onward as many times as the stock allows, in rank order.
+     *
+     * @return The value added.
+     */
+    private long cookGreedily(int from) {
+        long value = 0;
+        for (int c = from; c < recipes.length; c++) {
+            int times = getServings(c);
+            if (times > 0) {
+                cook(c, times);
+                counts[c] = times;
+                value = saturatedAdd(value, saturatedMultiply(values[c], times));
+            }
+        }
+        return value;
+    }
+
+    private void uncookFrom(int from) {
+        for (int c = from; c < recipes.length; c++) {
+            if (counts[c] > 0) {
+                cook(c, -counts[c]);
+                counts[c] = 0;
+            }
+        }
+    }
+
+    private int getServings(int candidate) {
+        int servings = Integer.MAX_VALUE;
+        for (int line = lineStarts[candidate]; line < lineStarts[candidate + 1]; line++) {
+            servings = Math.min(servings, stock[lineIds[line]] / lineQuantities[line]);
+        }
+        return servings;
+    }
+
+    private void cook(int candidate, int times) {
+        for (int line = lineStarts[candidate]; line < lineStarts[candidate + 1]; line++) {
+            stock[lineIds[line]] -= lineQuantities[line] * times;
+        }
+    }
+
+    private boolean isPastDeadline() {
+        isTimedOut = isTimedOut || System.nanoTime() - deadlineNanos >= 0;
+        return isTimedOut;
+    }
+
+    private Plan toPlan() {
+        // List the recipes in the order they were given
+        long[] byPosition = new long[recipes.length];
+        for (int c = 0; c < recipes.length; c++) {
+            byPosition[c] = (long) positions[c] << 32 | c;
+        }
+        Arrays.sort(byPosition);
+
+        LinkedHashMap<Recipe, Integer> servings = new LinkedHashMap<>();
+        for (long key : byPosition) {
+            int c = (int) key;
+            if (bestCounts[c] > 0) {
+                servings.put(recipes[c], bestCounts[c]);
+            }
+        }
+        // The counts of the candidates beyond the search depth are only chosen greedily
+        boolean isOptimal = !isTimedOut && recipes.length <= SEARCH_DEPTH;
+        return new Plan(servings, bestValue, isOptimal);
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long product = a * b;
+        return high != 0 || product < 0 ? Long.MAX_VALUE : product;
+    }
+
+    /**
+     * Predefined quantities a plan can maximize.
+     */
+    public enum Goal {
+        /** The number of recipes cooked. */
+        RECIPES(recipe -> 1),
+        /** The number of ingredient units used up. */
+        UNITS(recipe -> {
+            CompactRecipe lines = recipe.toCompact();
+            long units = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                units += lines.getQuantity(i);
+            }
+            return units;
+        });
+
+        private final ToLongFunction<Recipe> valueFunction;
+
+        Goal(ToLongFunction<Recipe> valueFunction) {
+            this.valueFunction = valueFunction;
+        }
+    }
+
+    /**
+     * The outcome of planning: how many times to cook each recipe.
+     */
+    public static final class Plan {
+        private final LinkedHashMap<Recipe, Integer> servings;
+        private final long value;
+        private final boolean isOptimal;
+
+        private Plan(LinkedHashMap<Recipe, Integer> servings, long value, boolean isOptimal) {
+            this.servings = servings;
+            this.value = value;
+            this.isOptimal = isOptimal;
+        }
+
+        /**
+         * Returns how many times to cook each recipe in the plan.
+         *
+         * @return The recipes to cook, in the order they were given, with their number of servings.
+         */
+        public LinkedHashMap<Recipe, Integer> getServings() {
+            return servings;
+        }
+
+        /**
+         * Returns the total value of the plan.
+         *
+         * @return The value being maximized.
+         */
+        public long getValue() {
+            return value;
+        }
+
+        /**
+         * Returns whether the search covered every plan before the deadline, proving that none is better.
+         *
+         * @return True if the plan is optimal.
+         */
+        public boolean isOptimal() {
+            return isOptimal;
+        }
+    }
+}
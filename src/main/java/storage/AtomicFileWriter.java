@@ -0,0 +1,119 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces the content of a file so that a crash never leaves it half-written.
+ * <p>
+ * The new content is written to a sibling temporary file, flushed to disk as the {@link Durability} asks,
+ * and then moved over the original in one atomic rename: readers, and the next start after a crash, see
+ * either the whole old file or the whole new one. On file systems that cannot rename atomically, the move
+ * falls back to a plain replace, which is not crash-safe.
+ * </p>
+ */
+final class AtomicFileWriter {
+    /** Size of the direct buffer content is written through. */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private AtomicFileWriter() {
+    }
+
+    /**
+     * Returns the temporary file the new content of a file is written to before it replaces the file.
+     *
+     * @param filePath the file to replace
+     * @return the sibling temporary file, e.g. {@code inventory.txt.tmp}
+     */
+    static Path getTempPath(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + ".tmp");
+    }
+
+    /**
+     * Atomically replaces the content of a file, creating it if it does not exist.
+     *
+     * @param filePath   the file to replace
+     * @param content    the full new content
+     * @param durability what must be flushed to disk before returning
+     * @throws IOException if the content cannot be written or moved into place; the file is then unchanged
+     */
+    static void write(Path filePath, byte[] content, Durability durability) throws IOException {
+        Path tempPath = getTempPath(filePath);
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, content);
+                if (durability != Durability.NONE) {
+                    channel.force(true);
+                }
+            }
+            moveIntoPlace(tempPath, filePath);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        if (durability == Durability.FULL) {
+            forceDirectory(filePath.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Renames the temporary file over the target. File systems that cannot rename atomically get a plain
+     * replacing move instead: a crash during it may lose the file, but saving still works there.
+     */
+    private static void moveIntoPlace(Path tempPath, Path filePath) throws IOException {
+        try {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            System.err.println("Atomic rename not supported, replacing " + filePath + " non-atomically");
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the content through one small direct buffer. Writing a large heap buffer directly would make the
+     * channel copy all of it into a temporary direct buffer of the same size.
+     */
+    private static void writeFully(FileChannel channel, byte[] content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.min(BUFFER_SIZE, Math.max(content.length, 1)));
+        int offset = 0;
+        while (offset < content.length) {
+            int length = Math.min(buffer.capacity(), content.length - offset);
+            buffer.clear();
+            buffer.put(content, offset, length);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            offset += length;
+        }
+    }
+
+    /**
+     * Flushes a directory, making the renames in it durable. Skipped where directories cannot be opened.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException | UnsupportedOperationException e) {
+            return; // Windows cannot open directories, so the rename is left to the file system
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package storage;
+
+import model.Ingredient;
+import model.IngredientDictionary;
+import model.catalogue.Catalogue;
+import model.catalogue.CompactRecipe;
+import model.catalogue.IngredientCatalogue;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Encodes and decodes catalogues in the binary storage format.
+ * <p>
+ * A file starts with {@link #MAGIC}, a version byte and a byte telling an inventory from a recipe book.
+ * Then comes the string table: every distinct ingredient spelling once, in order of first use. Ingredient
+ * lines refer to a spelling by its index in the table, so a name used by thousands of recipes is stored once.
+ * Inventory names are all distinct, so an inventory's table simply lists its ingredients in order.
+ * All numbers are unsigned LEB128 varints, so small counts, indexes and quantities take a single byte, and
+ * strings are a varint byte length followed by UTF-8.
+ * </p>
+ * <pre>
+ * file        = MAGIC version kind stringCount string* body
+ * inventory   = count quantity*                                 (the i-th quantity is that of the i-th string)
+ * recipe book = count (recipeName lineCount (nameIndex quantity)*)*
+ * </pre>
+ * <p>
+ * A file holds exactly the ingredients, recipes, spellings and line order of the text format, so converting
+ * between the two in either direction loses nothing.
+ * </p>
+ */
+final class BinaryCatalogueFormat {
+    /** First bytes of every binary file. {@code 0x89} never starts a UTF-8 text file. */
+    static final byte[] MAGIC = {(byte) 0x89, 'K', 'C', 'B'};
+    /** Version written, and the newest version read. */
+    static final int VERSION = 1;
+
+    private static final byte INVENTORY = 'I';
+    private static final byte RECIPE_BOOK = 'R';
+
+    private BinaryCatalogueFormat() {
+    }
+
+    /**
+     * Returns whether the given first bytes of a file are the binary header.
+     *
+     * @param header the first bytes of the file, possibly fewer than the magic
+     * @return true if the file is in the binary format
+     */
+    static boolean hasMagic(byte[] header) {
+        return Arrays.equals(header, MAGIC);
+    }
+
+    /**
+     * Encodes an inventory or recipe book into the full content of a binary file.
+     *
+     * @param catalogue the catalogue to encode
+     * @return the file content
+     * @throws IllegalArgumentException if the catalogue is neither an inventory nor a recipe book
+     */
+    static byte[] encode(Catalogue<?> catalogue) {
+        StringTable names = new StringTable();
+        ByteWriter body = new ByteWriter();
+        byte kind;
+        if (catalogue instanceof RecipeBook recipeBook) {
+            kind = RECIPE_BOOK;
+            body.writeVarint(recipeBook.getItems().size());
+            for (Recipe recipe : recipeBook.getItems()) {
+                body.writeString(recipe.getRecipeName());
+                CompactRecipe lines = recipe.toCompact();
+                body.writeVarint(lines.size());
+                for (int line = 0; line < lines.size(); line++) {
+                    int position = lines.getPosition(line);
+                    body.writeVarint(names.indexOf(lines.getName(position)));
+                    body.writeVarint(lines.getQuantity(position));
+                }
+            }
+        } else if (catalogue instanceof IngredientCatalogue ingredientCatalogue) {
+            kind = INVENTORY;
+            ArrayList<Ingredient> ingredients = ingredientCatalogue.getItems();
+            body.writeVarint(ingredients.size());
+            for (Ingredient ingredient : ingredients) {
+                // Inventory names are distinct, so the table holds them in order and needs no indexes
+                names.spellings.add(ingredient.getIngredientName());
+                body.writeVarint(ingredient.getQuantity());
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot store catalogue of type " + catalogue.getType());
+        }
+
+        ByteWriter file = new ByteWriter();
+        file.writeBytes(MAGIC, MAGIC.length);
+        file.writeByte(VERSION);
+        file.writeByte(kind);
+        file.writeVarint(names.spellings.size());
+        for (String spelling : names.spellings) {
+            file.writeString(spelling);
+        }
+        file.writeBytes(body.bytes, body.size);
+        return Arrays.copyOf(file.bytes, file.size);
+    }
+
+    /**
+     * Decodes the ingredients of a binary inventory file.
+     *
+     * @param data        the file content
+     * @param ingredients the list to add the ingredients to, in file order
+     * @throws IOException if the data is not a valid binary inventory file
+     */
+    static void readIngredients(byte[] data, ArrayList<Ingredient> ingredients) throws IOException {
+        ByteReader reader = new ByteReader(data);
+        String[] names = reader.readHeader(INVENTORY);
+        try {
+            int count = reader.readCount();
+            if (count != names.length) {
+                throw new IOException("Corrupt binary catalogue file: " + count + " quantities for "
+                        + names.length + " names");
+            }
+            for (String name : names) {
+                ingredients.add(new Ingredient(name, reader.readVarint()));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt binary catalogue file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes the recipes of a binary recipe book file.
+     *
+     * @param data    the file content
+     * @param recipes the list to add the recipes to, in file order
+     * @throws IOException if the data is not a valid binary recipe book file
+     */
+    static void readRecipes(byte[] data, ArrayList<Recipe> recipes) throws IOException {
+        ByteReader reader = new ByteReader(data);
+        String[] names = reader.readHeader(RECIPE_BOOK);
+        try {
+            // The table lists spellings in order of first use, so looking each up once here assigns
+            // dictionary IDs in the same order as reading the lines one by one
+            Ingredient[] ingredientsByName = new Ingredient[names.length];
+            for (int i = 0; i < names.length; i++) {
+                ingredientsByName[i] = new Ingredient(names[i], 1);
+            }
+            int count = reader.readCount();
+            for (int r = 0; r < count; r++) {
+                String recipeName = reader.readString();
+                int lineCount = reader.readCount();
+                ArrayList<Ingredient> ingredients = new ArrayList<>(lineCount);
+                for (int i = 0; i < lineCount; i++) {
+                    ingredients.add(reader.readIngredient(ingredientsByName).withQuantity(reader.readVarint()));
+                }
+                recipes.add(new Recipe(recipeName, ingredients));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt binary catalogue file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Assigns table indexes to spellings in order of first use.
+     */
+    private static class StringTable {
+        private final HashMap<String, Integer> indexes = new HashMap<>();
+        private final ArrayList<String> spellings = new ArrayList<>();
+
+        private int indexOf(String spelling) {
+            Integer index = indexes.get(spelling);
+            if (index == null) {
+                index = spellings.size();
+                indexes.put(spelling, index);
+                spellings.add(spelling);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * A growable byte array written front to back.
+     */
+    private static class ByteWriter {
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeVarint(int value) {
+            assert value >= 0 : "Varints are unsigned";
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeString(String value) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(encoded.length);
+            writeBytes(encoded, encoded.length);
+        }
+
+        private void writeBytes(byte[] source, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, 0, bytes, size, length);
+            size += length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Reads a binary file front to back, failing on truncated or malformed data.
+     */
+    private static class ByteReader {
+        private final byte[] data;
+        private int position;
+
+        private ByteReader(byte[] data) {
+            this.data = data;
+        }
+
+        /**
+         * Checks the header and reads the string table.
+         *
+         * @return the spellings of the table, interned
+         */
+        private String[] readHeader(byte expectedKind) throws IOException {
+            if (data.length < MAGIC.length + 2 || !hasMagic(Arrays.copyOf(data, MAGIC.length))) {
+                throw new IOException("Not a binary catalogue file");
+            }
+            position = MAGIC.length;
+            int version = data[position++];
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported binary catalogue version " + version);
+            }
+            if (data[position++] != expectedKind) {
+                throw new IOException(expectedKind == INVENTORY
+                        ? "Not a binary inventory file" : "Not a binary recipe book file");
+            }
+
+            String[] names = new String[readCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = IngredientDictionary.intern(readString());
+            }
+            return names;
+        }
+
+        private int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= data.length) {
+                    throw new IOException("Truncated binary catalogue file");
+                }
+                byte b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt binary catalogue file: varint too long");
+        }
+
+        /** Reads a count of items that follow, each taking at least one byte. */
+        private int readCount() throws IOException {
+            int count = readVarint();
+            if (count < 0 || count > data.length - position) {
+                throw new IOException("Corrupt binary catalogue file: count " + count + " past the end");
+            }
+            return count;
+        }
+
+        private Ingredient readIngredient(Ingredient[] ingredientsByName) throws IOException {
+            int index = readVarint();
+            if (index < 0 || index >= ingredientsByName.length) {
+                throw new IOException("Corrupt binary catalogue file: no string " + index);
+            }
+            return ingredientsByName[index];
+        }
+
+        private String readString() throws IOException {
+            int length = readCount();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
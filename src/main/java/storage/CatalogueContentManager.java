@@ -4,24 +4,24 @@ import model.Ingredient;
 
 import model.catalogue.Catalogue;
 
+import model.catalogue.CompactInventory;
 import model.catalogue.Inventory;
 import model.catalogue.Recipe;
 import model.catalogue.RecipeBook;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static ui.inputparser.Parser.parseName;
-import static ui.inputparser.Parser.parseQuantity;
 
 //@@author J030104
 /**
@@ -29,9 +29,16 @@ import static ui.inputparser.Parser.parseQuantity;
  * such as {@link Inventory} and {@link RecipeBook}.
  * <p>
  * This class manages file paths, checks directory/file existence, and provides methods
- * for serializing/deserializing data from/to plain text files.
+ * for serializing/deserializing data from/to plain text files, or files in the binary
+ * {@link StorageFormat}. The format of each file is detected when it is loaded.
  */
 public class CatalogueContentManager {
+    /** Size in bytes of a recipe book file from which it is read in parallel chunks. */
+    public static final long PARALLEL_LOAD_THRESHOLD = 32L << 20;
+
+    /** Chunks per worker, so that a worker finishing early can take another. */
+    private static final int CHUNKS_PER_WORKER = 4;
+
     private final String directoryName = "data";
     private final String inventoryFileName = "inventory.txt";
     private final String recipeBookFileName = "recipe_book.txt";
@@ -40,6 +47,21 @@ public class CatalogueContentManager {
     private Path inventoryFilePath = basePath.resolve(inventoryFileName);
     private Path recipeBookFilePath = basePath.resolve(recipeBookFileName);
 
+    private CatalogueJournal inventoryJournal;
+    private CatalogueJournal recipeBookJournal;
+    private int inventoryJournalRecords;
+    private int recipeBookJournalRecords;
+    private boolean isCompactInventory = Boolean.getBoolean("kitchenctrl.compactInventory");
+    /** Format each file is saved in: the format it was loaded in, or the configured one for new files. */
+    private StorageFormat inventoryFormat = getDefaultFormat();
+    private StorageFormat recipeBookFormat = getDefaultFormat();
+    /** How far saves flush the data files to disk. */
+    private Durability durability = getDefaultDurability();
+    /** What the inventory file last held when it matched a catalogue exactly, or {@code null} if unknown. */
+    private SavedState inventorySaved;
+    /** What the recipe book file last held when it matched a catalogue exactly, or {@code null} if unknown. */
+    private SavedState recipeBookSaved;
+
     public CatalogueContentManager() {
 
     }
@@ -56,41 +78,59 @@ public class CatalogueContentManager {
 
         assert inventoryFilePath.toFile().exists();
 
-        return loadConsumablesCatalogue(inventoryFilePath, Inventory::new);
+        inventoryFormat = detectFormat(inventoryFilePath, inventoryFormat);
+        Inventory inventory = isCompactInventory
+                ? loadConsumablesCatalogue(inventoryFilePath, CompactInventory::new)
+                : loadConsumablesCatalogue(inventoryFilePath, Inventory::new);
+        inventoryJournalRecords = replayJournals(inventoryFilePath, inventory);
+        inventorySaved = inventoryJournalRecords == 0
+                ? SavedState.of(inventory, inventoryFilePath, inventoryFormat) : null;
+        return inventory;
     }
 
     /**
      * Loads a consumable-type catalogue (like inventory list) from a specified file.
+     * In a text file, each line holds an ingredient in {@code name (quantity)} format; invalid entries are
+     * skipped. Binary files are detected and decoded.
      *
      * @param filePath  the path to the file containing the catalogue data
      * @param catalogue a supplier for the catalogue type (e.g., {@code Inventory::new})
      * @param <T>       the type of catalogue extending {@link Inventory}
-     * @return the populated catalogue
+     * @return the populated catalogue, empty if the file could not be read
      */
     public <T extends Inventory> T loadConsumablesCatalogue(Path filePath, Supplier<T> catalogue) {
-        List<String> lines = loadRawCatalogueContent(filePath);
         T ingredientCatalogue = catalogue.get();
-
-        if (lines == null || lines.isEmpty()) {
+        ArrayList<Ingredient> ingredients;
+        try {
+            ingredients = readIngredients(filePath);
+        } catch (IOException e) {
+            System.err.println("Error loading file: " + e.getMessage());
             return ingredientCatalogue;
         }
 
-        for (String line : lines) {
-            String[] parts = line.split("\\s*\\(\\s*|\\s*\\)\\s*");
-            if (parts.length == 2) {
-                try {
-                    String itemName = parseName(parts[0].trim());
-                    int quantity = parseQuantity(parts[1].trim());
-                    if (quantity > 0) {
-                        Ingredient i = new Ingredient(itemName, quantity);
-                        ingredientCatalogue.addItem(i, true);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Skipping invalid entry: " + line);
-                }
+        // Persisted data is trusted, so skip the similar-name checks of addItem
+        ingredientCatalogue.addAllItems(ingredients);
+        return ingredientCatalogue;
+    }
+
+    /**
+     * Reads the ingredients of an inventory file in either storage format.
+     *
+     * @return the ingredients in file order, none if the path is null or the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    private ArrayList<Ingredient> readIngredients(Path filePath) throws IOException {
+        ArrayList<Ingredient> ingredients = new ArrayList<>();
+        try (CatalogueFileReader reader = openCatalogueFile(filePath)) {
+            if (reader == null) {
+                return ingredients;
+            } else if (StorageFormat.detect(filePath) == StorageFormat.BINARY) {
+                BinaryCatalogueFormat.readIngredients(Files.readAllBytes(filePath), ingredients);
+            } else {
+                reader.readIngredients(ingredients);
             }
         }
-        return ingredientCatalogue;
+        return ingredients;
     }
 
     /**
@@ -105,112 +145,365 @@ public class CatalogueContentManager {
 
         assert recipeBookFilePath.toFile().exists();
 
-        List<String> lines = loadRawCatalogueContent(recipeBookFilePath);
-        RecipeBook storageRecipe = new RecipeBook();
+        recipeBookFormat = detectFormat(recipeBookFilePath, recipeBookFormat);
+        RecipeBook recipeBook = parseRecipeBook(recipeBookFilePath);
+        recipeBookJournalRecords = replayJournals(recipeBookFilePath, recipeBook);
+        recipeBookSaved = recipeBookJournalRecords == 0
+                ? SavedState.of(recipeBook, recipeBookFilePath, recipeBookFormat) : null;
+        return recipeBook;
+    }
 
-        if (lines == null || lines.isEmpty()) {
+    /**
+     * Parses a recipe book file, in parallel chunks on the common pool once it is large enough
+     * (see {@link #PARALLEL_LOAD_THRESHOLD}).
+     *
+     * @param filePath the path to the recipe book file
+     * @return the parsed {@link RecipeBook}, empty if the file could not be read
+     */
+    private RecipeBook parseRecipeBook(Path filePath) {
+        return parseRecipeBook(filePath, ForkJoinPool.commonPool(), PARALLEL_LOAD_THRESHOLD);
+    }
+
+    /**
+     * Parses a recipe book file. Recipes are separated by blank lines; the first line of each recipe
+     * is its name and every following line is an ingredient in {@code name (quantity)} format.
+     * Binary files are detected and decoded on the calling thread.
+     * <p>
+     * A large text file is split at blank lines into chunks that are read in parallel, then merged in file order.
+     * The result, the messages printed and the exception thrown for an invalid ingredient are the same as
+     * when reading the file in one go.
+     * </p>
+     *
+     * @param filePath          the path to the recipe book file
+     * @param pool              the pool to read chunks on
+     * @param parallelThreshold the file size in bytes below which the file is read on the calling thread
+     * @return the parsed {@link RecipeBook}, empty if the file could not be read
+     * @throws IllegalArgumentException if an ingredient line has an invalid name or quantity
+     */
+    public RecipeBook parseRecipeBook(Path filePath, ForkJoinPool pool, long parallelThreshold) {
+        RecipeBook storageRecipe = new RecipeBook();
+        ArrayList<Recipe> recipes;
+        try {
+            recipes = readRecipes(filePath, pool, parallelThreshold);
+        } catch (IOException e) {
+            System.err.println("Error loading file: " + e.getMessage());
             return storageRecipe;
         }
 
-        String currentRecipeName = null;
-        ArrayList<Ingredient> currentIngredients = new ArrayList<Ingredient>();
-
-        for (String line : lines) {
-            line = line.trim();  // Remove leading and trailing whitespaces
-
-            if (line.isEmpty()) {
-                // Blank line: End of a recipe, so add the current recipe to storage
-                if (currentRecipeName != null) {
-                    storageRecipe.addItem(new Recipe(currentRecipeName, currentIngredients), true);
-                    currentRecipeName = null;
-                    currentIngredients = new ArrayList<>();
-                }
-            } else if (currentRecipeName == null) {
-                // First non-empty line: Recipe name
-                currentRecipeName = line;
-            } else {
-                // Ingredient line: Inline parsing
-                String regex = "^(.+?)\\s*\\((\\d+)\\)$";// Match ingredient (quantity) format
-                Pattern pattern = Pattern.compile(regex);
-                Matcher matcher = pattern.matcher(line);
-
-                if (matcher.matches()) {
-                    String ingredientName = parseName(matcher.group(1));  // Ingredient name
-                    int quantity = parseQuantity(matcher.group(2));  // Ingredient quantity
-                    if (quantity > 0) {
-                        currentIngredients.add(new Ingredient(ingredientName, quantity));
-                    }
-                } else {
-                    // Handle invalid format if necessary
-                    System.out.println("Invalid ingredient format: " + line);
-                }
+        // Persisted data is trusted, so skip the similar-name checks of addItem
+        storageRecipe.addAllItems(recipes);
+        return storageRecipe;
+    }
+
+    /**
+     * Reads the recipes of a recipe book file in either storage format. Text files large enough are read
+     * in parallel chunks, as described in {@link #parseRecipeBook(Path, ForkJoinPool, long)}.
+     *
+     * @return the recipes in file order, none if the path is null or the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    private ArrayList<Recipe> readRecipes(Path filePath, ForkJoinPool pool, long parallelThreshold)
+            throws IOException {
+        ArrayList<Recipe> recipes = new ArrayList<>();
+        if (filePath != null && Files.exists(filePath) && StorageFormat.detect(filePath) == StorageFormat.BINARY) {
+            BinaryCatalogueFormat.readRecipes(Files.readAllBytes(filePath), recipes);
+            return recipes;
+        }
+
+        List<RecipeChunk> chunks = readRecipeChunks(filePath, pool, parallelThreshold);
+        for (RecipeChunk chunk : chunks) {
+            chunk.merge();
+            if (chunk.getFailure() instanceof IOException e) {
+                throw e;
+            } else if (chunk.getFailure() != null) {
+                throw (IllegalArgumentException) chunk.getFailure();
             }
         }
 
-        // Add the last recipe if the file doesn't end with a blank line
-        if (currentRecipeName != null) {
-            storageRecipe.addItem(new Recipe(currentRecipeName, currentIngredients), true);
+        if (chunks.size() == 1) {
+            recipes.addAll(chunks.get(0).toRecipes());
+        } else {
+            List<ForkJoinTask<ArrayList<Recipe>>> tasks = new ArrayList<>();
+            for (RecipeChunk chunk : chunks) {
+                tasks.add(pool.submit(chunk::toRecipes));
+            }
+            for (ForkJoinTask<ArrayList<Recipe>> task : tasks) {
+                recipes.addAll(task.join());
+            }
         }
+        return recipes;
+    }
 
-        return storageRecipe;
+    /**
+     * Reads a recipe book file into chunks, in parallel if the file is large enough and the pool has
+     * more than one worker.
+     *
+     * @return the chunks in file order, none if the path is null or the file does not exist
+     * @throws IOException if the file cannot be opened
+     */
+    private List<RecipeChunk> readRecipeChunks(Path filePath, ForkJoinPool pool, long parallelThreshold)
+            throws IOException {
+        long[] bounds;
+        try (CatalogueFileReader reader = openCatalogueFile(filePath)) {
+            if (reader == null) {
+                return List.of();
+            }
+            long fileSize = Files.size(filePath);
+            bounds = fileSize < parallelThreshold || pool.getParallelism() == 1
+                    ? new long[] {0, fileSize}
+                    : reader.splitAtBlankLines(pool.getParallelism() * CHUNKS_PER_WORKER);
+        }
+
+        if (bounds.length == 2) {
+            return List.of(readRecipeChunk(filePath, bounds[0], bounds[1]));
+        }
+        List<ForkJoinTask<RecipeChunk>> tasks = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            long start = bounds[i];
+            long end = bounds[i + 1];
+            tasks.add(pool.submit(() -> readRecipeChunk(filePath, start, end)));
+        }
+        List<RecipeChunk> chunks = new ArrayList<>();
+        for (ForkJoinTask<RecipeChunk> task : tasks) {
+            chunks.add(task.join());
+        }
+        return chunks;
+    }
+
+    /**
+     * Reads the recipes between two blank-line boundaries of a recipe book file. A failure is kept in the
+     * chunk, to be reported when the chunk is merged.
+     */
+    private static RecipeChunk readRecipeChunk(Path filePath, long start, long end) {
+        RecipeChunk chunk = new RecipeChunk();
+        try (CatalogueFileReader reader = new CatalogueFileReader(filePath, start, end)) {
+            reader.readRecipes(chunk);
+        } catch (IOException | IllegalArgumentException e) {
+            chunk.fail(e);
+        }
+        return chunk;
+    }
+
+    /**
+     * Replays the mutations recorded since the data file was last written.
+     * A journal left behind by an unfinished checkpoint is replayed before the active one.
+     *
+     * @param filePath  the data file the catalogue was loaded from
+     * @param catalogue the freshly loaded catalogue
+     * @return the number of records replayed
+     */
+    private int replayJournals(Path filePath, Catalogue<?> catalogue) {
+        try {
+            return CatalogueJournal.replay(CatalogueJournal.getRotatedJournalPath(filePath), catalogue)
+                    + CatalogueJournal.replay(CatalogueJournal.getJournalPath(filePath), catalogue);
+        } catch (IOException e) {
+            System.err.println("Error replaying journal: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Starts journaling every mutation of the given catalogues, so that changes are persisted
+     * as they happen instead of only when the program exits.
+     * The catalogues should be the ones returned by {@link #loadInventory()} and {@link #loadRecipeBook()}.
+     *
+     * @param inventory  the inventory to journal
+     * @param recipeBook the recipe book to journal
+     * @throws IOException if a journal file cannot be opened
+     */
+    public void openJournals(Inventory inventory, RecipeBook recipeBook) throws IOException {
+        closeJournals();
+        checkDirectoryExistence();
+        inventoryJournal = new CatalogueJournal(inventoryFilePath, inventory, inventoryJournalRecords,
+                inventoryFormat);
+        recipeBookJournal = new CatalogueJournal(recipeBookFilePath, recipeBook, recipeBookJournalRecords,
+                recipeBookFormat);
+        inventoryJournal.setDurability(durability);
+        recipeBookJournal.setDurability(durability);
+    }
+
+    /**
+     * Flushes the mutations recorded since the last commit to disk.
+     * Called once per command, so that all changes made by a command share a single disk flush.
+     */
+    public void commitJournals() {
+        if (inventoryJournal != null) {
+            inventoryJournal.commit();
+        }
+        if (recipeBookJournal != null) {
+            recipeBookJournal.commit();
+        }
+    }
+
+    /**
+     * Flushes and closes any open journals.
+     */
+    public void closeJournals() {
+        if (inventoryJournal != null) {
+            inventoryJournal.close();
+            inventoryJournal = null;
+        }
+        if (recipeBookJournal != null) {
+            recipeBookJournal.close();
+            recipeBookJournal = null;
+        }
     }
 
     /**
-     * Reads raw lines from a catalogue file.
+     * Opens a catalogue file for streaming reading.
      *
      * @param filePath the path to the file
-     * @return a list of strings read from the file, or {@code null} if reading fails
+     * @return a reader positioned at the start of the file, or {@code null} if the path is null or the
+     *     file does not exist
+     * @throws IOException if the data directory cannot be created or the file cannot be opened
      */
-    public List<String> loadRawCatalogueContent(Path filePath) {
+    private CatalogueFileReader openCatalogueFile(Path filePath) throws IOException {
         if (filePath == null) {
             System.err.println("Error: File path is null.");
             return null;
         }
-        try {
-            checkDirectoryExistence();
-
-            if (Files.exists(filePath)) {
-                return Files.readAllLines(filePath);
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading file: " + e.getMessage());
-        }
-        return null;
+        checkDirectoryExistence();
+        return Files.exists(filePath) ? new CatalogueFileReader(filePath) : null;
     }
 
     /**
-     * Saves a catalogue to its corresponding file.
+     * Saves a catalogue to its corresponding file, in the format the file was loaded in
+     * (see {@link #setStorageFormat(StorageFormat)}).
      * Supported catalogue types: Inventory, RecipeBook.
+     * <p>
+     * The new content replaces the file atomically, so a crash during the save leaves the previous content
+     * in place; how far it is flushed to disk first is set by {@link #setDurability(Durability)}.
+     * The file is left untouched if it already holds exactly this catalogue: the catalogue was loaded from it
+     * or last saved to it by this manager, has not changed since (see {@link Catalogue#getVersion()}), and
+     * the file was not modified by anything else in between.
+     * </p>
      *
      * @param catalogue the {@link Catalogue} to save
      */
     public void saveToFile(Catalogue catalogue) {
         try {
             Path filePath = null;
+            CatalogueJournal journal = null;
+            StorageFormat format = null;
+            SavedState saved = null;
             String catalogueName = catalogue.getType();
             switch (catalogueName) {
             case "Inventory":
                 filePath = inventoryFilePath;
+                journal = inventoryJournal;
+                format = inventoryFormat;
+                saved = inventorySaved;
                 break;
             case "RecipeBook":
                 filePath = recipeBookFilePath;
+                journal = recipeBookJournal;
+                format = recipeBookFormat;
+                saved = recipeBookSaved;
                 break;
             default:
             }
 
-            // Check the existence again in case the directory or file was deleted
+            if (saved != null && saved.isHeldBy(catalogue, filePath, format)) {
+                return;
+            }
+
+            // Check the existence again in case the directory was deleted
             checkDirectoryExistence();
-            checkFileExistence(filePath);
 
-            String content = catalogue.getCatalogueContent();
+            byte[] content = format.encode(catalogue);
 
             assert filePath != null;
-            Files.writeString(filePath, content + "\n", StandardOpenOption.TRUNCATE_EXISTING);
+            if (journal != null) {
+                // A background checkpoint must not overwrite the file after this save
+                journal.awaitCheckpoint();
+            }
+            AtomicFileWriter.write(filePath, content, durability);
+            if (journal != null) {
+                // The file now contains every change recorded in the journal
+                journal.reset();
+            }
+
+            if (catalogueName.equals("Inventory")) {
+                inventorySaved = SavedState.of(catalogue, filePath, format);
+            } else {
+                recipeBookSaved = SavedState.of(catalogue, filePath, format);
+            }
         } catch (Exception e) {
             System.err.println("Error handling file: " + e.getMessage());
         }
     }
 
+    /**
+     * Rewrites an inventory file in the given storage format, replacing it atomically.
+     * The file may be in either format. Its journal, if any, stays valid, since journal records do not
+     * depend on the format of the data file.
+     *
+     * @param filePath the inventory file
+     * @param format   the format to rewrite it in
+     * @throws IOException if the file does not exist or cannot be read or written
+     */
+    public void convertInventoryFile(Path filePath, StorageFormat format) throws IOException {
+        requireExisting(filePath);
+        Inventory inventory = new Inventory();
+        inventory.addAllItems(readIngredients(filePath));
+        AtomicFileWriter.write(filePath, format.encode(inventory), durability);
+    }
+
+    /**
+     * Rewrites a recipe book file in the given storage format, replacing it atomically.
+     * The file may be in either format. Its journal, if any, stays valid, since journal records do not
+     * depend on the format of the data file.
+     *
+     * @param filePath the recipe book file
+     * @param format   the format to rewrite it in
+     * @throws IOException if the file does not exist or cannot be read or written
+     * @throws IllegalArgumentException if a text file has an ingredient line with an invalid name or quantity
+     */
+    public void convertRecipeBookFile(Path filePath, StorageFormat format) throws IOException {
+        requireExisting(filePath);
+        RecipeBook recipeBook = new RecipeBook();
+        recipeBook.addAllItems(readRecipes(filePath, ForkJoinPool.commonPool(), PARALLEL_LOAD_THRESHOLD));
+        AtomicFileWriter.write(filePath, format.encode(recipeBook), durability);
+    }
+
+    private static void requireExisting(Path filePath) throws IOException {
+        if (filePath == null || !Files.exists(filePath)) {
+            throw new NoSuchFileException(String.valueOf(filePath));
+        }
+    }
+
+    /**
+     * Returns the format of a data file, or the given format if the file is empty and so has none yet.
+     */
+    private static StorageFormat detectFormat(Path filePath, StorageFormat emptyFileFormat) throws IOException {
+        return Files.size(filePath) == 0 ? emptyFileFormat : StorageFormat.detect(filePath);
+    }
+
+    /**
+     * Returns the format new data files are saved in unless {@link #setStorageFormat(StorageFormat)} is called:
+     * binary if the {@code kitchenctrl.binaryStorage} system property is {@code true}, otherwise text.
+     */
+    private static StorageFormat getDefaultFormat() {
+        return Boolean.getBoolean("kitchenctrl.binaryStorage") ? StorageFormat.BINARY : StorageFormat.TEXT;
+    }
+
+    /**
+     * Returns the durability of saves unless {@link #setDurability(Durability)} is called, read from the
+     * {@code kitchenctrl.durability} system property. Unknown values fall back to {@link Durability#DATA}.
+     */
+    private static Durability getDefaultDurability() {
+        String property = System.getProperty("kitchenctrl.durability");
+        if (property == null) {
+            return Durability.DATA;
+        }
+        try {
+            return Durability.valueOf(property.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown durability " + property + ", using data");
+            return Durability.DATA;
+        }
+    }
+
     /**
      * Ensures that the base directory exists, creating it if necessary.
      *
@@ -252,6 +545,52 @@ public class CatalogueContentManager {
         this.inventoryFilePath = inventoryFilePath;
     }
 
+    /**
+     * Chooses whether inventories are loaded into a {@link CompactInventory}, which stores quantities in
+     * primitive arrays, instead of a regular {@link Inventory}. Defaults to the value of the
+     * {@code kitchenctrl.compactInventory} system property.
+     *
+     * @param isCompactInventory true to load inventories in the compact layout
+     */
+    public void setCompactInventory(boolean isCompactInventory) {
+        this.isCompactInventory = isCompactInventory;
+    }
+
+    /**
+     * Chooses the format the inventory and recipe book files are saved in from now on, by this manager and
+     * by the checkpoints of its open journals. Loading a file in the other format switches its saves back to
+     * that format, so call this after loading to convert the files on the next save.
+     *
+     * @param format the storage format
+     */
+    public void setStorageFormat(StorageFormat format) {
+        inventoryFormat = format;
+        recipeBookFormat = format;
+        if (inventoryJournal != null) {
+            inventoryJournal.setSnapshotFormat(format);
+        }
+        if (recipeBookJournal != null) {
+            recipeBookJournal.setSnapshotFormat(format);
+        }
+    }
+
+    /**
+     * Chooses how far saves, conversions and journal checkpoints flush the data files to disk before they
+     * count as done. Defaults to the value of the {@code kitchenctrl.durability} system property
+     * ({@code none}, {@code data} or {@code full}), or {@link Durability#DATA} if it is not set.
+     *
+     * @param durability the durability level
+     */
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+        if (inventoryJournal != null) {
+            inventoryJournal.setDurability(durability);
+        }
+        if (recipeBookJournal != null) {
+            recipeBookJournal.setDurability(durability);
+        }
+    }
+
     /**
      * Sets the file path for the recipe book file.
      *
@@ -287,4 +626,58 @@ public class CatalogueContentManager {
     public Path getRecipeBookFilePath() {
         return recipeBookFilePath;
     }
+
+    /**
+     * What a data file held when it was last known to match a catalogue exactly: which catalogue at which
+     * version, in which format, and the size and modification time of the file at that point.
+     */
+    private static class SavedState {
+        private final Catalogue<?> catalogue;
+        private final long version;
+        private final Path filePath;
+        private final StorageFormat format;
+        private final long size;
+        private final FileTime lastModified;
+
+        private SavedState(Catalogue<?> catalogue, long version, Path filePath, StorageFormat format,
+                BasicFileAttributes attributes) {
+            this.catalogue = catalogue;
+            this.version = version;
+            this.filePath = filePath;
+            this.format = format;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime();
+        }
+
+        /**
+         * Records that a data file currently holds the given catalogue in its current version.
+         *
+         * @return the state, or {@code null} if the file cannot be read
+         */
+        private static SavedState of(Catalogue<?> catalogue, Path filePath, StorageFormat format) {
+            try {
+                return new SavedState(catalogue, catalogue.getVersion(), filePath, format,
+                        Files.readAttributes(filePath, BasicFileAttributes.class));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Returns whether saving the catalogue to the file in the given format would write what it already
+         * holds: the same catalogue in the same version and format, with the file unmodified since.
+         */
+        private boolean isHeldBy(Catalogue<?> current, Path currentPath, StorageFormat currentFormat) {
+            if (current != catalogue || current.getVersion() != version || currentFormat != format
+                    || !filePath.equals(currentPath)) {
+                return false;
+            }
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+                return attributes.size() == size && attributes.lastModifiedTime().equals(lastModified);
+            } catch (IOException e) {
+                return false; // Deleted, so it must be written again
+            }
+        }
+    }
 }
@@ -0,0 +1,434 @@
+package storage;
+
+import model.Ingredient;
+import model.IngredientDictionary;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static ui.inputparser.Parser.parseName;
+import static ui.inputparser.Parser.parseQuantity;
+
+/**
+ * Reads a plain-text catalogue file by streaming it block by block.
+ * <p>
+ * The file is read in bulk, {@link #BLOCK_SIZE} bytes at a time, into a small reusable buffer with positional
+ * channel reads. It is not memory-mapped: a mapping outlives {@link #close()} until it is garbage collected,
+ * and on Windows a file with a live mapping cannot be replaced, as every save does. Lines are found and
+ * parsed byte by byte in that buffer, so the file is never turned into a list of lines and no regular
+ * expression runs per line: only names become strings.
+ * </p>
+ * <p>
+ * The result is the same as splitting the file with {@code Files.readAllLines} and parsing each line with
+ * the expressions of the text format, including which lines are skipped and the messages printed for them.
+ * Inventory lines of an unusual shape, such as stray parentheses, are handed to that line-based parsing to
+ * keep its exact behaviour.
+ * </p>
+ */
+class CatalogueFileReader implements Closeable {
+    /** Bytes read from the file at once. */
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_QUANTITY_DIGITS = 5;
+    /** Slots of the cache of recently read names, a power of two. */
+    private static final int NAME_CACHE_SIZE = 1 << 14;
+
+    private final FileChannel channel;
+    /** Position in the file where reading stops, treated as the end of the file. */
+    private final long rangeEnd;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    /**
+     * Recently read names by a hash of their bytes. Catalogue files name the same ingredients over and over,
+     * and handing out the same interned string lets the ingredient dictionary find it without hashing or
+     * comparing a fresh copy.
+     */
+    private final byte[][] cachedNameBytes = new byte[NAME_CACHE_SIZE][];
+    private final String[] cachedNames = new String[NAME_CACHE_SIZE];
+    /** Position in the file of the first byte not copied into the buffer yet. */
+    private long copiedUpTo;
+    /** Bytes read from the file; those from {@code bufferStart} to {@code bufferLimit} are still unread. */
+    private byte[] buffer = new byte[BLOCK_SIZE];
+    private int bufferStart;
+    private int bufferLimit;
+    /** Bounds of the current line in the buffer, terminator excluded. */
+    private int lineStart;
+    private int lineEnd;
+
+    /**
+     * Opens a catalogue file for reading.
+     *
+     * @param filePath the file to read
+     * @throws IOException if the file cannot be opened
+     */
+    CatalogueFileReader(Path filePath) throws IOException {
+        this.channel = FileChannel.open(filePath, StandardOpenOption.READ);
+        this.rangeEnd = channel.size();
+    }
+
+    /**
+     * Opens part of a catalogue file for reading, as if it were a whole file.
+     *
+     * @param filePath the file to read
+     * @param start    the position of the first byte to read, at the start of a line
+     * @param end      the position after the last byte to read, at the start of a line or the end of the file
+     * @throws IOException if the file cannot be opened
+     */
+    CatalogueFileReader(Path filePath, long start, long end) throws IOException {
+        this.channel = FileChannel.open(filePath, StandardOpenOption.READ);
+        this.rangeEnd = end;
+        this.copiedUpTo = start;
+    }
+
+    /**
+     * Parses an inventory line in {@code name (quantity)} format the way the text format always has, by
+     * splitting it at parentheses. Lines that do not split into exactly a name and a quantity are ignored.
+     *
+     * @param line        the line, as read from the file
+     * @param ingredients the list to add the ingredient to
+     */
+    static void parseInventoryLine(String line, ArrayList<Ingredient> ingredients) {
+        String[] parts = line.split("\\s*\\(\\s*|\\s*\\)\\s*");
+        if (parts.length == 2) {
+            try {
+                String itemName = parseName(parts[0].trim());
+                int quantity = parseQuantity(parts[1].trim());
+                if (quantity > 0) {
+                    ingredients.add(new Ingredient(itemName, quantity));
+                }
+            } catch (Exception e) {
+                System.err.println("Skipping invalid entry: " + line);
+            }
+        }
+    }
+
+    /**
+     * Reads every line of an inventory file, each in {@code name (quantity)} format.
+     * Invalid entries are reported and skipped.
+     *
+     * @param ingredients the list to add the ingredients to, in file order
+     * @throws IOException if the file cannot be read or is not valid UTF-8
+     */
+    void readIngredients(ArrayList<Ingredient> ingredients) throws IOException {
+        while (nextLine()) {
+            int open = indexOf('(', lineStart, lineEnd);
+            int close = open < 0 ? -1 : indexOf(')', open + 1, lineEnd);
+            int quantityStart = open + 1;
+            int quantityEnd = close;
+            boolean isSimple = close >= 0
+                    && indexOf(')', lineStart, open) < 0
+                    && indexOf('(', quantityStart, quantityEnd) < 0
+                    && isRegexWhitespace(close + 1, lineEnd);
+            if (isSimple) {
+                quantityStart = trimStart(quantityStart, quantityEnd);
+                quantityEnd = trimEnd(quantityStart, quantityEnd);
+            }
+            if (!isSimple || quantityStart == quantityEnd) {
+                parseInventoryLine(decode(lineStart, lineEnd), ingredients);
+                continue;
+            }
+
+            int nameStart = trimStart(lineStart, open);
+            int nameEnd = trimEnd(nameStart, open);
+            int quantity = parseDigits(quantityStart, quantityEnd);
+            String name = quantity > 0 ? toName(nameStart, nameEnd) : null;
+            if (name == null) {
+                System.err.println("Skipping invalid entry: " + decode(lineStart, lineEnd));
+            } else {
+                ingredients.add(new Ingredient(name, quantity));
+            }
+        }
+    }
+
+    /**
+     * Reads every recipe of a recipe book file. Recipes are separated by blank lines; the first line of
+     * each recipe is its name and every following line is an ingredient in {@code name (quantity)} format.
+     * Ingredient lines in another format are reported and skipped.
+     *
+     * @param chunk the chunk to add the recipes and messages to, in file order
+     * @throws IOException if the file cannot be read or is not valid UTF-8
+     * @throws IllegalArgumentException if an ingredient line has an invalid name or quantity
+     */
+    void readRecipes(RecipeChunk chunk) throws IOException {
+        boolean isInRecipe = false;
+        while (nextLine()) {
+            int start = trimStart(lineStart, lineEnd);
+            int end = trimEnd(start, lineEnd);
+            if (start == end) {
+                // Blank line: end of a recipe
+                isInRecipe = false;
+            } else if (!isInRecipe) {
+                chunk.addRecipe(decode(start, end));
+                isInRecipe = true;
+            } else {
+                readRecipeIngredient(start, end, chunk);
+            }
+        }
+    }
+
+    /**
+     * Finds positions to split the file at so that each part holds whole recipes, for parts to be read
+     * separately. A part starts at a blank line, close after an even share of the file.
+     *
+     * @param parts the number of parts wanted
+     * @return the start of each part followed by the end of the file; fewer parts than wanted if the
+     *     file has too few blank lines
+     * @throws IOException if the file cannot be read
+     */
+    long[] splitAtBlankLines(int parts) throws IOException {
+        long[] bounds = new long[parts + 1];
+        int count = 1;
+        for (int part = 1; part < parts; part++) {
+            long target = rangeEnd / parts * part;
+            long bound = findBlankLine(Math.max(target, bounds[count - 1] + 1));
+            if (bound >= rangeEnd) {
+                break;
+            }
+            bounds[count++] = bound;
+        }
+        bounds[count++] = rangeEnd;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Parses a trimmed ingredient line as {@code name (digits)}, with optional whitespace before the
+     * parenthesis: the bytes a {@code ^(.+?)\s*\((\d+)\)$} match would accept.
+     */
+    private void readRecipeIngredient(int start, int end, RecipeChunk chunk) throws IOException {
+        int digitsEnd = end - 1;
+        int digitsStart = digitsEnd;
+        while (digitsStart > start && isDigit(buffer[digitsStart - 1])) {
+            digitsStart--;
+        }
+        int open = digitsStart - 1;
+        if (buffer[digitsEnd] != ')' || digitsStart == digitsEnd || open <= start || buffer[open] != '(') {
+            chunk.addMessage("Invalid ingredient format: " + decode(start, end));
+            return;
+        }
+
+        int nameEnd = open;
+        while (nameEnd > start + 1 && isRegexWhitespace(buffer[nameEnd - 1])) {
+            nameEnd--;
+        }
+        // Unlike inventory entries, an invalid name or quantity here fails the whole load
+        String name = toName(start, nameEnd);
+        if (name == null) {
+            parseName(decode(start, nameEnd));
+        }
+        int quantity = parseDigits(digitsStart, digitsEnd);
+        if (quantity <= 0) {
+            parseQuantity(decode(digitsStart, digitsEnd));
+        }
+        chunk.addIngredient(name, quantity);
+    }
+
+    /**
+     * Moves to the next line of the file, copying more of the file into the buffer when the line is not
+     * all there yet. Lines end at {@code \n}, {@code \r} or {@code \r\n}, like {@code BufferedReader.readLine}.
+     *
+     * @return false if the end of the file was reached
+     */
+    private boolean nextLine() throws IOException {
+        int end = bufferStart;
+        while (true) {
+            while (end < bufferLimit && buffer[end] != '\n' && buffer[end] != '\r') {
+                end++;
+            }
+            // A \r ending the buffer may be followed by a \n not copied yet
+            boolean isComplete = end < bufferLimit - 1 || end == bufferLimit - 1 && buffer[end] == '\n';
+            if (isComplete || copiedUpTo == rangeEnd) {
+                break;
+            }
+            int shift = bufferStart;
+            copyMore();
+            end -= shift;
+        }
+
+        if (bufferStart == bufferLimit) {
+            return false;
+        }
+        lineStart = bufferStart;
+        lineEnd = end;
+        bufferStart = end;
+        if (end < bufferLimit) {
+            boolean isCrLf = buffer[end] == '\r' && end + 1 < bufferLimit && buffer[end + 1] == '\n';
+            bufferStart += isCrLf ? 2 : 1;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the start of the first blank line starting at or after the given position. Only lines
+     * following a {@code \n} are considered, since a position after a {@code \r} may split a {@code \r\n}.
+     * Reads the file directly, leaving the buffer untouched.
+     *
+     * @return the start of the line, or the end of the file if there is none
+     */
+    private long findBlankLine(long from) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        long candidate = -1; // Start of the line being checked, -1 while looking for a \n
+        long position = from - 1;
+        while (position < rangeEnd) {
+            block.clear();
+            int length = channel.read(block, position);
+            if (length <= 0) {
+                break;
+            }
+            for (int i = 0; i < length; i++, position++) {
+                byte b = block.get(i);
+                if (candidate >= 0 && (b == '\n' || b == '\r')) {
+                    return candidate;
+                } else if (b == '\n') {
+                    candidate = position + 1;
+                } else if (candidate >= 0 && (b & 0xFF) > ' ') {
+                    candidate = -1;
+                }
+            }
+        }
+        return candidate >= 0 ? candidate : rangeEnd;
+    }
+
+    /**
+     * Moves the unread bytes to the front of the buffer and reads the next block of the file after them.
+     * The buffer grows for lines longer than a block.
+     *
+     * @throws EOFException if the file became shorter while being read
+     */
+    private void copyMore() throws IOException {
+        int unread = bufferLimit - bufferStart;
+        if (unread + BLOCK_SIZE > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, unread + BLOCK_SIZE));
+        }
+        System.arraycopy(buffer, bufferStart, buffer, 0, unread);
+        bufferStart = 0;
+        bufferLimit = unread;
+
+        int length = (int) Math.min(BLOCK_SIZE, rangeEnd - copiedUpTo);
+        ByteBuffer block = ByteBuffer.wrap(buffer, bufferLimit, length);
+        while (block.hasRemaining()) {
+            if (channel.read(block, copiedUpTo + block.position() - bufferLimit) < 0) {
+                throw new EOFException("File truncated while reading");
+            }
+        }
+        bufferLimit += length;
+        copiedUpTo += length;
+    }
+
+    private int indexOf(char target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Skips the characters {@code String.trim} removes. UTF-8 continuation bytes are never among them. */
+    private int trimStart(int from, int to) {
+        while (from < to && (buffer[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(int from, int to) {
+        while (to > from && (buffer[to - 1] & 0xFF) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /** Whether a byte is matched by {@code \s}. */
+    private static boolean isRegexWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    private boolean isRegexWhitespace(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isRegexWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the quantity written in the given bytes, by the rules of {@code Parser.parseQuantity}.
+     *
+     * @return the quantity, or -1 if the bytes are not digits making a quantity from 1-99999
+     */
+    private int parseDigits(int from, int to) {
+        int significant = from;
+        while (significant < to && buffer[significant] == '0') {
+            significant++;
+        }
+        if (significant == to || to - significant > MAX_QUANTITY_DIGITS) {
+            return -1;
+        }
+        int quantity = 0;
+        for (int i = significant; i < to; i++) {
+            byte b = buffer[i];
+            if (!isDigit(b)) {
+                return -1;
+            }
+            quantity = quantity * 10 + (b - '0');
+        }
+        return quantity;
+    }
+
+    /**
+     * Returns the name written in the given bytes, if {@code Parser.parseName} accepts it.
+     * Printable ASCII names are checked here; other names are decoded and checked by the parser.
+     *
+     * @return the name, or {@code null} if it is invalid
+     */
+    private String toName(int from, int to) throws IOException {
+        int length = to - from;
+        boolean isPrintableAscii = length >= 1 && length <= MAX_NAME_LENGTH;
+        int hash = length;
+        for (int i = from; i < to && isPrintableAscii; i++) {
+            byte b = buffer[i];
+            isPrintableAscii = b >= ' ' && b < 0x7F && b != '\\';
+            hash = 31 * hash + b;
+        }
+        if (isPrintableAscii) {
+            int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+            byte[] cached = cachedNameBytes[slot];
+            if (cached == null || !Arrays.equals(cached, 0, cached.length, buffer, from, to)) {
+                cachedNameBytes[slot] = Arrays.copyOfRange(buffer, from, to);
+                cachedNames[slot] = IngredientDictionary.intern(
+                        new String(buffer, from, length, StandardCharsets.ISO_8859_1));
+            }
+            return cachedNames[slot];
+        }
+        try {
+            return parseName(decode(from, to));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the given bytes as UTF-8, failing on malformed input as {@code Files.readAllLines} does.
+     */
+    private String decode(int from, int to) throws IOException {
+        return decoder.decode(ByteBuffer.wrap(buffer, from, to - from)).toString();
+    }
+}
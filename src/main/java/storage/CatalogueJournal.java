@@ -0,0 +1,378 @@
+package storage;
+
+import model.Ingredient;
+import model.catalogue.Catalogue;
+import model.catalogue.CatalogueListener;
+import model.catalogue.IngredientCatalogue;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An append-only log of the mutations made to one catalogue since its data file was last written.
+ * <p>
+ * Every add, delete, edit or cook is recorded as one small tab-separated line, so the cost of
+ * persisting a change is proportional to the change rather than to the size of the catalogue.
+ * Records are buffered in memory and written out with a single {@code fsync} when {@link #commit()}
+ * is called, so all mutations made by one command share one disk flush (group commit).
+ * </p>
+ * <p>
+ * Once {@link #CHECKPOINT_INTERVAL} records have accumulated, the journal is rotated and a background
+ * thread folds it into a fresh snapshot of the data file (checkpoint). Loading a catalogue reads the
+ * snapshot and then replays whatever journal records remain with {@link #replay(Path, Catalogue)}.
+ * </p>
+ */
+public class CatalogueJournal implements CatalogueListener {
+    /** Number of records after which the journal is folded into a new snapshot. */
+    public static final int CHECKPOINT_INTERVAL = 500;
+
+    private static final String SEPARATOR = "\t";
+    private static final ExecutorService checkpointExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path dataFilePath;
+    private final Path journalPath;
+    private final Path rotatedJournalPath;
+    private final Catalogue<?> catalogue;
+    private final StringBuilder pendingRecords = new StringBuilder();
+
+    private FileChannel channel;
+    private StorageFormat snapshotFormat;
+    private Durability durability = Durability.DATA;
+    private int recordCount;
+    private Future<?> runningCheckpoint;
+
+    /**
+     * Opens the journal of a catalogue and starts recording its mutations.
+     * Records already present in the journal file are kept and appended to.
+     *
+     * @param dataFilePath The snapshot file of the catalogue (e.g., {@code inventory.txt}).
+     * @param catalogue    The catalogue whose mutations are recorded.
+     * @param recordCount  The number of records already present in the journal file.
+     * @param format       The format checkpoints write the data file in.
+     * @throws IOException if the journal file cannot be opened
+     */
+    public CatalogueJournal(Path dataFilePath, Catalogue<?> catalogue, int recordCount, StorageFormat format)
+            throws IOException {
+        this.dataFilePath = dataFilePath;
+        this.journalPath = getJournalPath(dataFilePath);
+        this.rotatedJournalPath = getRotatedJournalPath(dataFilePath);
+        this.catalogue = catalogue;
+        this.recordCount = recordCount;
+        this.snapshotFormat = format;
+        this.channel = openChannel(journalPath);
+
+        catalogue.addListener(this); // A recipe book passes on the edits made to its recipes
+    }
+
+    /**
+     * Returns the path of the journal that belongs to the given data file.
+     *
+     * @param dataFilePath The snapshot file of a catalogue.
+     * @return The journal path, e.g. {@code inventory.journal} for {@code inventory.txt}.
+     */
+    public static Path getJournalPath(Path dataFilePath) {
+        String fileName = dataFilePath.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        String baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        return dataFilePath.resolveSibling(baseName + ".journal");
+    }
+
+    /**
+     * Returns the path of the journal file.
+     *
+     * @return the journal path
+     */
+    public Path getJournalPath() {
+        return journalPath;
+    }
+
+    /**
+     * Returns the path a journal is moved to while a checkpoint is folding it into the data file.
+     *
+     * @param dataFilePath The snapshot file of a catalogue.
+     * @return The path of the rotated journal.
+     */
+    public static Path getRotatedJournalPath(Path dataFilePath) {
+        Path journalPath = getJournalPath(dataFilePath);
+        return journalPath.resolveSibling(journalPath.getFileName() + ".old");
+    }
+
+    // Recording
+
+    @Override
+    public void ingredientChanged(IngredientCatalogue changed, String ingredientName, int newQuantity) {
+        if (changed instanceof Recipe recipe) {
+            append("RSET", recipe.getRecipeName(), String.valueOf(newQuantity), ingredientName);
+        } else {
+            append("SET", String.valueOf(newQuantity), ingredientName);
+        }
+    }
+
+    @Override
+    public void ingredientsCleared(IngredientCatalogue changed) {
+        if (changed instanceof Recipe recipe) {
+            append("RCLEAR", recipe.getRecipeName());
+        } else {
+            append("CLEAR");
+        }
+    }
+
+    @Override
+    public void recipeAdded(RecipeBook recipeBook, Recipe recipe) {
+        append("ADD", recipe.getRecipeName());
+        appendRecipeIngredients(recipe);
+    }
+
+    @Override
+    public void recipeRemoved(RecipeBook recipeBook, Recipe recipe) {
+        append("DEL", recipe.getRecipeName());
+    }
+
+    @Override
+    public void recipeReplaced(RecipeBook recipeBook, Recipe oldRecipe, Recipe newRecipe) {
+        append("REPLACE", oldRecipe.getRecipeName(), newRecipe.getRecipeName());
+        appendRecipeIngredients(newRecipe);
+    }
+
+    private void appendRecipeIngredients(Recipe recipe) {
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            append("RSET", recipe.getRecipeName(), String.valueOf(ingredient.getQuantity()),
+                    ingredient.getIngredientName());
+        }
+    }
+
+    /**
+     * Buffers one record. The record only reaches the disk on the next {@link #commit()}.
+     *
+     * @param fields The operation followed by its arguments.
+     */
+    private void append(String... fields) {
+        pendingRecords.append(String.join(SEPARATOR, fields)).append("\n");
+        recordCount++;
+    }
+
+    /**
+     * Writes all buffered records to the journal and flushes them to disk with a single {@code fsync}.
+     * Starts a background checkpoint once enough records have accumulated.
+     */
+    public void commit() {
+        if (pendingRecords.length() == 0) {
+            return;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(pendingRecords.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            pendingRecords.setLength(0);
+
+            if (recordCount >= CHECKPOINT_INTERVAL) {
+                startCheckpoint();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing journal: " + e.getMessage());
+        }
+    }
+
+    // Checkpointing
+
+    /**
+     * Rotates the journal and folds it into a new snapshot on a background thread.
+     * The snapshot content is captured on the calling thread, so later mutations go to the new journal.
+     *
+     * @throws IOException if the journal cannot be rotated
+     */
+    private void startCheckpoint() throws IOException {
+        if (runningCheckpoint != null && !runningCheckpoint.isDone()) {
+            return; // Try again on a later commit
+        }
+
+        channel.close();
+        rotate();
+        channel = openChannel(journalPath);
+        recordCount = 0;
+
+        byte[] content = snapshotFormat.encode(catalogue);
+        runningCheckpoint = checkpointExecutor.submit(() -> {
+            try {
+                AtomicFileWriter.write(dataFilePath, content, durability);
+                Files.deleteIfExists(rotatedJournalPath);
+            } catch (IOException e) {
+                // The rotated journal is kept, so the changes are replayed on the next load
+                System.err.println("Error writing checkpoint: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Moves the active journal aside for a checkpoint. If an earlier checkpoint failed, its rotated journal
+     * is still needed, so the active records are appended to it rather than replacing it.
+     *
+     * @throws IOException if the journal cannot be moved or copied
+     */
+    private void rotate() throws IOException {
+        if (!Files.exists(rotatedJournalPath)) {
+            Files.move(journalPath, rotatedJournalPath);
+            return;
+        }
+
+        try (FileChannel source = FileChannel.open(journalPath, StandardOpenOption.READ);
+             FileChannel target = openChannel(rotatedJournalPath)) {
+            long size = source.size();
+            for (long position = 0; position < size; ) {
+                position += source.transferTo(position, size - position, target);
+            }
+            target.force(false);
+        }
+        Files.delete(journalPath);
+    }
+
+    /**
+     * Chooses the format later checkpoints write the data file in.
+     *
+     * @param format The storage format.
+     */
+    public void setSnapshotFormat(StorageFormat format) {
+        this.snapshotFormat = format;
+    }
+
+    /**
+     * Chooses how far later checkpoints flush the data file to disk. Defaults to {@link Durability#DATA}.
+     *
+     * @param durability The durability level.
+     */
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * Waits for a running background checkpoint to finish.
+     */
+    public void awaitCheckpoint() {
+        if (runningCheckpoint == null) {
+            return;
+        }
+        try {
+            runningCheckpoint.get();
+        } catch (Exception e) {
+            System.err.println("Error waiting for checkpoint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Discards all journal records. Called after the full catalogue has been written to its data file,
+     * since the data file then already contains every recorded change.
+     */
+    public void reset() {
+        awaitCheckpoint();
+        pendingRecords.setLength(0);
+        recordCount = 0;
+        try {
+            channel.truncate(0);
+            channel.force(false);
+            Files.deleteIfExists(rotatedJournalPath);
+        } catch (IOException e) {
+            System.err.println("Error resetting journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording mutations and closes the journal file.
+     */
+    public void close() {
+        commit();
+        awaitCheckpoint();
+        catalogue.removeListener(this);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing journal: " + e.getMessage());
+        }
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    // Replaying
+
+    /**
+     * Re-applies the records of a journal file to a freshly loaded catalogue.
+     * A trailing record without a line terminator (e.g. torn by a crash) is ignored.
+     *
+     * @param journalPath The journal file to replay.
+     * @param catalogue   The catalogue loaded from the data file.
+     * @return The number of records replayed.
+     * @throws IOException if the journal cannot be read
+     */
+    public static int replay(Path journalPath, Catalogue<?> catalogue) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+
+        String content = Files.readString(journalPath, StandardCharsets.UTF_8);
+        int completeLength = content.lastIndexOf('\n') + 1;
+        List<String> records = content.substring(0, completeLength).lines().toList();
+
+        int replayed = 0;
+        for (String record : records) {
+            if (record.isEmpty()) {
+                continue;
+            }
+            try {
+                apply(record.split(SEPARATOR, -1), catalogue);
+                replayed++;
+            } catch (Exception e) {
+                System.err.println("Skipping invalid journal record: " + record);
+            }
+        }
+        return replayed;
+    }
+
+    private static void apply(String[] fields, Catalogue<?> catalogue) {
+        switch (fields[0]) {
+        case "SET" -> ((IngredientCatalogue) catalogue).restoreQuantity(fields[2], Integer.parseInt(fields[1]));
+        case "CLEAR" -> ((IngredientCatalogue) catalogue).removeAllIngredients();
+        case "ADD" -> ((RecipeBook) catalogue).addItem(new Recipe(fields[1]), true);
+        case "DEL" -> ((RecipeBook) catalogue).removeItemByName(fields[1]);
+        case "REPLACE" -> {
+            RecipeBook recipeBook = (RecipeBook) catalogue;
+            Recipe oldRecipe = recipeBook.getItemByName(fields[1]);
+            if (oldRecipe != null) {
+                recipeBook.editItem(oldRecipe, new Recipe(fields[2]));
+            }
+        }
+        case "RSET" -> requireRecipe(catalogue, fields[1])
+                .restoreQuantity(fields[3], Integer.parseInt(fields[2]));
+        case "RCLEAR" -> requireRecipe(catalogue, fields[1]).removeAllIngredients();
+        default -> throw new IllegalArgumentException("Unknown journal operation: " + fields[0]);
+        }
+    }
+
+    private static Recipe requireRecipe(Catalogue<?> catalogue, String recipeName) {
+        Recipe recipe = ((RecipeBook) catalogue).getItemByName(recipeName);
+        if (recipe == null) {
+            throw new IllegalArgumentException("Unknown recipe: " + recipeName);
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,25 @@
+package storage;
+
+/**
+ * How far a save of a data file goes to survive a crash. Every level replaces the file atomically
+ * (see {@link AtomicFileWriter}), so a crash of the program never leaves a half-written or empty file;
+ * the levels differ in what survives a power loss or an operating system crash, and in how long a save takes.
+ */
+public enum Durability {
+    /**
+     * Nothing is flushed to disk. Fastest, but after a power loss the file may hold the old content or, on
+     * some file systems, be empty or truncated.
+     */
+    NONE,
+    /**
+     * The new content is flushed to disk before it replaces the file, so after a power loss the file holds
+     * either the old or the new content in full. The last save may be rolled back.
+     */
+    DATA,
+    /**
+     * Like {@link #DATA}, and the directory is flushed after the file is replaced, so a save that has
+     * returned is never rolled back. Slowest; the directory flush is skipped where the platform cannot open
+     * directories (e.g. Windows).
+     */
+    FULL
+}
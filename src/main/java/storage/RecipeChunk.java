@@ -0,0 +1,119 @@
+package storage;
+
+import model.Ingredient;
+import model.IngredientDictionary;
+import model.catalogue.Recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+/**
+ * The recipes read from one part of a recipe book file, before any ingredient is created.
+ * <p>
+ * Creating an {@link Ingredient} assigns its name an ID in the {@link IngredientDictionary}, and the first
+ * spelling of a name becomes its canonical one. Parts of a file read in parallel therefore only keep the
+ * names and quantities they read, plus the spellings in order of first appearance. Registering those
+ * spellings part after part, in file order, gives every name the ID and canonical spelling it would get
+ * from reading the whole file in one go; the ingredients can then be created in any order.
+ * </p>
+ */
+class RecipeChunk {
+    private final ArrayList<String> recipeNames = new ArrayList<>();
+    private final ArrayList<String> ingredientNames = new ArrayList<>();
+    private final LinkedHashSet<String> spellings = new LinkedHashSet<>();
+    /** Lines the read would have printed, in order. */
+    private final ArrayList<String> messages = new ArrayList<>();
+    /** Index in {@code ingredientNames} of the first ingredient of each recipe. */
+    private int[] recipeStarts = new int[16];
+    private int[] quantities = new int[64];
+    /** The exception that stopped the read, if any. */
+    private Exception failure;
+
+    /**
+     * Starts a new recipe.
+     *
+     * @param name the recipe name
+     */
+    void addRecipe(String name) {
+        if (recipeNames.size() == recipeStarts.length) {
+            recipeStarts = Arrays.copyOf(recipeStarts, recipeStarts.length * 2);
+        }
+        recipeStarts[recipeNames.size()] = ingredientNames.size();
+        recipeNames.add(name);
+    }
+
+    /**
+     * Adds an ingredient line to the last recipe started.
+     *
+     * @param name     a valid ingredient name
+     * @param quantity a valid quantity
+     */
+    void addIngredient(String name, int quantity) {
+        assert !recipeNames.isEmpty() : "Ingredient outside a recipe";
+        if (ingredientNames.size() == quantities.length) {
+            quantities = Arrays.copyOf(quantities, quantities.length * 2);
+        }
+        quantities[ingredientNames.size()] = quantity;
+        ingredientNames.add(name);
+        spellings.add(name);
+    }
+
+    /**
+     * Records a line to print when the chunk is merged.
+     *
+     * @param message the line
+     */
+    void addMessage(String message) {
+        messages.add(message);
+    }
+
+    /**
+     * Records the exception that stopped the read. What was read before it is kept.
+     *
+     * @param failure an {@code IOException} or {@code IllegalArgumentException}
+     */
+    void fail(Exception failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * Returns the exception that stopped the read.
+     *
+     * @return the exception, or {@code null} if the whole chunk was read
+     */
+    Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Prints the recorded messages and registers the ingredient spellings read, in file order.
+     * Called on each chunk in file order, on a single thread.
+     */
+    void merge() {
+        for (String message : messages) {
+            System.out.println(message);
+        }
+        for (String spelling : spellings) {
+            IngredientDictionary.getId(spelling);
+        }
+    }
+
+    /**
+     * Creates the recipes read. Safe to call from any thread once every chunk has been merged.
+     *
+     * @return the recipes, in file order
+     */
+    ArrayList<Recipe> toRecipes() {
+        ArrayList<Recipe> recipes = new ArrayList<>(recipeNames.size());
+        for (int r = 0; r < recipeNames.size(); r++) {
+            int end = r + 1 < recipeNames.size() ? recipeStarts[r + 1] : ingredientNames.size();
+            ArrayList<Ingredient> ingredients = new ArrayList<>(end - recipeStarts[r]);
+            for (int i = recipeStarts[r]; i < end; i++) {
+                ingredients.add(new Ingredient(ingredientNames.get(i), quantities[i]));
+            }
+            recipes.add(new Recipe(recipeNames.get(r), ingredients));
+        }
+        return recipes;
+    }
+}
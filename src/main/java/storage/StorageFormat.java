@@ -0,0 +1,46 @@
+package storage;
+
+import model.catalogue.Catalogue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The formats catalogue data files can be stored in. Loading detects the format of each file by itself.
+ */
+public enum StorageFormat {
+    /** One {@code name (quantity)} line per ingredient, readable and editable by hand. */
+    TEXT,
+    /** The compact binary format of {@link BinaryCatalogueFormat}, smaller and faster to load and save. */
+    BINARY;
+
+    /**
+     * Returns the format of a data file.
+     *
+     * @param filePath the data file
+     * @return {@link #BINARY} if the file starts with the binary header, otherwise {@link #TEXT}
+     * @throws IOException if the file cannot be read
+     */
+    public static StorageFormat detect(Path filePath) throws IOException {
+        try (InputStream input = Files.newInputStream(filePath)) {
+            return BinaryCatalogueFormat.hasMagic(input.readNBytes(BinaryCatalogueFormat.MAGIC.length))
+                    ? BINARY : TEXT;
+        }
+    }
+
+    /**
+     * Returns the full content of a data file holding the given catalogue in this format.
+     *
+     * @param catalogue an inventory or recipe book
+     * @return the bytes to write to the file
+     */
+    byte[] encode(Catalogue<?> catalogue) {
+        if (this == BINARY) {
+            return BinaryCatalogueFormat.encode(catalogue);
+        }
+        return (catalogue.getCatalogueContent() + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
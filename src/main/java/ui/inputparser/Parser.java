@@ -7,17 +7,33 @@ import commands.Command;
 import commands.CookRecipeCommand;
 import commands.CookableRecipesCommand;
 import commands.DeleteCommand;
+import commands.DuplicateRecipesCommand;
 import commands.EditIngredientCommand;
 import commands.EditRecipeCommand;
 import commands.FindCommand;
 import commands.GoToCommand;
 import commands.ListCommand;
 import commands.ListCommandsCommand;
+import commands.NearCookableCommand;
+import commands.PlanCommand;
+import commands.SearchCommand;
+import commands.ServingsCommand;
+import commands.ShopCommand;
+import commands.SimilarRecipesCommand;
+import commands.UnlockCommand;
+import commands.UsesCommand;
 import controller.KitchenCTRL;
 import controller.ScreenState;
 
 import model.catalogue.Recipe;
 import model.catalogue.RecipeBook;
+import model.index.CookableIndex;
+import model.planner.MealPlanner;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * The {@code Parser} class is responsible for interpreting user input and
@@ -26,6 +42,9 @@ import model.catalogue.RecipeBook;
  * INVENTORY or RECIPEBOOK screen.
  */
 public class Parser {
+    /** A recipe name followed by a number of servings, e.g. {@code Pancakes x3}. */
+    private static final Pattern SERVINGS_SUFFIX = Pattern.compile("(.+?)\\s+[xX](\\d+)");
+
     /**
      * Parses a user input string and returns the corresponding Command.
      *
@@ -120,6 +139,10 @@ public class Parser {
             }
             yield new CookableRecipesCommand();
         }
+        case "servings" -> prepareServings(args);
+        case "almost" -> prepareNearCookable(args);
+        case "unlock" -> prepareUnlock(args);
+        case "plan" -> preparePlan(args);
         case "help" -> {
             if (!args.isEmpty()) {
                 throw new IllegalArgumentException("`help` command should not have extra input.");
@@ -155,7 +178,17 @@ public class Parser {
         case "add" -> prepareAdd(args);
         case "delete" -> prepareDelete(args);
         case "find" -> new FindCommand(parseName(args));
+        case "search" -> prepareSearch(args);
         case "cook" -> prepareCook(args);
+        case "shop" -> prepareShop(args);
+        case "uses" -> prepareUses(args);
+        case "similar" -> prepareSimilar(args);
+        case "duplicates" -> {
+            if (!args.isEmpty()) {
+                throw new IllegalArgumentException("`duplicates` command should not have extra input.");
+            }
+            yield new DuplicateRecipesCommand();
+        }
         case "edit" -> new EditRecipeCommand(parseName(args));
         case "list" -> {
             if (!args.isEmpty()) {
@@ -383,33 +416,224 @@ public class Parser {
         return new ByeCommand();
     }
 
+    /**
+     * Prepares a command listing how many times each recipe can be cooked.
+     *
+     * @param args Either empty, to list every cookable recipe, or the number of recipes to list.
+     * @return A {@code ServingsCommand}.
+     * @throws IllegalArgumentException If the number of recipes is not a positive integer.
+     */
+    private Command prepareServings(String args) {
+        if (args.trim().isEmpty()) {
+            return new ServingsCommand();
+        }
+        try {
+            return new ServingsCommand(parseQuantity(args.trim()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid format! Usage: servings [count], with count from 1-99999");
+        }
+    }
+
+    /**
+     * Prepares a command listing the recipes that are almost cookable.
+     *
+     * @param args Empty, or {@code <ingredients> [units]}: the most missing ingredients accepted, optionally
+     *     followed by the most missing units accepted. By default, recipes missing one ingredient are listed.
+     * @return A {@code NearCookableCommand}.
+     * @throws IllegalArgumentException If the limits are not positive integers.
+     */
+    private Command prepareNearCookable(String args) {
+        String[] parts = args.trim().isEmpty() ? new String[0] : args.trim().split("\\s+");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Invalid format! Usage: almost [ingredients] [units]");
+        }
+        try {
+            int maxMissing = parts.length > 0 ? parseQuantity(parts[0]) : 1;
+            int maxShortfall = parts.length > 1 ? parseQuantity(parts[1]) : 0;
+            return new NearCookableCommand(maxMissing, maxShortfall);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid format! Usage: almost [ingredients] [units], "
+                    + "with each from 1-99999");
+        }
+    }
+
+    /**
+     * Prepares a command suggesting which ingredients to buy next.
+     *
+     * @param args Empty, or the number of distinct ingredients bought together (1 by default).
+     * @return An {@code UnlockCommand}.
+     * @throws IllegalArgumentException If the number is not from 1 to {@link CookableIndex#MAX_PURCHASE_SIZE}.
+     */
+    private Command prepareUnlock(String args) {
+        try {
+            int size = args.trim().isEmpty() ? 1 : parseQuantity(args.trim());
+            if (size <= CookableIndex.MAX_PURCHASE_SIZE) {
+                return new UnlockCommand(size);
+            }
+        } catch (IllegalArgumentException e) {
+            // Reported below, with the supported range
+        }
+        throw new IllegalArgumentException("Invalid format! Usage: unlock [ingredients], with ingredients from 1-"
+                + CookableIndex.MAX_PURCHASE_SIZE);
+    }
+
+    /**
+     * Prepares a command planning which recipes to cook.
+     *
+     * @param args Empty or {@code recipes} to maximize the recipes cooked, {@code units} to maximize the
+     *     ingredient units used, or {@code <recipeName>=<weight>, ...} to maximize the total weight.
+     * @return A {@code PlanCommand} for the goal.
+     * @throws IllegalArgumentException If the goal is malformed or names a recipe that does not exist.
+     */
+    private Command preparePlan(String args) {
+        String goal = args.trim();
+        if (goal.isEmpty() || goal.equalsIgnoreCase("recipes")) {
+            return new PlanCommand(MealPlanner.Goal.RECIPES);
+        }
+        if (goal.equalsIgnoreCase("units")) {
+            return new PlanCommand(MealPlanner.Goal.UNITS);
+        }
+
+        RecipeBook recipeBook = KitchenCTRL.getRecipeBook();
+        IdentityHashMap<Recipe, Integer> weights = new IdentityHashMap<>();
+        for (String entry : goal.split(",")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException(
+                        "Invalid format! Usage: plan [recipes|units] or plan <recipeName>=<weight>, ...");
+            }
+            String name = parseName(parts[0].trim());
+            Recipe recipe = recipeBook.getItemByName(name);
+            if (recipe == null) {
+                throw new IllegalArgumentException("Recipe not found: " + name);
+            }
+            weights.put(recipe, parseQuantity(parts[1].trim()));
+        }
+        return new PlanCommand(weights);
+    }
+
+    /**
+     * Prepares a command ranking recipes by relevance to the given words.
+     *
+     * @param args The words to look for.
+     * @return A {@code SearchCommand} for the words.
+     * @throws IllegalArgumentException If no word is given.
+     */
+    private Command prepareSearch(String args) {
+        if (args.trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid format! Usage: search <word> <word> ...");
+        }
+        return new SearchCommand(args.trim());
+    }
+
+    /**
+     * Prepares a command listing the recipes using a combination of ingredients.
+     * Alternatives are separated by {@code |}, the ingredients of an alternative by {@code &},
+     * and an ingredient prefixed with {@code !} is excluded, e.g. {@code egg & milk & !nuts | toast}.
+     *
+     * @param args The query.
+     * @return A {@code UsesCommand} for the query.
+     * @throws IllegalArgumentException If the query is empty or an alternative names no ingredient.
+     */
+    private Command prepareUses(String args) {
+        String usage = "Invalid format! Usage: uses <ingredient> & !<ingredient> | <ingredient> ...";
+        if (args.trim().isEmpty()) {
+            throw new IllegalArgumentException(usage);
+        }
+
+        ArrayList<UsesCommand.Clause> clauses = new ArrayList<>();
+        for (String alternative : args.split("\\|", -1)) {
+            ArrayList<String> required = new ArrayList<>();
+            ArrayList<String> excluded = new ArrayList<>();
+            for (String term : alternative.split("&", -1)) {
+                String name = term.trim();
+                boolean isExcluded = name.startsWith("!");
+                name = isExcluded ? name.substring(1).trim() : name;
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException(usage);
+                }
+                (isExcluded ? excluded : required).add(parseName(name));
+            }
+            clauses.add(new UsesCommand.Clause(required, excluded));
+        }
+        return new UsesCommand(clauses);
+    }
+
+    /**
+     * Prepares a command listing the recipes with ingredients similar to those of a given recipe.
+     *
+     * @param args The name of the recipe.
+     * @return A {@code SimilarRecipesCommand} for the recipe.
+     * @throws IllegalArgumentException If no name is given or the recipe does not exist.
+     */
+    private Command prepareSimilar(String args) {
+        if (args.trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid format! Usage: similar <recipeName>");
+        }
+        String name = parseName(args.trim());
+        Recipe recipe = KitchenCTRL.getRecipeBook().getItemByName(name);
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe not found: " + name);
+        }
+        return new SimilarRecipesCommand(recipe);
+    }
+
+    /**
+     * Prepares a command listing what to buy to cook several recipes.
+     *
+     * @param args Recipe names separated by commas. A recipe may be listed more than once.
+     * @return A {@code ShopCommand} for the recipes.
+     * @throws IllegalArgumentException If no recipe is given or a recipe does not exist.
+     */
+    private Command prepareShop(String args) {
+        if (args.trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid format! Usage: shop <recipeName>, <recipeName>, ...");
+        }
+
+        RecipeBook recipeBook = KitchenCTRL.getRecipeBook();
+        ArrayList<Recipe> recipes = new ArrayList<>();
+        for (String recipeName : args.split(",")) {
+            String name = parseName(recipeName.trim());
+            Recipe recipe = recipeBook.getItemByName(name);
+            if (recipe == null) {
+                throw new IllegalArgumentException("Recipe not found: " + name);
+            }
+            recipes.add(recipe);
+        }
+        return new ShopCommand(recipes);
+    }
+
     /**
      * Prepares a command to cook a recipe by retrieving it from the recipe book.
      *
-     * <p>This method looks up the recipe by name from the {@code RecipeBook}. If the recipe exists,
-     * it returns a {@code CookRecipeCommand} to execute the cooking process. If the recipe is not found,
-     * it logs an error message and returns {@code null}.</p>
+     * <p>This method looks up the recipe by name from the {@code RecipeBook}. The name may be followed by
+     * {@code x<N>} to cook N servings at once. If the recipe exists, it returns a {@code CookRecipeCommand}
+     * to execute the cooking process.</p>
      *
-     * @param args The name of the recipe to be cooked. Expected to be a trimmed string.
-     * @return A {@code CookRecipeCommand} if the recipe is found, or {@code null} if the recipe does not exist.
+     * @param args The name of the recipe to be cooked, optionally followed by {@code x<N>}.
+     * @return A {@code CookRecipeCommand} for the recipe.
+     * @throws IllegalArgumentException If the recipe does not exist or the number of servings is invalid.
      */
     private Command prepareCook(String args) {
         String name = parseName(args.trim());
         if (name.isEmpty()) {
-            throw new IllegalArgumentException("Invalid format! Usage: cook <recipeName>");
+            throw new IllegalArgumentException("Invalid format! Usage: cook <recipeName> [x<servings>]");
         }
 
-        //expected args format is name of recipe
+        //expected args format is name of recipe, optionally followed by the number of servings
         RecipeBook recipeBook = KitchenCTRL.getRecipeBook();
+        Recipe targetRecipe = recipeBook.getItemByName(name);
+        if (targetRecipe != null) {
+            return new CookRecipeCommand(targetRecipe);
+        }
 
-        Recipe targetRecipe;
-
-        String targetRecipeName = parseName(args.trim());
-        targetRecipe = recipeBook.getItemByName(targetRecipeName);
-
-        if (targetRecipe == null) {
-            throw new IllegalArgumentException("Recipe not found!");
+        Matcher servingsMatcher = SERVINGS_SUFFIX.matcher(name);
+        if (servingsMatcher.matches()) {
+            targetRecipe = recipeBook.getItemByName(servingsMatcher.group(1));
+            if (targetRecipe != null) {
+                return new CookRecipeCommand(targetRecipe, parseQuantity(servingsMatcher.group(2)));
+            }
         }
-        return new CookRecipeCommand(targetRecipe);
+        throw new IllegalArgumentException("Recipe not found!");
     }
 }
@@ -145,6 +145,12 @@ public class Ui {
         System.out.println("- edit [item] [qty] -> Set qty of specified ingredient in inventory");
         //directly set qty of specified ingredient
         System.out.println("- cookable -> Find all cookable recipes");
+        System.out.println("- servings [count] -> List how many times each recipe can be cooked, most first");
+        System.out.println("- almost [ingredients] [units] -> List recipes missing at most that many "
+                + "ingredients or units");
+        System.out.println("- unlock [ingredients] -> Suggest ingredients to buy that make the most recipes cookable");
+        System.out.println("- plan [recipes|units] -> Plan which recipes to cook to make the most of the inventory");
+        System.out.println("- plan [name]=[weight], ... -> Plan which recipes to cook, favouring heavier weights");
         System.out.println("- back -> Return to the main screen");
         System.out.println("- bye -> Exit the program");
         System.out.print("- help -> View available commands");
@@ -166,10 +172,16 @@ public class Ui {
     public static void showRecipeBookCommands() {
         System.out.println("- list -> Show all recipes");
         System.out.println("- find [name] -> Find recipe(s) matching search string");
+        System.out.println("- search [words] -> Rank recipes by how well their names and ingredients match");
         System.out.println("- add [name] -> Add a new recipe");
         System.out.println("- delete [name] -> Delete an existing recipe specified by [name]");
         System.out.println("- edit [name] -> edit an existing recipe specified by [name]");
         System.out.println("- cook [name] -> Cook a recipe, or display missing ingredients required to cook it");
+        System.out.println("- cook [name] x[N] -> Cook N servings of a recipe at once");
+        System.out.println("- shop [name], [name], ... -> List what to buy to cook all the recipes given");
+        System.out.println("- uses [a] & [b] & ![c] | [d] -> List recipes using a and b but not c, or using d");
+        System.out.println("- similar [name] -> List recipes with ingredients similar to a recipe");
+        System.out.println("- duplicates -> List pairs of recipes with nearly the same ingredients");
         //user cooks the recipe, prints out list of items required, and system automatically removes
         //to view again, view from recipe tab
         System.out.println("- back -> Return to the main screen");
@@ -0,0 +1,147 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.CompactInventory;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.BkTreeIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BkTreeIndexTest {
+    private static final String[] WORDS = {
+        "egg", "eggs", "flour", "milk", "soy milk", "rice", "brown rice", "olive oil", "salted butter",
+        "butter", "peanut butter", "chili", "chilli flakes", "a"
+    };
+
+    @Test
+    public void distance_countsEdits() {
+        assertEquals(0, BkTreeIndex.distance("butter", "butter"));
+        assertEquals(1, BkTreeIndex.distance("buter", "butter"));
+        assertEquals(2, BkTreeIndex.distance("chikcen", "chicken"));
+        assertEquals(3, BkTreeIndex.distance("kitten", "sitting"));
+        assertEquals(4, BkTreeIndex.distance("", "rice"));
+    }
+
+    @Test
+    public void findWithin_matchesBruteForceUnderMutations() {
+        Random random = new Random(5);
+        BkTreeIndex<String> index = new BkTreeIndex<>(Function.identity());
+        List<String> live = new ArrayList<>();
+
+        for (int step = 0; step < 3000; step++) {
+            String name = mutate(WORDS[random.nextInt(WORDS.length)], random);
+            switch (random.nextInt(3)) {
+            case 0 -> {
+                index.add(name);
+                live.add(name);
+            }
+            case 1 -> {
+                if (!live.isEmpty()) {
+                    index.remove(live.remove(random.nextInt(live.size())));
+                }
+            }
+            default -> {
+                if (!live.isEmpty()) {
+                    int position = random.nextInt(live.size());
+                    index.replace(live.get(position), name);
+                    live.set(position, name);
+                }
+            }
+            }
+
+            String query = mutate(WORDS[random.nextInt(WORDS.length)], random);
+            int maxDistance = random.nextInt(4);
+            int limit = 1 + random.nextInt(8);
+            assertEquals(bruteForce(live, query, maxDistance, limit), index.findWithin(query, maxDistance, limit));
+        }
+    }
+
+    /**
+     * Applies up to two random typos, returning a new string so that items are distinct references.
+     */
+    private static String mutate(String word, Random random) {
+        StringBuilder result = new StringBuilder(word);
+        for (int typos = random.nextInt(3); typos > 0 && result.length() > 0; typos--) {
+            int position = random.nextInt(result.length());
+            char letter = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(3)) {
+            case 0 -> result.deleteCharAt(position);
+            case 1 -> result.insert(position, letter);
+            default -> result.setCharAt(position, letter);
+            }
+        }
+        return new String(result.toString());
+    }
+
+    /**
+     * Ranks by distance, then by position; a replaced item keeps its position, as in a catalogue.
+     */
+    private static List<String> bruteForce(List<String> live, String query, int maxDistance, int limit) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < live.size(); i++) {
+            if (BkTreeIndex.distance(query, live.get(i)) <= maxDistance) {
+                positions.add(i);
+            }
+        }
+        positions.sort(Comparator.comparingInt((Integer i) -> BkTreeIndex.distance(query, live.get(i)))
+                .thenComparingInt(i -> i));
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, positions.size()); i++) {
+            result.add(live.get(positions.get(i)));
+        }
+        return result;
+    }
+
+    @Test
+    public void findWithin_survivesBurstOfRemovals() {
+        BkTreeIndex<String> index = new BkTreeIndex<>(Function.identity());
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add("item" + i);
+            index.add(items.get(i));
+        }
+        for (int i = 0; i < 500; i++) {
+            if (i % 10 != 1) {
+                index.remove(items.get(i)); // Enough removals to trigger a rebuild on the next query
+            }
+        }
+
+        assertEquals(List.of("item1", "item11", "item21"), index.findWithin("item1", 1, 3));
+        index.add("item1000");
+        assertEquals(List.of("item1000"), index.findWithin("itm1000", 1, 10));
+    }
+
+    @Test
+    public void findItem_suggestsCloseNamesWhenNothingMatches() {
+        RecipeBook recipeBook = new RecipeBook();
+        recipeBook.addItem(new Recipe("Chicken Curry"), true);
+        recipeBook.addItem(new Recipe("Chicken Rice"), true);
+        recipeBook.addItem(new Recipe("Fried Rice"), true);
+
+        assertEquals("No recipes found containing: chiken rice\nDid you mean:\n1. Chicken Rice",
+                recipeBook.findItem("chiken rice").getFeedbackToUser());
+        assertEquals("No recipes found containing: Burger", recipeBook.findItem("Burger").getFeedbackToUser());
+
+        Inventory inventory = new Inventory();
+        Inventory compactInventory = new CompactInventory();
+        for (Inventory target : List.of(inventory, compactInventory)) {
+            target.addItem(new Ingredient("Butter", 2), true);
+            target.addItem(new Ingredient("Batter", 1), true);
+            target.addItem(new Ingredient("Bitter Melon", 1), true);
+        }
+        String expected = "No items found containing: buttr\nDid you mean:\n1. 2x Butter";
+        assertEquals(expected, inventory.findItem("buttr").getFeedbackToUser());
+        assertEquals(expected, compactInventory.findItem("buttr").getFeedbackToUser());
+        assertEquals(List.of("Butter", "Batter"), compactInventory.findItemsByFuzzyName("Bstter", 5).stream()
+                .map(Ingredient::getIngredientName).toList());
+    }
+}
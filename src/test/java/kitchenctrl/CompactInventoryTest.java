@@ -0,0 +1,86 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.CompactInventory;
+import model.catalogue.Inventory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CompactInventoryTest {
+    private static final String[] NAMES = {
+        "Flour", "flour", "Brown Sugar", "Sugar", "Eggs", "Milk", "Soy Milk", "Salt", "Sea Salt", "Oil"
+    };
+
+    private static List<String> names(List<Ingredient> ingredients) {
+        return ingredients.stream().map(Ingredient::toString).toList();
+    }
+
+    @Test
+    public void behavesLikeInventoryUnderMutations() {
+        Random random = new Random(5);
+        Inventory expected = new Inventory();
+        CompactInventory actual = new CompactInventory();
+
+        for (int step = 0; step < 3000; step++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            int quantity = 1 + random.nextInt(5);
+            int restoredQuantity = random.nextInt(2) * quantity;
+            String newName = NAMES[random.nextInt(NAMES.length)];
+            boolean isClearing = random.nextInt(50) == 0;
+            for (Inventory inventory : List.of(expected, actual)) {
+                switch (step % 6) {
+                case 0, 1 -> inventory.addItem(new Ingredient(name, quantity), true);
+                case 2 -> {
+                    Ingredient existing = inventory.getItemByName(name);
+                    if (existing != null) {
+                        inventory.decreaseQuantity(existing, new Ingredient(name, quantity));
+                    }
+                }
+                case 3 -> inventory.restoreQuantity(name, restoredQuantity);
+                case 4 -> {
+                    Ingredient existing = inventory.getItemByName(name);
+                    if (existing != null && inventory.getItemByName(newName) == null) {
+                        inventory.updateItem(existing, new Ingredient(newName, quantity));
+                    }
+                }
+                default -> {
+                    if (isClearing) {
+                        inventory.removeAllIngredients();
+                    }
+                }
+                }
+            }
+
+            Ingredient query = new Ingredient(NAMES[random.nextInt(NAMES.length)], 1);
+            assertEquals(expected.getCatalogueContent(), actual.getCatalogueContent());
+            assertEquals(expected.listItems().getFeedbackToUser(), actual.listItems().getFeedbackToUser());
+            assertEquals(expected.findItem("l").getFeedbackToUser(), actual.findItem("l").getFeedbackToUser());
+            assertEquals(expected.findItem("1", Ingredient::toString).getFeedbackToUser(),
+                    actual.findItem("1", Ingredient::toString).getFeedbackToUser());
+            assertEquals(names(expected.searchSimilarIngredient(query)),
+                    names(actual.searchSimilarIngredient(query)));
+            assertEquals(expected.getItems().size(), actual.size());
+        }
+    }
+
+    @Test
+    public void returnedIngredientsAreDetachedCopies() {
+        CompactInventory inventory = new CompactInventory();
+        inventory.addItem(new Ingredient("Butter", 3), true);
+
+        ArrayList<Ingredient> items = inventory.getItems();
+        items.get(0).addQuantity(10); // Does not write through
+        assertEquals(3, inventory.getItemByName("butter").getQuantity());
+
+        // Cooking passes the copy back, which is how changes are made
+        inventory.decreaseQuantity(items.get(0), new Ingredient("Butter", 20));
+        assertNull(inventory.getItemByName("Butter"));
+        assertEquals("", inventory.getCatalogueContent());
+    }
+}
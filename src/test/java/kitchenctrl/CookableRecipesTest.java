@@ -1,16 +1,26 @@
 package kitchenctrl;
 
+import commands.CookRecipeCommand;
 import commands.CookableRecipesCommand;
 import model.Ingredient;
 import model.catalogue.Inventory;
 import model.catalogue.Recipe;
 import model.catalogue.RecipeBook;
+import model.index.CookableIndex;
+import model.index.CookableScan;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CookableRecipesTest {
@@ -105,4 +115,304 @@ class CookableRecipesTest {
         ArrayList<Recipe> cookableRecipes = cookableRecipesCommand.getCookableRecipes(testBook, inventory);
         assertTrue(cookableRecipes.isEmpty());
     }
+
+    /** The quantity of each ingredient a recipe requires, adding up lines that name the same ingredient. */
+    private static HashMap<String, Integer> requiredTotals(Recipe recipe) {
+        HashMap<String, Integer> totals = new HashMap<>();
+        for (Ingredient required : recipe.getIngredients()) {
+            totals.merge(required.getIngredientName().toLowerCase(), required.getQuantity(), Integer::sum);
+        }
+        return totals;
+    }
+
+    /** The original scan over every recipe and inventory item, kept here as the reference implementation. */
+    private static ArrayList<Recipe> scanCookableRecipes(RecipeBook recipeBook, Inventory inventory) {
+        ArrayList<Recipe> cookableRecipes = new ArrayList<>();
+        for (Recipe recipe : recipeBook.getItems()) {
+            boolean canCook = true;
+            for (Map.Entry<String, Integer> required : requiredTotals(recipe).entrySet()) {
+                Ingredient available = inventory.getItems().stream()
+                        .filter(i -> i.getIngredientName().equalsIgnoreCase(required.getKey()))
+                        .findFirst().orElse(null);
+                if (available == null || available.getQuantity() < required.getValue()) {
+                    canCook = false;
+                    break;
+                }
+            }
+            if (canCook) {
+                cookableRecipes.add(recipe);
+            }
+        }
+        return cookableRecipes;
+    }
+
+    @Test
+    void testIndexMatchesScanUnderMutations() {
+        String[] names = {"Flour", "Sugar", "Egg", "Milk", "Butter", "Salt", "Rice", "Oil"};
+        Random random = new Random(11);
+        CookableIndex index = new CookableIndex(testBook, inventory);
+
+        for (int step = 0; step < 3000; step++) {
+            String name = names[random.nextInt(names.length)];
+            int quantity = 1 + random.nextInt(4);
+            int recipeCount = testBook.getItems().size();
+            Recipe someRecipe = recipeCount == 0 ? null : testBook.getItems().get(random.nextInt(recipeCount));
+
+            switch (random.nextInt(8)) {
+            case 0, 1 -> inventory.restoreQuantity(name, random.nextInt(5));
+            case 2 -> {
+                Ingredient existing = inventory.getItemByName(name);
+                if (existing != null) { // What cooking a recipe does
+                    inventory.decreaseQuantity(existing, new Ingredient(name, quantity));
+                }
+            }
+            case 3 -> testBook.addItem(new Recipe("R" + step), true);
+            case 4 -> {
+                if (someRecipe != null) {
+                    someRecipe.restoreQuantity(name, random.nextInt(3));
+                }
+            }
+            case 5 -> {
+                if (someRecipe != null) {
+                    testBook.removeItemByName(someRecipe.getRecipeName());
+                }
+            }
+            case 6 -> {
+                if (someRecipe != null) {
+                    Recipe replacement = new Recipe("E" + step);
+                    replacement.addItem(new Ingredient(name, quantity), true);
+                    testBook.editItem(someRecipe, replacement);
+                }
+            }
+            default -> {
+                if (random.nextInt(20) == 0) {
+                    inventory.removeAllIngredients();
+                }
+            }
+            }
+
+            assertEquals(scanCookableRecipes(testBook, inventory), index.getCookableRecipes());
+            if (step % 10 == 0) {
+                assertNearCookableMatchesMissingIngredients(index, 1 + random.nextInt(3), random.nextInt(6));
+                assertBestPurchasesMatchBruteForce(index, names);
+            }
+        }
+        index.close();
+    }
+
+    /** Checks the index's near-cookable ranking against CookRecipeCommand.getMissingIngredients on every recipe. */
+    private void assertNearCookableMatchesMissingIngredients(CookableIndex index, int maxMissing, int maxShortfall) {
+        ArrayList<Recipe> near = new ArrayList<>();
+        HashMap<Recipe, Integer> shortfalls = new HashMap<>();
+        HashMap<Recipe, Integer> missingCounts = new HashMap<>();
+        for (Recipe recipe : testBook.getItems()) {
+            ArrayList<Ingredient> missing = new CookRecipeCommand(recipe).getMissingIngredients(inventory);
+            int shortfall = missing.stream().mapToInt(Ingredient::getQuantity).sum();
+            assertEquals(missing.size(), index.getUnsatisfiedCount(recipe));
+            assertEquals(shortfall, index.getShortfall(recipe));
+            if (!missing.isEmpty() && (missing.size() <= maxMissing || shortfall <= maxShortfall)) {
+                near.add(recipe);
+                shortfalls.put(recipe, shortfall);
+                missingCounts.put(recipe, missing.size());
+            }
+        }
+        near.sort(Comparator.comparing((Recipe recipe) -> shortfalls.get(recipe)).thenComparing(missingCounts::get));
+
+        for (int limit : new int[] {1, 3, Integer.MAX_VALUE}) {
+            assertEquals(near.subList(0, Math.min(limit, near.size())),
+                    index.getNearCookableRecipes(maxMissing, maxShortfall, limit));
+        }
+    }
+
+    @Test
+    void testBestPurchasesRankByRecipesUnlocked() {
+        inventory.addItem(new Ingredient("Bread", 1), false);
+        Recipe toast = new Recipe("Toast");
+        toast.addItem(new Ingredient("Bread", 2), false);
+        Recipe melt = new Recipe("Melt");
+        melt.addItem(new Ingredient("Bread", 2), false);
+        melt.addItem(new Ingredient("Cheese", 1), false);
+        Recipe sandwich = new Recipe("Sandwich");
+        sandwich.addItem(new Ingredient("Bread", 3), false);
+        sandwich.addItem(new Ingredient("Egg", 1), false);
+        testBook.addItem(toast, false);
+        testBook.addItem(melt, false);
+        testBook.addItem(sandwich, false);
+
+        CookableIndex index = new CookableIndex(testBook, inventory);
+        ArrayList<CookableIndex.Purchase> singles = index.getBestPurchases(1, 10);
+        assertEquals(1, singles.size());
+        assertEquals("[Bread (1)]", singles.get(0).getIngredients().toString());
+        assertEquals(1, singles.get(0).getRecipeCount());
+
+        ArrayList<CookableIndex.Purchase> pairs = index.getBestPurchases(2, 10);
+        assertEquals(2, pairs.size());
+        assertEquals("[Bread (1), Cheese (1)]", pairs.get(0).getIngredients().toString());
+        assertEquals(2, pairs.get(0).getRecipeCount());
+        assertEquals("[Bread (2), Egg (1)]", pairs.get(1).getIngredients().toString());
+        assertEquals(2, pairs.get(1).getRecipeCount());
+
+        inventory.addItem(new Ingredient("Bread", 1), false);
+        singles = index.getBestPurchases(1, 10);
+        assertEquals(1, singles.size());
+        assertEquals("[Cheese (1)]", singles.get(0).getIngredients().toString());
+        index.close();
+    }
+
+    /** Checks the best purchases against trying every single ingredient and pair on every recipe. */
+    private void assertBestPurchasesMatchBruteForce(CookableIndex index, String[] names) {
+        HashMap<Recipe, ArrayList<Ingredient>> missingByRecipe = new HashMap<>();
+        for (Recipe recipe : testBook.getItems()) {
+            missingByRecipe.put(recipe, new CookRecipeCommand(recipe).getMissingIngredients(inventory));
+        }
+
+        for (int size = 1; size <= CookableIndex.MAX_PURCHASE_SIZE; size++) {
+            ArrayList<Set<String>> candidates = new ArrayList<>();
+            for (int i = 0; i < names.length; i++) {
+                if (size == 1) {
+                    candidates.add(Set.of(names[i].toLowerCase()));
+                }
+                for (int j = i + 1; j < names.length && size == 2; j++) {
+                    candidates.add(Set.of(names[i].toLowerCase(), names[j].toLowerCase()));
+                }
+            }
+
+            // Every set of `size` useful ingredients, as (recipes unlocked, units to buy), best first
+            ArrayList<long[]> expected = new ArrayList<>();
+            for (Set<String> bought : candidates) {
+                HashMap<String, Integer> units = new HashMap<>();
+                long recipes = 0;
+                for (ArrayList<Ingredient> missing : missingByRecipe.values()) {
+                    if (missing.isEmpty() || !missing.stream()
+                            .allMatch(line -> bought.contains(line.getIngredientName().toLowerCase()))) {
+                        continue;
+                    }
+                    recipes++;
+                    for (Ingredient line : missing) {
+                        units.merge(line.getIngredientName().toLowerCase(), line.getQuantity(), Math::max);
+                    }
+                }
+                if (units.size() == size) { // Every ingredient bought unlocks something
+                    expected.add(new long[] {recipes, units.values().stream().mapToLong(x -> x).sum()});
+                }
+            }
+            expected.sort(Comparator.comparingLong((long[] entry) -> -entry[0]).thenComparingLong(entry -> entry[1]));
+
+            for (int limit : new int[] {1, 3, Integer.MAX_VALUE}) {
+                ArrayList<CookableIndex.Purchase> purchases = index.getBestPurchases(size, limit);
+                assertEquals(Math.min(limit, expected.size()), purchases.size());
+                for (int k = 0; k < purchases.size(); k++) {
+                    assertEquals(expected.get(k)[0], purchases.get(k).getRecipeCount());
+                    assertEquals(expected.get(k)[1], purchases.get(k).getTotalUnits());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParallelScanMatchesScan() {
+        Random random = new Random(23);
+        for (int i = 0; i < 40; i++) {
+            inventory.addItem(new Ingredient("Item" + random.nextInt(60), 1 + random.nextInt(5)), false);
+        }
+        ArrayList<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < 5000; r++) {
+            ArrayList<Ingredient> lines = new ArrayList<>();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                lines.add(new Ingredient("item" + random.nextInt(60), 1 + random.nextInt(5)));
+            }
+            Recipe recipe = new Recipe("R" + r, lines);
+            if (random.nextBoolean()) {
+                recipe.expand();
+            }
+            recipes.add(recipe);
+        }
+        testBook.addAllItems(recipes);
+
+        ArrayList<Recipe> expected = scanCookableRecipes(testBook, inventory);
+        CookableScan scan = CookableScan.snapshot(inventory);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, scan.findCookable(testBook.getItems(), pool, 1));
+            assertEquals(expected, scan.findCookable(testBook.getItems(), pool, Integer.MAX_VALUE));
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(expected, cookableRecipesCommand.getCookableRecipes(testBook, inventory));
+    }
+
+    @Test
+    void testRepeatedLinesAreAddedUp() {
+        inventory.addItem(new Ingredient("Egg", 3), false);
+        ArrayList<Ingredient> lines = new ArrayList<>();
+        lines.add(new Ingredient("Egg", 2));
+        lines.add(new Ingredient("egg", 2));
+        Recipe omelette = new Recipe("Omelette", lines);
+        testBook.addItem(omelette, false);
+
+        CookableScan scan = CookableScan.snapshot(inventory);
+        CookableIndex index = new CookableIndex(testBook, inventory);
+        assertFalse(scan.canCook(omelette));
+        assertEquals(0, scan.getServings(omelette));
+        assertTrue(index.getCookableRecipes().isEmpty());
+        assertEquals(1, index.getShortfall(omelette));
+        assertEquals("[Egg (1)]", new CookRecipeCommand(omelette).getMissingIngredients(inventory).toString());
+
+        inventory.restoreQuantity("Egg", 8);
+        scan = CookableScan.snapshot(inventory);
+        assertTrue(scan.canCook(omelette));
+        assertEquals(2, scan.getServings(omelette));
+        assertEquals(1, index.getCookableRecipes().size());
+        assertTrue(new CookRecipeCommand(omelette).getMissingIngredients(inventory).isEmpty());
+        index.close();
+    }
+
+    @Test
+    void testTopServingsMatchesSortedScan() {
+        Random random = new Random(31);
+        for (int i = 0; i < 20; i++) {
+            inventory.addItem(new Ingredient("Item" + i, 1 + random.nextInt(30)), false);
+        }
+        ArrayList<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < 2000; r++) {
+            ArrayList<Ingredient> lines = new ArrayList<>();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                lines.add(new Ingredient("item" + random.nextInt(25), 1 + random.nextInt(6)));
+            }
+            recipes.add(new Recipe("R" + r, lines));
+        }
+        testBook.addAllItems(recipes);
+
+        // Reference: servings of every recipe by lookups, then a stable sort
+        ArrayList<Recipe> expected = new ArrayList<>();
+        ArrayList<Integer> expectedServings = new ArrayList<>();
+        for (Recipe recipe : testBook.getItems()) {
+            int servings = Integer.MAX_VALUE;
+            for (Map.Entry<String, Integer> required : requiredTotals(recipe).entrySet()) {
+                Ingredient available = inventory.getItemByName(required.getKey());
+                int quantity = available == null ? 0 : available.getQuantity();
+                servings = Math.min(servings, quantity / required.getValue());
+            }
+            if (servings > 0) {
+                expected.add(recipe);
+                expectedServings.add(servings);
+            }
+        }
+        ArrayList<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < expected.size(); i++) {
+            positions.add(i);
+        }
+        positions.sort((a, b) -> Integer.compare(expectedServings.get(b), expectedServings.get(a)));
+
+        CookableScan scan = CookableScan.snapshot(inventory);
+        for (int limit : new int[] {1, 5, 100, Integer.MAX_VALUE}) {
+            ArrayList<CookableScan.Servings> ranked = scan.findTopServings(testBook.getItems(), limit);
+            assertEquals(Math.min(limit, positions.size()), ranked.size());
+            for (int i = 0; i < ranked.size(); i++) {
+                assertEquals(expected.get(positions.get(i)), ranked.get(i).getRecipe());
+                assertEquals((int) expectedServings.get(positions.get(i)), ranked.get(i).getServings());
+            }
+        }
+        assertEquals(scanCookableRecipes(testBook, inventory), scan.findCookable(testBook.getItems()));
+    }
 }
@@ -0,0 +1,84 @@
+package kitchenctrl;
+
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.CookableScan;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures how a cookable-recipe scan over a large recipe book scales with the number of worker threads,
+ * from one up to the number of available processors.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class CookableScanBenchmark {
+    private static final int RECIPE_COUNT = 500_000;
+    private static final int INGREDIENT_POOL = 20_000;
+    private static final int RUNS = 7;
+
+    private static long medianNanos(CookableScan scan, RecipeBook recipeBook, ForkJoinPool pool, int expected) {
+        long[] times = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            ArrayList<Recipe> cookable = scan.findCookable(recipeBook.getItems(), pool, 1);
+            times[run] = System.nanoTime() - start;
+            assertEquals(expected, cookable.size());
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+
+    @Test
+    public void benchmarkTopServings() {
+        RecipeBook recipeBook = StartupBenchmark.createRecipeBook(RECIPE_COUNT, INGREDIENT_POOL);
+        Inventory inventory = StartupBenchmark.createInventory(INGREDIENT_POOL);
+        CookableScan scan = CookableScan.snapshot(inventory);
+
+        for (int limit : new int[] {10, Integer.MAX_VALUE}) {
+            long[] times = new long[RUNS];
+            int count = 0;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                count = scan.findTopServings(recipeBook.getItems(), limit).size();
+                times[run] = System.nanoTime() - start;
+            }
+            Arrays.sort(times);
+            System.out.printf("BENCH servings over %d recipes, top %d: %.1f ms (%d listed)%n",
+                    RECIPE_COUNT, limit, times[RUNS / 2] / 1e6, count);
+        }
+    }
+
+    @Test
+    public void benchmarkParallelScan() {
+        RecipeBook recipeBook = StartupBenchmark.createRecipeBook(RECIPE_COUNT, INGREDIENT_POOL);
+        // Quantities in the inventory cycle from 1 up, so some recipes are cookable and others are not
+        Inventory inventory = StartupBenchmark.createInventory(INGREDIENT_POOL);
+        CookableScan scan = CookableScan.snapshot(inventory);
+        int expected = scan.findCookable(recipeBook.getItems(), ForkJoinPool.commonPool(), Integer.MAX_VALUE).size();
+
+        long baseline = 0;
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads = threads == processors ? threads + 1
+                : Math.min(threads * 2, processors)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                medianNanos(scan, recipeBook, pool, expected); // Warm up
+                long nanos = medianNanos(scan, recipeBook, pool, expected);
+                baseline = threads == 1 ? nanos : baseline;
+                System.out.printf("BENCH %d recipes, %d thread(s): %.1f ms (%.2fx)%n",
+                        RECIPE_COUNT, threads, nanos / 1e6, (double) baseline / nanos);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
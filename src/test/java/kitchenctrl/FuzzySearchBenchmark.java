@@ -0,0 +1,96 @@
+package kitchenctrl;
+
+import model.index.BkTreeIndex;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures typo-tolerant lookups in a BK-tree over 100k names against a scan computing every edit distance.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class FuzzySearchBenchmark {
+    private static final int NAME_COUNT = 100_000;
+    private static final int QUERY_COUNT = 200;
+    private static final int LIMIT = 5;
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(2);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            int length = 4 + random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+                name.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return name.toString();
+    }
+
+    private static ArrayList<String> scan(ArrayList<String> names, String query, int maxDistance) {
+        ArrayList<String> result = new ArrayList<>();
+        for (int d = 0; d <= maxDistance && result.size() < LIMIT; d++) {
+            for (String name : names) {
+                if (BkTreeIndex.distance(query, name) == d && result.size() < LIMIT) {
+                    result.add(name);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void benchmarkFuzzyLookup() {
+        Random random = new Random(11);
+        ArrayList<String> names = new ArrayList<>();
+        BkTreeIndex<String> index = new BkTreeIndex<>(Function.identity());
+        long start = System.nanoTime();
+        for (int i = 0; i < NAME_COUNT; i++) {
+            names.add(randomName(random));
+            index.add(names.get(i));
+        }
+        System.out.printf("BENCH build BK-tree over %d names: %.1f ms%n", NAME_COUNT,
+                (System.nanoTime() - start) / 1e6);
+
+        String[] queries = new String[QUERY_COUNT];
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            // Two typos in an existing name
+            StringBuilder query = new StringBuilder(names.get(random.nextInt(NAME_COUNT)));
+            query.setCharAt(random.nextInt(query.length()), 'x');
+            query.deleteCharAt(random.nextInt(query.length()));
+            queries[q] = query.toString();
+        }
+
+        for (int maxDistance = 1; maxDistance <= 2; maxDistance++) {
+            long[] times = new long[QUERY_COUNT];
+            for (int q = 0; q < QUERY_COUNT; q++) {
+                long queryStart = System.nanoTime();
+                ArrayList<String> found = index.findWithin(queries[q], maxDistance, LIMIT);
+                times[q] = System.nanoTime() - queryStart;
+                if (q % 20 == 0) {
+                    assertEquals(scan(names, queries[q], maxDistance).size(), found.size());
+                }
+            }
+            Arrays.sort(times);
+            System.out.printf("BENCH BK-tree lookup within %d over %d names: median %.2f ms, p95 %.2f ms%n",
+                    maxDistance, NAME_COUNT, times[QUERY_COUNT / 2] / 1e6, times[QUERY_COUNT * 95 / 100] / 1e6);
+        }
+
+        long scanStart = System.nanoTime();
+        for (int q = 0; q < 10; q++) {
+            scan(names, queries[q], 2);
+        }
+        System.out.printf("BENCH full scan within 2 over %d names: %.2f ms per query%n",
+                NAME_COUNT, (System.nanoTime() - scanStart) / 1e6 / 10);
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -136,4 +137,62 @@ public class IngredientCatalogueTest {
         CommandResult result = catalogue.findItem("egg");
         assertTrue(result.getFeedbackToUser().toLowerCase().contains("eggs"));
     }
+
+    @Test
+    public void testAddAllItemsMatchesSequentialAdd() {
+        List<Ingredient> ingredients = List.of(new Ingredient("Flour", 2), new Ingredient("Brown Sugar", 1),
+                new Ingredient("flour", 3), new Ingredient("Sugar", 4), new Ingredient("SUGAR", 1));
+
+        IngredientCatalogue sequential = new TestCatalogue();
+        for (Ingredient ingredient : ingredients) {
+            sequential.addItem(new Ingredient(ingredient.getIngredientName(), ingredient.getQuantity()), true);
+        }
+        catalogue.addAllItems(ingredients);
+
+        assertEquals(sequential.getCatalogueContent(), catalogue.getCatalogueContent());
+        assertEquals(5, catalogue.getItemByName("Flour").getQuantity());
+        assertEquals(5, catalogue.getItemByName("sugar").getQuantity());
+    }
+
+    @Test
+    public void testNameIndexFollowsRemovals() {
+        catalogue.addItem(flour, false);
+        catalogue.addItem(eggs, false);
+
+        catalogue.deleteItem(new Ingredient("FLOUR", 2)); // removes it completely
+        assertNull(catalogue.getItemByName("Flour"));
+        assertNotNull(catalogue.getItemByName("eggs"));
+
+        catalogue.addItem(new Ingredient("Flour", 7), false);
+        assertEquals(7, catalogue.getItemByName("flour").getQuantity());
+
+        catalogue.removeAllIngredients();
+        assertNull(catalogue.getItemByName("Eggs"));
+        assertTrue(catalogue.getItems().isEmpty());
+    }
+
+    @Test
+    public void testVersionChangesOnEveryMutation() {
+        long version = catalogue.getVersion();
+        catalogue.addItem(flour, false);
+        assertTrue(catalogue.getVersion() > version);
+
+        version = catalogue.getVersion();
+        catalogue.editItem(new Ingredient("Flour", 9));
+        assertTrue(catalogue.getVersion() > version);
+
+        version = catalogue.getVersion();
+        assertTrue(catalogue.consumeAll(List.of(new Ingredient("Flour", 2)), 2).isEmpty());
+        assertTrue(catalogue.getVersion() > version);
+
+        version = catalogue.getVersion();
+        catalogue.deleteItem(new Ingredient("Flour", 5));
+        assertTrue(catalogue.getVersion() > version);
+
+        version = catalogue.getVersion();
+        catalogue.editItem(new Ingredient("Eggs", 3)); // Not in the catalogue
+        catalogue.getItemByName("Flour");
+        catalogue.findItem("flour");
+        assertEquals(version, catalogue.getVersion());
+    }
 }
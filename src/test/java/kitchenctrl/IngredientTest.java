@@ -1,11 +1,13 @@
 package kitchenctrl;
 
 import model.Ingredient;
+import model.IngredientDictionary;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class IngredientTest {
 
@@ -46,4 +48,30 @@ public class IngredientTest {
         ingredient.subtractQuantity(4);
         assertEquals(6, ingredient.getQuantity());
     }
+
+    @Test
+    public void testDictionarySharesIdsAndNames() {
+        Ingredient lower = new Ingredient("brown sugar", 1);
+        Ingredient upper = new Ingredient("Brown Sugar", 2);
+        Ingredient padded = new Ingredient(" BROWN SUGAR ", 3);
+
+        assertEquals(lower.getId(), upper.getId());
+        assertEquals(lower.getId(), padded.getId());
+        assertEquals(lower, padded);
+        assertEquals(lower.hashCode(), upper.hashCode());
+        assertEquals("Brown Sugar", upper.getIngredientName()); // Each ingredient keeps its own spelling
+        assertEquals(lower.getId(), IngredientDictionary.findId("brown SUGAR"));
+        assertEquals(-1, IngredientDictionary.findId("never seen before"));
+
+        String spelling = new String("Brown Sugar");
+        assertSame(upper.getIngredientName(), new Ingredient(spelling, 1).getIngredientName());
+    }
+
+    @Test
+    public void testRenameUpdatesId() {
+        Ingredient ingredient = new Ingredient("Butter", 1);
+        ingredient.setIngredientName("Margarine");
+        assertEquals(new Ingredient("margarine", 1), ingredient);
+        assertNotEquals(new Ingredient("butter", 1), ingredient);
+    }
 }
@@ -0,0 +1,66 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.CompactInventory;
+import model.catalogue.Inventory;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the heap used by a regular {@link Inventory} and a {@link CompactInventory} holding 1M ingredients.
+ * Ingredient names are interned in the shared dictionary before measuring, so only the inventories are counted.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class InventoryMemoryBenchmark {
+    private static final int INGREDIENT_COUNT = 1_000_000;
+
+    /**
+     * Returns the heap in use after a few garbage collections. Also used by {@link RecipeMemoryBenchmark}.
+     */
+    static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long measure(String[] names, Supplier<Inventory> factory) {
+        long before = usedHeap();
+        Inventory inventory = factory.get();
+        ArrayList<Ingredient> batch = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            batch.add(new Ingredient(names[i], 1 + i % 500));
+            if (batch.size() == 10_000) {
+                inventory.addAllItems(batch);
+                batch.clear();
+            }
+        }
+        inventory.addAllItems(batch);
+        long after = usedHeap();
+
+        assertEquals(INGREDIENT_COUNT, inventory.getItems().size());
+        return after - before;
+    }
+
+    @Test
+    public void benchmarkInventoryFootprint() {
+        String[] names = new String[INGREDIENT_COUNT];
+        for (int i = 0; i < INGREDIENT_COUNT; i++) {
+            names[i] = new Ingredient(StartupBenchmark.ingredientName(i), 1).getIngredientName();
+        }
+
+        long regularBytes = measure(names, Inventory::new);
+        long compactBytes = measure(names, CompactInventory::new);
+        System.out.println("BENCH " + INGREDIENT_COUNT + " ingredients: Inventory " + regularBytes / (1 << 20)
+                + " MB (" + regularBytes / INGREDIENT_COUNT + " B/item), CompactInventory "
+                + compactBytes / (1 << 20) + " MB (" + compactBytes / INGREDIENT_COUNT + " B/item)");
+    }
+}
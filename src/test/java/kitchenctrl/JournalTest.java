@@ -0,0 +1,197 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import storage.CatalogueContentManager;
+import storage.CatalogueJournal;
+import storage.StorageFormat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalTest {
+    private Path dataDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("journaldata");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.walk(dataDir)
+                .sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+    }
+
+    private CatalogueContentManager createManager() {
+        CatalogueContentManager manager = new CatalogueContentManager();
+        manager.setBasePath(dataDir);
+        manager.setInventoryFilePath(dataDir.resolve("inventory.txt"));
+        manager.setRecipeBookFilePath(dataDir.resolve("recipe_book.txt"));
+        return manager;
+    }
+
+    @Test
+    public void testInventoryMutationsSurviveWithoutSave() throws IOException {
+        CatalogueContentManager manager = createManager();
+        Inventory inventory = manager.loadInventory();
+        RecipeBook recipeBook = manager.loadRecipeBook();
+        manager.openJournals(inventory, recipeBook);
+
+        inventory.addItem(new Ingredient("Flour", 5), true);
+        inventory.addItem(new Ingredient("Eggs", 12), true);
+        inventory.deleteItem(new Ingredient("Eggs", 2));
+        inventory.editItem(new Ingredient("Flour", 3));
+        manager.commitJournals();
+
+        // Simulate a crash: the data file was never rewritten
+        assertTrue(Files.readString(manager.getInventoryFilePath()).isBlank());
+
+        Inventory reloaded = createManager().loadInventory();
+        assertEquals(2, reloaded.getItems().size());
+        assertEquals(3, reloaded.getItemByName("Flour").getQuantity());
+        assertEquals(10, reloaded.getItemByName("Eggs").getQuantity());
+    }
+
+    @Test
+    public void testRecipeMutationsSurviveWithoutSave() throws IOException {
+        CatalogueContentManager manager = createManager();
+        Inventory inventory = manager.loadInventory();
+        RecipeBook recipeBook = manager.loadRecipeBook();
+        manager.openJournals(inventory, recipeBook);
+
+        Recipe pancakes = new Recipe("Pancakes");
+        recipeBook.addItem(pancakes, true);
+        pancakes.addItem(new Ingredient("Flour", 2), true);
+        pancakes.addItem(new Ingredient("Milk", 1), true);
+        recipeBook.addItem(new Recipe("Toast"), true);
+        recipeBook.deleteItem(new Recipe("Toast"));
+        manager.commitJournals();
+
+        RecipeBook reloaded = createManager().loadRecipeBook();
+        assertEquals(1, reloaded.getItems().size());
+        Recipe recipe = reloaded.getItemByName("Pancakes");
+        assertNotNull(recipe);
+        assertEquals(2, recipe.getItemByName("Flour").getQuantity());
+        assertEquals(1, recipe.getItemByName("Milk").getQuantity());
+    }
+
+    @Test
+    public void testUncommittedAndTornRecordsAreIgnored() throws IOException {
+        CatalogueContentManager manager = createManager();
+        Inventory inventory = manager.loadInventory();
+        manager.openJournals(inventory, manager.loadRecipeBook());
+
+        inventory.addItem(new Ingredient("Salt", 1), true);
+        manager.commitJournals();
+        inventory.addItem(new Ingredient("Pepper", 1), true); // never committed
+
+        Path journalPath = CatalogueJournal.getJournalPath(manager.getInventoryFilePath());
+        Files.writeString(journalPath, "SET\t7\tSug", StandardOpenOption.APPEND); // torn record
+
+        Inventory reloaded = createManager().loadInventory();
+        assertNotNull(reloaded.getItemByName("Salt"));
+        assertNull(reloaded.getItemByName("Pepper"));
+        assertNull(reloaded.getItemByName("Sug"));
+    }
+
+    @Test
+    public void testSaveResetsJournal() throws IOException {
+        CatalogueContentManager manager = createManager();
+        Inventory inventory = manager.loadInventory();
+        manager.openJournals(inventory, manager.loadRecipeBook());
+
+        inventory.addItem(new Ingredient("Butter", 4), true);
+        manager.commitJournals();
+        manager.saveToFile(inventory);
+
+        Path journalPath = CatalogueJournal.getJournalPath(manager.getInventoryFilePath());
+        assertEquals(0, Files.size(journalPath));
+
+        Inventory reloaded = createManager().loadInventory();
+        assertEquals(1, reloaded.getItems().size());
+        assertEquals(4, reloaded.getItemByName("Butter").getQuantity());
+    }
+
+    @Test
+    public void testCheckpointFoldsJournalIntoDataFile() throws IOException {
+        CatalogueContentManager manager = createManager();
+        Inventory inventory = manager.loadInventory();
+        manager.openJournals(inventory, manager.loadRecipeBook());
+
+        for (int i = 0; i < CatalogueJournal.CHECKPOINT_INTERVAL; i++) {
+            inventory.addItem(new Ingredient("Item" + i, 1), true);
+        }
+        manager.commitJournals();
+        manager.closeJournals(); // waits for the background checkpoint
+
+        assertTrue(Files.readString(manager.getInventoryFilePath()).contains("Item499 (1)"));
+        assertFalse(Files.exists(CatalogueJournal.getRotatedJournalPath(manager.getInventoryFilePath())));
+
+        Inventory reloaded = createManager().loadInventory();
+        assertEquals(CatalogueJournal.CHECKPOINT_INTERVAL, reloaded.getItems().size());
+    }
+
+    @Test
+    public void testFailedCheckpointKeepsRecordsAcrossRotations() throws IOException {
+        CatalogueContentManager manager = createManager();
+        Inventory inventory = manager.loadInventory();
+        Path inventoryFile = manager.getInventoryFilePath();
+        // A non-empty directory in place of the temporary file makes every checkpoint fail
+        Files.createFile(Files.createDirectory(dataDir.resolve("inventory.txt.tmp")).resolve("blocker"));
+        CatalogueJournal journal = new CatalogueJournal(inventoryFile, inventory, 0, StorageFormat.TEXT);
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < CatalogueJournal.CHECKPOINT_INTERVAL; i++) {
+                inventory.addItem(new Ingredient("Item" + round + "-" + i, 1), true);
+            }
+            journal.commit();
+            journal.awaitCheckpoint();
+            assertTrue(Files.exists(CatalogueJournal.getRotatedJournalPath(inventoryFile)));
+        }
+        inventory.addItem(new Ingredient("Last", 1), true);
+        journal.commit();
+
+        // Simulate a crash: neither checkpoint reached the data file
+        assertTrue(Files.readString(inventoryFile).isBlank());
+        Inventory reloaded = createManager().loadInventory();
+        assertEquals(inventory.getCatalogueContent(), reloaded.getCatalogueContent());
+        journal.close();
+    }
+
+    @Test
+    public void testCheckpointWritesStorageFormat() throws IOException {
+        CatalogueContentManager manager = createManager();
+        Inventory inventory = manager.loadInventory();
+        manager.openJournals(inventory, manager.loadRecipeBook());
+        manager.setStorageFormat(StorageFormat.BINARY);
+
+        for (int i = 0; i < CatalogueJournal.CHECKPOINT_INTERVAL; i++) {
+            inventory.addItem(new Ingredient("Item" + i, 1 + i), true);
+        }
+        manager.commitJournals();
+        manager.closeJournals(); // waits for the background checkpoint
+
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(manager.getInventoryFilePath()));
+        Inventory reloaded = createManager().loadInventory();
+        assertEquals(inventory.getCatalogueContent(), reloaded.getCatalogueContent());
+    }
+}
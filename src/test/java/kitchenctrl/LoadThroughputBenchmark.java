@@ -0,0 +1,193 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import storage.CatalogueContentManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ui.inputparser.Parser.parseName;
+import static ui.inputparser.Parser.parseQuantity;
+
+/**
+ * Measures how fast inventory and recipe book files of several hundred MB load through the streaming
+ * block reader, against reading every line into a list and parsing it with regular expressions as loading used to,
+ * and how recipe book loading scales with the workers reading chunks in parallel.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class LoadThroughputBenchmark {
+    /** Inventory lines; names repeat so that the file is large but the inventory stays small. */
+    private static final int INVENTORY_LINES = 10_000_000;
+    private static final int DISTINCT_INGREDIENTS = 100_000;
+    private static final int RECIPE_COUNT = 1_000_000;
+    private static final int INGREDIENTS_PER_RECIPE = 6;
+    private static final int[] WORKER_COUNTS = {1, 2, 4};
+
+    private Path dataDir;
+    private CatalogueContentManager manager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("benchmarkdata");
+        manager = new CatalogueContentManager();
+        manager.setBasePath(dataDir);
+        manager.setInventoryFilePath(dataDir.resolve("inventory.txt"));
+        manager.setRecipeBookFilePath(dataDir.resolve("recipe_book.txt"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.walk(dataDir)
+                .sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+    }
+
+    @Test
+    public void benchmarkInventoryLoad() throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(manager.getInventoryFilePath())) {
+            for (int i = 0; i < INVENTORY_LINES; i++) {
+                writer.write(StartupBenchmark.ingredientName(i % DISTINCT_INGREDIENTS) + " (" + (1 + i % 9) + ")\n");
+            }
+        }
+        double megabytes = Files.size(manager.getInventoryFilePath()) / 1e6;
+
+        long start = System.nanoTime();
+        Inventory legacy = loadInventoryFromLines(Files.readAllLines(manager.getInventoryFilePath()));
+        double legacySeconds = (System.nanoTime() - start) / 1e9;
+        int legacyCount = legacy.getItems().size();
+        int legacyQuantity = legacy.getItemByName(StartupBenchmark.ingredientName(1)).getQuantity();
+        legacy = null; // Let the first inventory be collected before loading the second
+
+        start = System.nanoTime();
+        Inventory streamed = manager.loadInventory();
+        double streamedSeconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(legacyCount, streamed.getItems().size());
+        assertEquals(legacyQuantity, streamed.getItemByName(StartupBenchmark.ingredientName(1)).getQuantity());
+        System.out.printf("BENCH load %.0f MB inventory: lines + regex %.2f s (%.0f MB/s), "
+                + "streamed %.2f s (%.0f MB/s)%n",
+                megabytes, legacySeconds, megabytes / legacySeconds, streamedSeconds, megabytes / streamedSeconds);
+    }
+
+    @Test
+    public void benchmarkRecipeBookLoad() throws IOException {
+        writeRecipeBook();
+        double megabytes = Files.size(manager.getRecipeBookFilePath()) / 1e6;
+
+        long start = System.nanoTime();
+        RecipeBook legacy = loadRecipeBookFromLines(Files.readAllLines(manager.getRecipeBookFilePath()));
+        double legacySeconds = (System.nanoTime() - start) / 1e9;
+        int legacyCount = legacy.getItems().size();
+        legacy = null; // Let the first recipe book be collected before loading the second
+
+        start = System.nanoTime();
+        RecipeBook streamed = manager.loadRecipeBook();
+        double streamedSeconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(legacyCount, streamed.getItems().size());
+        System.out.printf("BENCH load %.0f MB recipe book: lines + regex %.2f s (%.0f MB/s), "
+                + "streamed %.2f s (%.0f MB/s)%n",
+                megabytes, legacySeconds, megabytes / legacySeconds, streamedSeconds, megabytes / streamedSeconds);
+    }
+
+    @Test
+    public void benchmarkParallelRecipeBookLoad() throws IOException {
+        writeRecipeBook();
+        double megabytes = Files.size(manager.getRecipeBookFilePath()) / 1e6;
+
+        String expected = null;
+        for (int workers : WORKER_COUNTS) {
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            long start = System.nanoTime();
+            RecipeBook recipeBook = manager.parseRecipeBook(manager.getRecipeBookFilePath(), pool, 0);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+
+            String content = recipeBook.getCatalogueContent();
+            if (expected == null) {
+                expected = content;
+            }
+            assertEquals(expected, content);
+            System.out.printf("BENCH load %.0f MB recipe book on %d workers (%d cores): %.2f s (%.0f MB/s)%n",
+                    megabytes, workers, Runtime.getRuntime().availableProcessors(), seconds, megabytes / seconds);
+        }
+    }
+
+    private void writeRecipeBook() throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(manager.getRecipeBookFilePath())) {
+            for (int r = 0; r < RECIPE_COUNT; r++) {
+                writer.write("recipe" + r + " style" + (r % 31) + "\n");
+                for (int j = 0; j < INGREDIENTS_PER_RECIPE; j++) {
+                    int id = (int) ((r * 7919L + j * 104729L) % DISTINCT_INGREDIENTS);
+                    writer.write(StartupBenchmark.ingredientName(id) + " (" + (1 + (r + j) % 20) + ")\n");
+                }
+                writer.write("\n");
+            }
+        }
+    }
+
+    /** The inventory parsing loading used before the block reader. */
+    private static Inventory loadInventoryFromLines(List<String> lines) {
+        ArrayList<Ingredient> ingredients = new ArrayList<>();
+        for (String line : lines) {
+            String[] parts = line.split("\\s*\\(\\s*|\\s*\\)\\s*");
+            if (parts.length == 2) {
+                ingredients.add(new Ingredient(parseName(parts[0].trim()), parseQuantity(parts[1].trim())));
+            }
+        }
+        Inventory inventory = new Inventory();
+        inventory.addAllItems(ingredients);
+        return inventory;
+    }
+
+    /** The recipe book parsing loading used before the block reader, a pattern compiled per line. */
+    private static RecipeBook loadRecipeBookFromLines(List<String> lines) {
+        String currentRecipeName = null;
+        ArrayList<Ingredient> currentIngredients = new ArrayList<>();
+        ArrayList<Recipe> recipes = new ArrayList<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                if (currentRecipeName != null) {
+                    recipes.add(new Recipe(currentRecipeName, currentIngredients));
+                    currentRecipeName = null;
+                    currentIngredients = new ArrayList<>();
+                }
+            } else if (currentRecipeName == null) {
+                currentRecipeName = line;
+            } else {
+                Matcher matcher = Pattern.compile("^(.+?)\\s*\\((\\d+)\\)$").matcher(line);
+                if (matcher.matches()) {
+                    currentIngredients.add(new Ingredient(parseName(matcher.group(1)),
+                            parseQuantity(matcher.group(2))));
+                }
+            }
+        }
+        if (currentRecipeName != null) {
+            recipes.add(new Recipe(currentRecipeName, currentIngredients));
+        }
+        RecipeBook recipeBook = new RecipeBook();
+        recipeBook.addAllItems(recipes);
+        return recipeBook;
+    }
+}
@@ -2,10 +2,16 @@ package kitchenctrl;
 
 import commands.CommandResult;
 import commands.CookRecipeCommand;
+import commands.EditRecipeCommand;
+import commands.ShopCommand;
 import controller.KitchenCTRL;
 import controller.ScreenState;
 import model.catalogue.Catalogue;
+import model.catalogue.CatalogueListener;
+import model.catalogue.CompactInventory;
+import model.catalogue.IngredientCatalogue;
 import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
 import model.catalogue.Inventory;
 import model.Ingredient;
 
@@ -14,8 +20,10 @@ import org.junit.jupiter.api.Test;
 
 import static controller.ScreenState.RECIPEBOOK;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.ArrayList;
+import java.util.List;
 
 public class LogicTest {
     private Inventory testInventory;
@@ -112,4 +120,134 @@ public class LogicTest {
         assertEquals(700, testInventory.getItemByName("Flour").getQuantity());
         assertEquals(3, testInventory.getItemByName("Eggs").getQuantity());
     }
+
+    @Test
+    public void shoppingListMergesRepeatedRecipes() {
+        testInventory.removeAllIngredients();
+        testInventory.addItem(new Ingredient("Bread", 1), false);
+        testInventory.addItem(new Ingredient("Milk", 1), false);
+
+        Recipe toast = new Recipe("Toast");
+        toast.addItem(new Ingredient("Bread", 1), false);
+        Recipe sandwich = new Recipe("Sandwich");
+        sandwich.addItem(new Ingredient("bread", 2), false);
+        sandwich.addItem(new Ingredient("Egg", 1), false);
+        sandwich.addItem(new Ingredient("Milk", 1), false);
+
+        ArrayList<Ingredient> shoppingList = ShopCommand.getShoppingList(
+                List.of(toast, sandwich, sandwich), testInventory);
+
+        // 5 bread and 2 milk are needed, 1 of each is in stock
+        ArrayList<Ingredient> expected = new ArrayList<>();
+        expected.add(new Ingredient("Bread", 4));
+        expected.add(new Ingredient("Egg", 2));
+        expected.add(new Ingredient("Milk", 1));
+        assertEquals(expected.toString(), shoppingList.toString());
+
+        // A single recipe matches the missing ingredients of cooking it
+        assertEquals(new CookRecipeCommand(sandwich).getMissingIngredients(testInventory).toString(),
+                ShopCommand.getShoppingList(List.of(sandwich), testInventory).toString());
+    }
+
+    @Test
+    public void cookSeveralServingsInOneTransaction() {
+        testInventory.removeAllIngredients();
+        testInventory.addItem(new Ingredient("Milk", 300), false);
+        testInventory.addItem(new Ingredient("Eggs", 5), false);
+
+        Recipe recipe = new Recipe("Custard");
+        recipe.addItem(new Ingredient("Milk", 100), false);
+        recipe.addItem(new Ingredient("Eggs", 2), false);
+
+        // Three servings need 6 eggs: nothing may be deducted
+        CommandResult result = new CookRecipeCommand(recipe, 3).execute(currentCatalogue);
+        assertEquals("Missing ingredients: [Eggs (1)]", result.getFeedbackToUser());
+        assertEquals(300, testInventory.getItemByName("Milk").getQuantity());
+        assertEquals(5, testInventory.getItemByName("Eggs").getQuantity());
+
+        result = new CookRecipeCommand(recipe, 2).execute(currentCatalogue);
+        assertEquals("Recipe successfully cooked: Custard x2. Ingredients have been deducted from inventory.",
+                result.getFeedbackToUser());
+        assertEquals(100, testInventory.getItemByName("Milk").getQuantity());
+        assertEquals(1, testInventory.getItemByName("Eggs").getQuantity());
+    }
+
+    @Test
+    public void consumeAllRollsBackWhenADeductionFails() {
+        testInventory.removeAllIngredients();
+        testInventory.addItem(new Ingredient("Milk", 300), false);
+        testInventory.addItem(new Ingredient("Flour", 500), false);
+        testInventory.addItem(new Ingredient("Eggs", 2), false);
+
+        CatalogueListener failOnSecondChange = new CatalogueListener() {
+            private int changes;
+
+            @Override
+            public void ingredientChanged(IngredientCatalogue catalogue, String name, int newQuantity) {
+                if (++changes == 2) {
+                    throw new IllegalStateException("Simulated failure");
+                }
+            }
+        };
+        testInventory.addListener(failOnSecondChange);
+        List<Ingredient> lines = List.of(new Ingredient("Milk", 100), new Ingredient("Flour", 200),
+                new Ingredient("milk", 50), new Ingredient("Eggs", 2));
+        assertThrows(IllegalStateException.class, () -> testInventory.consumeAll(lines, 1));
+        testInventory.removeListener(failOnSecondChange);
+
+        assertEquals(300, testInventory.getItemByName("Milk").getQuantity());
+        assertEquals(500, testInventory.getItemByName("Flour").getQuantity());
+        assertEquals(2, testInventory.getItemByName("Eggs").getQuantity());
+
+        // Repeated lines are added up: 150 milk
+        assertTrue(testInventory.consumeAll(lines, 1).isEmpty());
+        assertEquals(150, testInventory.getItemByName("Milk").getQuantity());
+        assertEquals(300, testInventory.getItemByName("Flour").getQuantity());
+        assertEquals(null, testInventory.getItemByName("Eggs"));
+    }
+
+    @Test
+    public void consumeAllRollbackKeepsIngredientOrder() {
+        for (Inventory inventory : List.of(new Inventory(), new CompactInventory())) {
+            inventory.addItem(new Ingredient("Eggs", 2), true);
+            inventory.addItem(new Ingredient("Milk", 300), true);
+            inventory.addItem(new Ingredient("Flour", 500), true);
+            inventory.addItem(new Ingredient("Salt", 5), true);
+            String content = inventory.getCatalogueContent();
+            String found = inventory.findItem("l").getFeedbackToUser(); // Builds the substring index
+
+            CatalogueListener failOnThirdChange = new CatalogueListener() {
+                private int changes;
+
+                @Override
+                public void ingredientChanged(IngredientCatalogue catalogue, String name, int newQuantity) {
+                    if (++changes == 3) {
+                        throw new IllegalStateException("Simulated failure");
+                    }
+                }
+            };
+            inventory.addListener(failOnThirdChange);
+            List<Ingredient> lines = List.of(new Ingredient("Flour", 100), new Ingredient("Eggs", 2),
+                    new Ingredient("Milk", 300));
+            assertThrows(IllegalStateException.class, () -> inventory.consumeAll(lines, 1));
+            inventory.removeListener(failOnThirdChange);
+
+            assertEquals(content, inventory.getCatalogueContent());
+            assertEquals(found, inventory.findItem("l").getFeedbackToUser());
+        }
+    }
+
+    @Test
+    public void editRecipeSuggestsCloseNamesOnMiss() {
+        RecipeBook recipeBook = KitchenCTRL.getRecipeBook();
+        recipeBook.addItem(new Recipe("Zucchini Fritters"), true);
+        try {
+            assertEquals("Recipe not found: zuchini fritters. Did you mean: Zucchini Fritters?",
+                    new EditRecipeCommand("zuchini fritters").execute().getFeedbackToUser());
+            assertEquals("Recipe not found: qqqqqqqqqqqqqqqqqqqq",
+                    new EditRecipeCommand("qqqqqqqqqqqqqqqqqqqq").execute().getFeedbackToUser());
+        } finally {
+            recipeBook.removeItemByName("Zucchini Fritters");
+        }
+    }
 }
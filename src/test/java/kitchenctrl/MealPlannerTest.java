@@ -0,0 +1,116 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.planner.MealPlanner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static kitchenctrl.RecipeFixtures.recipe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MealPlannerTest {
+
+    /** Tries every combination of servings, for small instances only. */
+    private static long bestValueByEnumeration(List<Recipe> recipes, Map<String, Integer> stock, int index,
+            MealPlanner.Goal goal) {
+        if (index == recipes.size()) {
+            return 0;
+        }
+        Recipe recipe = recipes.get(index);
+        long valuePerServing = goal == MealPlanner.Goal.RECIPES ? 1
+                : recipe.getIngredients().stream().mapToInt(Ingredient::getQuantity).sum();
+
+        long best = 0;
+        int times = 0;
+        while (true) {
+            best = Math.max(best, times * valuePerServing + bestValueByEnumeration(recipes, stock, index + 1, goal));
+            boolean isFeasible = true;
+            for (Ingredient line : recipe.getIngredients()) {
+                String key = line.getIngredientName().toLowerCase();
+                isFeasible &= stock.merge(key, -line.getQuantity(), Integer::sum) >= 0;
+            }
+            if (!isFeasible) {
+                break;
+            }
+            times++;
+        }
+        // Give back everything taken for this recipe, including the serving that did not fit
+        for (Ingredient line : recipe.getIngredients()) {
+            stock.merge(line.getIngredientName().toLowerCase(), line.getQuantity() * (times + 1), Integer::sum);
+        }
+        return best;
+    }
+
+    @Test
+    public void weightsChooseBetweenRecipesSharingAnIngredient() {
+        Inventory inventory = new Inventory();
+        inventory.addItem(new Ingredient("Bread", 4), false);
+        inventory.addItem(new Ingredient("Egg", 1), false);
+        Recipe toast = recipe("Toast", "Bread", 1);
+        Recipe sandwich = recipe("Sandwich", "Bread", 2, "Egg", 1);
+
+        MealPlanner.Plan byCount = new MealPlanner(MealPlanner.Goal.RECIPES)
+                .plan(List.of(toast, sandwich), inventory, 1000);
+        assertEquals(Map.of(toast, 4), byCount.getServings());
+        assertTrue(byCount.isOptimal());
+
+        MealPlanner.Plan byWeight = new MealPlanner(recipe -> recipe == sandwich ? 3 : 1)
+                .plan(List.of(toast, sandwich), inventory, 1000);
+        assertEquals(Map.of(toast, 2, sandwich, 1), byWeight.getServings());
+        assertEquals(5, byWeight.getValue());
+        assertEquals(4, inventory.getItemByName("Bread").getQuantity()); // Planning does not cook
+    }
+
+    @Test
+    public void planIsOptimalOnSmallInstances() {
+        String[] names = {"Flour", "Sugar", "Egg", "Milk"};
+        Random random = new Random(5);
+        for (int round = 0; round < 200; round++) {
+            Inventory inventory = new Inventory();
+            HashMap<String, Integer> stock = new HashMap<>();
+            for (String name : names) {
+                int quantity = random.nextInt(12);
+                if (quantity > 0) {
+                    inventory.addItem(new Ingredient(name, quantity), false);
+                    stock.put(name.toLowerCase(), quantity);
+                }
+            }
+            ArrayList<Recipe> recipes = new ArrayList<>();
+            for (int r = 0; r < 1 + random.nextInt(4); r++) {
+                Recipe recipe = new Recipe("R" + r);
+                for (String name : names) {
+                    if (random.nextInt(3) == 0) {
+                        recipe.addItem(new Ingredient(name, 1 + random.nextInt(4)), false);
+                    }
+                }
+                recipes.add(recipe);
+            }
+
+            for (MealPlanner.Goal goal : MealPlanner.Goal.values()) {
+                MealPlanner.Plan plan = new MealPlanner(goal).plan(recipes, inventory, 1000);
+                assertTrue(plan.isOptimal());
+                // Recipes requiring nothing are never planned
+                List<Recipe> plannable = recipes.stream().filter(recipe -> recipe.getItems().size() > 0).toList();
+                assertEquals(bestValueByEnumeration(plannable, stock, 0, goal), plan.getValue());
+
+                HashMap<String, Integer> used = new HashMap<>();
+                for (Map.Entry<Recipe, Integer> entry : plan.getServings().entrySet()) {
+                    for (Ingredient line : entry.getKey().getIngredients()) {
+                        used.merge(line.getIngredientName().toLowerCase(), line.getQuantity() * entry.getValue(),
+                                Integer::sum);
+                    }
+                }
+                used.forEach((name, quantity) -> assertFalse(quantity > stock.getOrDefault(name, 0)));
+            }
+        }
+    }
+}
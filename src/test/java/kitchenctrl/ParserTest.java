@@ -8,6 +8,8 @@ import commands.ListCommand;
 import commands.ByeCommand;
 import commands.GoToCommand;
 import commands.CommandResult;
+import commands.UnlockCommand;
+import commands.UsesCommand;
 
 import controller.ScreenState;
 import controller.KitchenCTRL;
@@ -138,6 +140,15 @@ class ParserTest {
                 parser.parseCommand("delete milk two"));
     }
 
+    @Test
+    public void testInventoryCommand_unlock() {
+        KitchenCTRL.setCurrentScreen(ScreenState.INVENTORY);
+        assertInstanceOf(UnlockCommand.class, parser.parseCommand("unlock"));
+        assertInstanceOf(UnlockCommand.class, parser.parseCommand("unlock 2"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parseCommand("unlock 3"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parseCommand("unlock two"));
+    }
+
     // --- RECIPE SCREEN COMMANDS ---
 
     @Test
@@ -191,4 +202,12 @@ class ParserTest {
         assertThrows(IllegalArgumentException.class, () ->
                 parser.parseCommand("add eggs 2"));
     }
+
+    @Test
+    public void testRecipeBookCommand_uses() {
+        KitchenCTRL.setCurrentScreen(ScreenState.RECIPEBOOK);
+        assertInstanceOf(UsesCommand.class, parser.parseCommand("uses egg & milk & !nuts | toast"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parseCommand("uses egg & | toast"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parseCommand("uses !"));
+    }
 }
@@ -1,14 +1,22 @@
 package kitchenctrl;
 
+import model.Ingredient;
+import model.catalogue.CatalogueListener;
+import model.catalogue.IngredientCatalogue;
 import model.catalogue.Recipe;
 import model.catalogue.RecipeBook;
 import commands.CommandResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RecipeBookTest {
@@ -114,4 +122,78 @@ class RecipeBookTest {
         assertNotNull(result);
         assertEquals("Please provide a keyword to search.", result.getFeedbackToUser());
     }
+
+    @Test
+    void addAllItems_skipsExactDuplicates() {
+        recipeBook.addItem(recipe1, true);
+        Recipe pizza = new Recipe("Pizza");
+        recipeBook.addAllItems(List.of(new Recipe("pasta"), pizza, new Recipe("PIZZA"), new Recipe("Pasta Bake")));
+
+        assertEquals(3, recipeBook.getItems().size());
+        assertTrue(recipeBook.getItems().contains(recipe1));
+        assertSame(pizza, recipeBook.getItemByName("Pizza"));
+        assertNotNull(recipeBook.getItemByName("Pasta Bake"));
+    }
+
+    @Test
+    void getItemByName_followsEditsAndDeletes() {
+        recipeBook.addItem(recipe1, false);
+        Recipe updatedRecipe = new Recipe("Spaghetti");
+        recipeBook.editItem(recipe1, updatedRecipe);
+
+        assertNull(recipeBook.getItemByName("Pasta"));
+        assertSame(updatedRecipe, recipeBook.getItemByName("  spaghetti "));
+        assertEquals("A recipe with the name SPAGHETTI already exists.",
+                recipeBook.editItem(recipe1, new Recipe("SPAGHETTI")).getFeedbackToUser());
+
+        recipeBook.deleteItem(new Recipe("Spaghetti"));
+        assertNull(recipeBook.getItemByName("Spaghetti"));
+    }
+
+    @Test
+    void getVersion_followsRecipeEditsUntilRemoved() {
+        recipeBook.addItem(recipe1, true);
+        long version = recipeBook.getVersion();
+
+        recipe1.addItem(new Ingredient("Flour", 2), true);
+        assertTrue(recipeBook.getVersion() > version);
+
+        version = recipeBook.getVersion();
+        recipe1.freeze();
+        recipe1.expand();
+        assertEquals(version, recipeBook.getVersion());
+
+        Recipe updatedRecipe = new Recipe("Spaghetti");
+        recipeBook.editItem(recipe1, updatedRecipe);
+        assertTrue(recipeBook.getVersion() > version);
+
+        version = recipeBook.getVersion();
+        recipe1.addItem(new Ingredient("Salt", 1), true); // No longer in the book
+        assertEquals(version, recipeBook.getVersion());
+        updatedRecipe.addItem(new Ingredient("Salt", 1), true);
+        assertTrue(recipeBook.getVersion() > version);
+
+        recipeBook.deleteItem(updatedRecipe);
+        version = recipeBook.getVersion();
+        updatedRecipe.addItem(new Ingredient("Pepper", 1), true);
+        assertEquals(version, recipeBook.getVersion());
+    }
+
+    @Test
+    void addListener_hearsRecipeEditsUntilRemoved() {
+        List<String> events = new ArrayList<>();
+        recipeBook.addListener(new CatalogueListener() {
+            @Override
+            public void ingredientChanged(IngredientCatalogue catalogue, String ingredientName, int newQuantity) {
+                events.add(((Recipe) catalogue).getRecipeName() + " " + ingredientName + " " + newQuantity);
+            }
+        });
+        recipeBook.addItem(recipe1, true);
+
+        recipe1.addItem(new Ingredient("Flour", 2), true);
+        recipe1.restoreQuantity("Flour", 0);
+        recipeBook.deleteItem(recipe1);
+        recipe1.addItem(new Ingredient("Salt", 1), true); // No longer in the book
+        assertEquals(List.of("Pasta Flour 2", "Pasta Flour 0"), events);
+    }
 }
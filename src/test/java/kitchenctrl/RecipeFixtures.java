@@ -0,0 +1,55 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Recipe;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Builds the recipes used by the recipe index and planner tests.
+ */
+final class RecipeFixtures {
+    private RecipeFixtures() {
+    }
+
+    /**
+     * Builds a recipe from ingredient names, each optionally followed by its quantity (1 by default),
+     * e.g. {@code recipe("Sandwich", "Bread", 2, "Egg")}.
+     *
+     * @param name  The name of the recipe.
+     * @param lines The ingredient names and quantities.
+     * @return The recipe, with its ingredients added as the user would.
+     */
+    static Recipe recipe(String name, Object... lines) {
+        Recipe recipe = new Recipe(name);
+        for (int i = 0; i < lines.length; i++) {
+            String ingredient = (String) lines[i];
+            int quantity = 1;
+            if (i + 1 < lines.length && lines[i + 1] instanceof Integer given) {
+                quantity = given;
+                i++;
+            }
+            recipe.addItem(new Ingredient(ingredient, quantity), true);
+        }
+        return recipe;
+    }
+
+    /**
+     * Builds a recipe as loaded from storage, so that an ingredient may be listed on several lines.
+     *
+     * @param name           The name of the recipe.
+     * @param random         The source of the line count, names and quantities.
+     * @param maxLines       The largest number of lines.
+     * @param ingredientName Picks the ingredient name of each line.
+     * @return The recipe, frozen.
+     */
+    static Recipe randomRecipe(String name, Random random, int maxLines, Function<Random, String> ingredientName) {
+        ArrayList<Ingredient> lines = new ArrayList<>();
+        for (int i = random.nextInt(maxLines + 1); i > 0; i--) {
+            lines.add(new Ingredient(ingredientName.apply(random), 1 + random.nextInt(3)));
+        }
+        return new Recipe(name, lines);
+    }
+}
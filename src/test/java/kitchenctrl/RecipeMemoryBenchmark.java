@@ -0,0 +1,62 @@
+package kitchenctrl;
+
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.CookableIndex;
+import storage.CatalogueJournal;
+import storage.StorageFormat;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the heap used by a recipe book whose recipes are frozen (as after loading) with one whose
+ * recipes have all been expanded into editable ingredient lists. The frozen book is measured again with
+ * the journal and the cookable index attached, as in the running app.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class RecipeMemoryBenchmark {
+    private static final int RECIPE_COUNT = 200_000;
+    private static final int INGREDIENT_POOL = 20_000;
+
+    @Test
+    public void benchmarkRecipeFootprint() throws IOException {
+        StartupBenchmark.createRecipeBook(1, INGREDIENT_POOL); // Intern the names before measuring
+
+        long before = InventoryMemoryBenchmark.usedHeap();
+        RecipeBook frozen = StartupBenchmark.createRecipeBook(RECIPE_COUNT, INGREDIENT_POOL);
+        long frozenBytes = InventoryMemoryBenchmark.usedHeap() - before;
+
+        before = InventoryMemoryBenchmark.usedHeap();
+        RecipeBook expanded = StartupBenchmark.createRecipeBook(RECIPE_COUNT, INGREDIENT_POOL);
+        for (Recipe recipe : expanded.getItems()) {
+            recipe.expand();
+        }
+        long expandedBytes = InventoryMemoryBenchmark.usedHeap() - before;
+
+        Path dataDir = Files.createTempDirectory("recipememory");
+        Path dataFile = dataDir.resolve("recipe_book.txt");
+        before = InventoryMemoryBenchmark.usedHeap();
+        CatalogueJournal journal = new CatalogueJournal(dataFile, frozen, 0, StorageFormat.TEXT);
+        CookableIndex cookableIndex = new CookableIndex(frozen, new Inventory());
+        long attachedBytes = frozenBytes + InventoryMemoryBenchmark.usedHeap() - before;
+        cookableIndex.close();
+        journal.close();
+        Files.deleteIfExists(CatalogueJournal.getJournalPath(dataFile));
+        Files.delete(dataDir);
+
+        assertEquals(frozen.getCatalogueContent(), expanded.getCatalogueContent());
+        System.out.println("BENCH " + RECIPE_COUNT + " recipes: frozen " + frozenBytes / (1 << 20) + " MB ("
+                + frozenBytes / RECIPE_COUNT + " B/recipe; " + attachedBytes / RECIPE_COUNT
+                + " B/recipe with the journal and cookable index), expanded " + expandedBytes / (1 << 20) + " MB ("
+                + expandedBytes / RECIPE_COUNT + " B/recipe)");
+    }
+}
@@ -0,0 +1,74 @@
+package kitchenctrl;
+
+import commands.UsesCommand;
+import model.IngredientDictionary;
+import model.catalogue.CompactRecipe;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures "egg and milk but not nuts" queries on the posting bitmaps of a large recipe book against a scan.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class RecipePostingBenchmark {
+    private static final int RECIPE_COUNT = 500_000;
+    /** A small pool, so that every ingredient is used by many recipes and postings are dense. */
+    private static final int INGREDIENT_POOL = 200;
+    private static final int RUNS = 21;
+
+    @Test
+    public void benchmarkAndNotQuery() {
+        RecipeBook recipeBook = StartupBenchmark.createRecipeBook(RECIPE_COUNT, INGREDIENT_POOL);
+        long start = System.nanoTime();
+        recipeBook.getPostingIndex();
+        System.out.printf("BENCH build postings over %d recipes: %.1f ms%n",
+                RECIPE_COUNT, (System.nanoTime() - start) / 1e6);
+
+        List<UsesCommand.Clause> clauses = List.of(new UsesCommand.Clause(
+                List.of(StartupBenchmark.ingredientName(119), StartupBenchmark.ingredientName(48)),
+                List.of(StartupBenchmark.ingredientName(3))));
+        long[] times = new long[RUNS];
+        int count = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long queryStart = System.nanoTime();
+            count = UsesCommand.getMatchingRecipes(recipeBook, clauses).size();
+            times[run] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(times);
+
+        int a = IngredientDictionary.findId(StartupBenchmark.ingredientName(119));
+        int b = IngredientDictionary.findId(StartupBenchmark.ingredientName(48));
+        int c = IngredientDictionary.findId(StartupBenchmark.ingredientName(3));
+        long scanStart = System.nanoTime();
+        ArrayList<Recipe> scanned = new ArrayList<>();
+        for (Recipe recipe : recipeBook.getItems()) {
+            CompactRecipe lines = recipe.toCompact();
+            boolean hasA = false;
+            boolean hasB = false;
+            boolean hasC = false;
+            for (int i = 0; i < lines.size(); i++) {
+                hasA |= lines.getId(i) == a;
+                hasB |= lines.getId(i) == b;
+                hasC |= lines.getId(i) == c;
+            }
+            if (hasA && hasB && !hasC) {
+                scanned.add(recipe);
+            }
+        }
+        long scanNanos = System.nanoTime() - scanStart;
+        assertEquals(scanned.size(), count);
+
+        System.out.printf("BENCH a AND b AND NOT c over %d recipes: bitmaps %.2f ms, scan %.1f ms (%d matches)%n",
+                RECIPE_COUNT, times[RUNS / 2] / 1e6, scanNanos / 1e6, count);
+    }
+}
@@ -0,0 +1,111 @@
+package kitchenctrl;
+
+import commands.UsesCommand;
+import model.Ingredient;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecipePostingIndexTest {
+    private static final String[] INGREDIENTS = {"egg", "milk", "nuts", "flour", "sugar", "butter", "salt"};
+
+    @Test
+    public void uses_keepsRecipeAfterDeletingOneOfRepeatedLines() {
+        ArrayList<Ingredient> lines = new ArrayList<>();
+        lines.add(new Ingredient("Egg", 2));
+        lines.add(new Ingredient("Milk", 1));
+        lines.add(new Ingredient("egg", 3));
+        Recipe omelette = new Recipe("Omelette", lines);
+        RecipeBook recipeBook = new RecipeBook();
+        recipeBook.addItem(omelette, true);
+        List<UsesCommand.Clause> usesEgg = List.of(new UsesCommand.Clause(List.of("egg"), List.of()));
+        assertEquals(List.of(omelette), UsesCommand.getMatchingRecipes(recipeBook, usesEgg));
+
+        omelette.deleteItem(new Ingredient("Egg", 2));
+        assertEquals(List.of(omelette), UsesCommand.getMatchingRecipes(recipeBook, usesEgg));
+
+        omelette.deleteItem(new Ingredient("Egg", 3));
+        assertEquals(List.of(), UsesCommand.getMatchingRecipes(recipeBook, usesEgg));
+    }
+
+    @Test
+    public void uses_matchesScanUnderRecipeEdits() {
+        Random random = new Random(29);
+        RecipeBook recipeBook = new RecipeBook();
+        recipeBook.getPostingIndex(); // Built first, so every change below is applied incrementally
+
+        for (int step = 0; step < 2000; step++) {
+            String name = "recipe " + random.nextInt(60);
+            Recipe existing = recipeBook.getItemByName(name);
+            String ingredient = INGREDIENTS[random.nextInt(INGREDIENTS.length)];
+            switch (random.nextInt(6)) {
+            case 0 -> {
+                if (existing == null) {
+                    recipeBook.addItem(randomRecipe(name, random), true);
+                }
+            }
+            case 1 -> recipeBook.removeItemByName(name);
+            case 2 -> {
+                if (existing != null) {
+                    recipeBook.editItem(existing, randomRecipe("recipe " + (60 + step), random));
+                }
+            }
+            // The calls made by AddCommand, DeleteCommand and EditIngredientCommand on the RECIPE screen
+            case 3 -> {
+                if (existing != null) {
+                    existing.addItem(new Ingredient(ingredient, 1 + random.nextInt(3)), true);
+                }
+            }
+            case 4 -> {
+                if (existing != null && existing.getItemByName(ingredient) != null) {
+                    existing.deleteItem(new Ingredient(ingredient, 1));
+                }
+            }
+            default -> {
+                if (existing != null && existing.getItemByName(ingredient) != null) {
+                    existing.editItem(new Ingredient(ingredient, 1 + random.nextInt(3)));
+                }
+            }
+            }
+
+            List<UsesCommand.Clause> clauses = new ArrayList<>();
+            for (int c = 1 + random.nextInt(2); c > 0; c--) {
+                clauses.add(new UsesCommand.Clause(randomNames(random), randomNames(random)));
+            }
+            assertEquals(scan(recipeBook, clauses), UsesCommand.getMatchingRecipes(recipeBook, clauses));
+        }
+    }
+
+    private static Recipe randomRecipe(String name, Random random) {
+        return RecipeFixtures.randomRecipe(name, random, 3, r -> INGREDIENTS[r.nextInt(INGREDIENTS.length)]);
+    }
+
+    private static List<String> randomNames(Random random) {
+        List<String> names = new ArrayList<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            names.add(INGREDIENTS[random.nextInt(INGREDIENTS.length)].toUpperCase());
+        }
+        return names;
+    }
+
+    private static List<Recipe> scan(RecipeBook recipeBook, List<UsesCommand.Clause> clauses) {
+        List<Recipe> result = new ArrayList<>();
+        for (Recipe recipe : recipeBook.getItems()) {
+            for (UsesCommand.Clause clause : clauses) {
+                boolean matches = clause.getRequired().stream().allMatch(name -> recipe.getItemByName(name) != null)
+                        && clause.getExcluded().stream().noneMatch(name -> recipe.getItemByName(name) != null);
+                if (matches) {
+                    result.add(recipe);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
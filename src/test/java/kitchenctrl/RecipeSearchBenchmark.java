@@ -0,0 +1,51 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * Measures building the full-text recipe index, ranked queries, and re-indexing a recipe after an edit.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class RecipeSearchBenchmark {
+    private static final int RECIPE_COUNT = 100_000;
+    private static final int INGREDIENT_POOL = 20_000;
+    private static final int RUNS = 101;
+
+    @Test
+    public void benchmarkSearch() {
+        RecipeBook recipeBook = StartupBenchmark.createRecipeBook(RECIPE_COUNT, INGREDIENT_POOL);
+
+        long start = System.nanoTime();
+        recipeBook.searchRecipes("warm up", 1);
+        System.out.printf("BENCH build search index over %d recipes: %.1f ms%n",
+                RECIPE_COUNT, (System.nanoTime() - start) / 1e6);
+
+        long[] times = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            // A common word, a rarer one and a unique one
+            String query = "style" + (run % 31) + " batch" + (run % 97) + " ingredient" + (run * 131 % INGREDIENT_POOL);
+            long queryStart = System.nanoTime();
+            recipeBook.searchRecipes(query, 10);
+            times[run] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(times);
+        System.out.printf("BENCH top-10 search over %d recipes: median %.2f ms%n", RECIPE_COUNT, times[RUNS / 2] / 1e6);
+
+        for (int run = 0; run < RUNS; run++) {
+            Recipe recipe = recipeBook.getItems().get(run * 977 % RECIPE_COUNT);
+            long editStart = System.nanoTime();
+            recipe.addItem(new Ingredient("garlic" + run, 1), true);
+            times[run] = System.nanoTime() - editStart;
+        }
+        Arrays.sort(times);
+        System.out.printf("BENCH add ingredient to an indexed recipe: median %.3f ms%n", times[RUNS / 2] / 1e6);
+    }
+}
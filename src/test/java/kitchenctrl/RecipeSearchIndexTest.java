@@ -0,0 +1,161 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.RecipeSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static kitchenctrl.RecipeFixtures.recipe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecipeSearchIndexTest {
+    private static final String[] WORDS = {
+        "chicken", "garlic", "rice", "fried", "soup", "beef", "egg", "noodle", "tomato", "basil"
+    };
+
+    @Test
+    public void tokenize_splitsOnNonAlphanumerics() {
+        assertEquals(List.of("chicken", "rice", "2", "garlic"), RecipeSearchIndex.tokenize(" Chicken-Rice 2, garlic!"));
+        assertEquals(List.of(), RecipeSearchIndex.tokenize(" -- "));
+    }
+
+    @Test
+    public void search_ranksNameMatchesAndRareWordsFirst() {
+        RecipeBook recipeBook = new RecipeBook();
+        recipeBook.addItem(recipe("Fried Rice", "Rice", "Egg", "Soy Sauce"), true);
+        recipeBook.addItem(recipe("Garlic Bread", "Garlic", "Bread", "Butter"), true);
+        recipeBook.addItem(recipe("Chicken Rice", "Chicken", "Rice", "Garlic"), true);
+        recipeBook.addItem(recipe("Tomato Soup", "Tomato", "Basil"), true);
+
+        List<String> names = recipeBook.searchRecipes("chicken garlic rice", 10).stream()
+                .map(Recipe::getRecipeName).toList();
+        assertEquals(List.of("Chicken Rice", "Garlic Bread", "Fried Rice"), names);
+        assertEquals(List.of(), recipeBook.searchRecipes("pizza", 10));
+    }
+
+    @Test
+    public void search_matchesBruteForceUnderMutations() {
+        Random random = new Random(17);
+        RecipeBook recipeBook = new RecipeBook();
+        // Built before any recipe is added, so every recipe below is indexed incrementally
+        recipeBook.searchRecipes("rice", 1);
+
+        for (int step = 0; step < 1500; step++) {
+            String name = randomWords(random, 1 + random.nextInt(2)) + " " + random.nextInt(30);
+            Recipe existing = recipeBook.getItemByName(name);
+            switch (random.nextInt(5)) {
+            case 0 -> {
+                if (existing == null) {
+                    recipeBook.addItem(randomRecipe(name, random), true);
+                }
+            }
+            case 1 -> recipeBook.removeItemByName(name);
+            case 2 -> {
+                String newName = randomWords(random, 2) + " v" + step;
+                if (existing != null) {
+                    recipeBook.editItem(existing, randomRecipe(newName, random));
+                }
+            }
+            default -> {
+                if (existing != null) {
+                    editIngredients(existing, random);
+                }
+            }
+            }
+
+            String query = randomWords(random, 1 + random.nextInt(3));
+            int limit = 1 + random.nextInt(6);
+            assertEquals(bruteForce(recipeBook, query, limit), recipeBook.searchRecipes(query, limit));
+        }
+    }
+
+    private static String randomWords(Random random, int count) {
+        StringBuilder words = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int i = 1; i < count; i++) {
+            words.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return words.toString();
+    }
+
+    private static Recipe randomRecipe(String name, Random random) {
+        return RecipeFixtures.randomRecipe(name, random, 3, r -> randomWords(r, 1 + r.nextInt(2)));
+    }
+
+    private static void editIngredients(Recipe recipe, Random random) {
+        switch (random.nextInt(3)) {
+        case 0 -> recipe.restoreQuantity(randomWords(random, 1 + random.nextInt(2)), 1 + random.nextInt(5));
+        case 1 -> {
+            if (!recipe.getItems().isEmpty()) {
+                List<Ingredient> ingredients = recipe.getItems();
+                recipe.restoreQuantity(ingredients.get(random.nextInt(ingredients.size())).getIngredientName(), 0);
+            }
+        }
+        default -> recipe.removeAllIngredients();
+        }
+    }
+
+    /**
+     * Scores every recipe from scratch, with the same BM25 parameters and weights as the index.
+     */
+    private static List<Recipe> bruteForce(RecipeBook recipeBook, String query, int limit) {
+        ArrayList<Recipe> recipes = recipeBook.getItems();
+        ArrayList<HashMap<String, Integer>> frequencies = new ArrayList<>();
+        HashMap<String, Integer> documentFrequencies = new HashMap<>();
+        long totalLength = 0;
+        for (Recipe recipe : recipes) {
+            HashMap<String, Integer> counts = new HashMap<>();
+            for (String word : RecipeSearchIndex.tokenize(recipe.getRecipeName())) {
+                counts.merge(word, RecipeSearchIndex.NAME_WEIGHT, Integer::sum);
+            }
+            for (Ingredient ingredient : recipe.getItems()) {
+                for (String word : RecipeSearchIndex.tokenize(ingredient.getIngredientName())) {
+                    counts.merge(word, 1, Integer::sum);
+                }
+            }
+            for (String word : counts.keySet()) {
+                documentFrequencies.merge(word, 1, Integer::sum);
+            }
+            for (int count : counts.values()) {
+                totalLength += count;
+            }
+            frequencies.add(counts);
+        }
+
+        double[] scores = new double[recipes.size()];
+        List<Integer> matching = new ArrayList<>();
+        for (int d = 0; d < recipes.size(); d++) {
+            int length = frequencies.get(d).values().stream().mapToInt(Integer::intValue).sum();
+            boolean isMatch = false;
+            for (String word : new LinkedHashSet<>(RecipeSearchIndex.tokenize(query))) {
+                Integer frequency = frequencies.get(d).get(word);
+                if (frequency == null) {
+                    continue;
+                }
+                int df = documentFrequencies.get(word);
+                double idf = Math.log(1 + (recipes.size() - df + 0.5) / (df + 0.5));
+                double averageLength = (double) totalLength / recipes.size();
+                double norm = 1.2 * (1 - 0.75 + 0.75 * length / averageLength);
+                scores[d] += idf * frequency * (1.2 + 1) / (frequency + norm);
+                isMatch = true;
+            }
+            if (isMatch) {
+                matching.add(d);
+            }
+        }
+
+        matching.sort(Comparator.comparingDouble((Integer d) -> -scores[d]).thenComparingInt(d -> d));
+        List<Recipe> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, matching.size()); i++) {
+            result.add(recipes.get(matching.get(i)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.RecipeSimilarityIndex;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures MinHash/LSH similarity queries and the near-duplicate report on a large recipe book,
+ * against comparing all pairs.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class RecipeSimilarityBenchmark {
+    private static final int RECIPE_COUNT = 50_000;
+    private static final int INGREDIENT_POOL = 2_000;
+    private static final int DUPLICATES = 500;
+    private static final int RUNS = 101;
+
+    @Test
+    public void benchmarkSimilarity() {
+        Random random = new Random(41);
+        ArrayList<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < RECIPE_COUNT; r++) {
+            ArrayList<Ingredient> ingredients = new ArrayList<>();
+            for (int i = 6 + random.nextInt(5); i > 0; i--) {
+                ingredients.add(new Ingredient(StartupBenchmark.ingredientName(random.nextInt(INGREDIENT_POOL)), 1));
+            }
+            if (r >= RECIPE_COUNT - DUPLICATES) {
+                // Near-duplicate of an earlier recipe: the same lines plus one
+                ingredients = recipes.get(random.nextInt(r - DUPLICATES)).getIngredients();
+                ingredients.add(new Ingredient("extra" + r, 1));
+            }
+            recipes.add(new Recipe("recipe" + r, ingredients));
+        }
+        RecipeBook recipeBook = new RecipeBook();
+        recipeBook.addAllItems(recipes);
+
+        long start = System.nanoTime();
+        RecipeSimilarityIndex index = recipeBook.getSimilarityIndex();
+        System.out.printf("BENCH build MinHash/LSH index over %d recipes: %.1f ms%n",
+                RECIPE_COUNT, (System.nanoTime() - start) / 1e6);
+
+        long[] times = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            Recipe target = recipes.get(RECIPE_COUNT - 1 - run);
+            long queryStart = System.nanoTime();
+            index.findSimilar(target, 0.5, 10);
+            times[run] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(times);
+        System.out.printf("BENCH similar over %d recipes: median %.3f ms%n", RECIPE_COUNT, times[RUNS / 2] / 1e6);
+
+        start = System.nanoTime();
+        int found = index.findNearDuplicates(0.8, Integer.MAX_VALUE).size();
+        System.out.printf("BENCH near-duplicate report over %d recipes: %.1f ms (%d pairs, %d planted)%n",
+                RECIPE_COUNT, (System.nanoTime() - start) / 1e6, found, DUPLICATES);
+
+        // All pairs against a sample of recipes, extrapolated to the whole book
+        int sample = 20;
+        start = System.nanoTime();
+        for (int i = 0; i < sample; i++) {
+            for (Recipe other : recipes) {
+                RecipeSimilarityIndex.jaccard(recipes.get(i), other);
+            }
+        }
+        double allPairsMillis = (System.nanoTime() - start) / 1e6 / sample * RECIPE_COUNT / 2;
+        System.out.printf("BENCH all-pairs comparison over %d recipes (extrapolated): %.0f ms%n",
+                RECIPE_COUNT, allPairsMillis);
+    }
+}
@@ -0,0 +1,137 @@
+package kitchenctrl;
+
+import commands.SimilarRecipesCommand;
+import model.Ingredient;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.RecipeSimilarityIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static kitchenctrl.RecipeFixtures.recipe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipeSimilarityIndexTest {
+    private static final int POOL = 40;
+
+    @Test
+    public void similar_listsRecipesSharingIngredients() {
+        RecipeBook recipeBook = new RecipeBook();
+        recipeBook.addItem(recipe("Toast", "Bread", "Butter"), true);
+        recipeBook.addItem(recipe("Sandwich", "Bread", "Butter", "Egg"), true);
+        recipeBook.addItem(recipe("Omelette", "Egg", "Milk", "Salt"), true);
+
+        assertEquals("Recipes similar to Toast:\n1. Sandwich (67% shared)",
+                new SimilarRecipesCommand(recipeBook.getItemByName("Toast")).execute(recipeBook)
+                        .getFeedbackToUser());
+        assertEquals(0.2, RecipeSimilarityIndex.jaccard(recipeBook.getItemByName("Sandwich"),
+                recipeBook.getItemByName("Omelette")), 1e-9);
+    }
+
+    @Test
+    public void index_matchesFreshIndexUnderMutations() {
+        Random random = new Random(31);
+        RecipeBook recipeBook = new RecipeBook();
+        RecipeSimilarityIndex index = recipeBook.getSimilarityIndex();
+
+        for (int step = 0; step < 600; step++) {
+            String name = "recipe " + random.nextInt(80);
+            Recipe existing = recipeBook.getItemByName(name);
+            switch (random.nextInt(4)) {
+            case 0 -> {
+                if (existing == null) {
+                    recipeBook.addItem(randomRecipe(name, random), true);
+                }
+            }
+            case 1 -> recipeBook.removeItemByName(name);
+            case 2 -> {
+                if (existing != null) {
+                    recipeBook.editItem(existing, randomRecipe("recipe " + (80 + step), random));
+                }
+            }
+            default -> {
+                if (existing != null) {
+                    existing.restoreQuantity("ingredient" + random.nextInt(POOL), random.nextInt(2));
+                }
+            }
+            }
+
+            RecipeSimilarityIndex fresh = new RecipeSimilarityIndex(recipeBook);
+            assertEquals(describe(fresh.findNearDuplicates(0.5, 1000)), describe(index.findNearDuplicates(0.5, 1000)));
+            if (!recipeBook.getItems().isEmpty()) {
+                Recipe target = recipeBook.getItems().get(random.nextInt(recipeBook.getItems().size()));
+                assertEquals(describe(fresh.findSimilar(target, 0.3, 5)), describe(index.findSimilar(target, 0.3, 5)));
+            }
+            fresh.close();
+        }
+    }
+
+    @Test
+    public void findNearDuplicates_findsEveryCloseBruteForcePair() {
+        Random random = new Random(37);
+        RecipeBook recipeBook = new RecipeBook();
+        for (int r = 0; r < 400; r++) {
+            recipeBook.addItem(randomRecipe("recipe " + r, random), true);
+        }
+        // Plant near-duplicates: copies with one ingredient added
+        for (int r = 0; r < 40; r++) {
+            Recipe copy = new Recipe("copy " + r, recipeBook.getItems().get(r * 7).getIngredients());
+            copy.restoreQuantity("extra", 1);
+            recipeBook.addItem(copy, true);
+        }
+
+        ArrayList<Recipe> recipes = recipeBook.getItems();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            for (int j = i + 1; j < recipes.size(); j++) {
+                double similarity = RecipeSimilarityIndex.jaccard(recipes.get(i), recipes.get(j));
+                if (similarity >= 0.75) {
+                    expected.add(recipes.get(i).getRecipeName() + " ~ " + recipes.get(j).getRecipeName());
+                }
+            }
+        }
+
+        List<RecipeSimilarityIndex.Match> pairs = recipeBook.getSimilarityIndex().findNearDuplicates(0.75, 10_000);
+        List<String> found = new ArrayList<>();
+        for (RecipeSimilarityIndex.Match pair : pairs) {
+            assertEquals(RecipeSimilarityIndex.jaccard(pair.getFirst(), pair.getSecond()), pair.getSimilarity());
+            found.add(pair.getFirst().getRecipeName() + " ~ " + pair.getSecond().getRecipeName());
+        }
+        assertTrue(expected.size() >= 40);
+        assertEquals(expected.stream().sorted().toList(), found.stream().sorted().toList());
+    }
+
+    @Test
+    public void jaccard_countsRepeatedIngredientsOnce() {
+        // Recipes loaded from a file keep repeated lines
+        Recipe repeated = new Recipe("Omelette", new ArrayList<>(List.of(
+                new Ingredient("Egg", 1), new Ingredient("Milk", 1), new Ingredient("egg", 1))));
+        Recipe single = new Recipe("Scramble", new ArrayList<>(List.of(
+                new Ingredient("Milk", 2), new Ingredient("Egg", 2))));
+        Recipe eggOnly = new Recipe("Boiled Egg", new ArrayList<>(List.of(
+                new Ingredient("Egg", 1), new Ingredient("Egg", 1))));
+
+        assertEquals(1.0, RecipeSimilarityIndex.jaccard(repeated, single));
+        assertEquals(0.5, RecipeSimilarityIndex.jaccard(repeated, eggOnly));
+        assertEquals(1.0, RecipeSimilarityIndex.jaccard(eggOnly, eggOnly));
+    }
+
+    private static Recipe randomRecipe(String name, Random random) {
+        // Ingredients cluster around a base, so that overlapping recipes are common
+        int base = random.nextInt(POOL);
+        return RecipeFixtures.randomRecipe(name, random, 6, r -> "ingredient" + (base + r.nextInt(8)) % POOL);
+    }
+
+    private static List<String> describe(List<RecipeSimilarityIndex.Match> matches) {
+        List<String> descriptions = new ArrayList<>();
+        for (RecipeSimilarityIndex.Match match : matches) {
+            descriptions.add(match.getFirst().getRecipeName() + " ~ " + match.getSecond().getRecipeName()
+                    + " " + match.getSimilarity());
+        }
+        return descriptions;
+    }
+}
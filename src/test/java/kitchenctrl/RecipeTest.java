@@ -9,6 +9,7 @@ import commands.CommandResult;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -95,4 +96,41 @@ public class RecipeTest {
         assertNotNull(result);
         assertEquals("Flour", result.getIngredientName());
     }
+
+    @Test
+    public void testFrozenRecipeKeepsLineOrderAndSpelling() {
+        new Ingredient("Zucchini", 1); // Make sure the ingredients are not numbered in line order
+        ArrayList<Ingredient> lines = new ArrayList<>();
+        lines.add(new Ingredient("Yoghurt", 2));
+        lines.add(new Ingredient("ZUCCHINI", 1));
+        lines.add(new Ingredient("Basil", 3));
+        lines.add(new Ingredient("Yoghurt", 1)); // Duplicate lines are kept as they are
+
+        Recipe recipe = new Recipe("Dip", lines);
+        assertTrue(recipe.isFrozen());
+        String expected = "Dip\nYoghurt (2)\nZUCCHINI (1)\nBasil (3)\nYoghurt (1)\n";
+        assertEquals(expected, recipe.toString());
+        assertEquals(4, recipe.toCompact().size());
+        assertEquals(4, recipe.getIngredients().size());
+        assertTrue(recipe.isFrozen());
+
+        recipe.expand();
+        assertFalse(recipe.isFrozen());
+        assertEquals(expected, recipe.toString());
+        recipe.freeze();
+        assertTrue(recipe.isFrozen());
+        assertEquals(expected, recipe.toString());
+    }
+
+    @Test
+    public void testFrozenRecipeExpandsWhenModified() {
+        ArrayList<Ingredient> lines = new ArrayList<>();
+        lines.add(new Ingredient("Flour", 2));
+        Recipe recipe = new Recipe("Bread", lines);
+
+        recipe.addItem(new Ingredient("Water", 1), true);
+        assertFalse(recipe.isFrozen());
+        assertEquals(2, recipe.getItemByName("flour").getQuantity());
+        assertEquals("Bread\nFlour (2)\nWater (1)\n", recipe.toString());
+    }
 }
@@ -0,0 +1,64 @@
+package kitchenctrl;
+
+import model.index.RoaringBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RoaringBitmapTest {
+    @Test
+    public void operations_matchSetsAcrossContainerKinds() {
+        Random random = new Random(23);
+        for (int round = 0; round < 40; round++) {
+            // Alternate sparse and dense chunks, so that both container kinds and conversions are exercised
+            TreeSet<Integer> expectedA = new TreeSet<>();
+            TreeSet<Integer> expectedB = new TreeSet<>();
+            RoaringBitmap a = new RoaringBitmap();
+            RoaringBitmap b = new RoaringBitmap();
+            fill(random, a, expectedA);
+            fill(random, b, expectedB);
+
+            for (int i = 0; i < 3000; i++) {
+                int value = random.nextInt(4 << 16);
+                a.remove(value);
+                expectedA.remove(value);
+            }
+            assertEquals(expectedA.size(), a.cardinality());
+            assertArrayEquals(toArray(expectedA), a.toArray());
+
+            TreeSet<Integer> and = new TreeSet<>(expectedA);
+            and.retainAll(expectedB);
+            TreeSet<Integer> or = new TreeSet<>(expectedA);
+            or.addAll(expectedB);
+            TreeSet<Integer> andNot = new TreeSet<>(expectedA);
+            andNot.removeAll(expectedB);
+            assertArrayEquals(toArray(and), RoaringBitmap.and(a, b).toArray());
+            assertArrayEquals(toArray(or), RoaringBitmap.or(a, b).toArray());
+            assertArrayEquals(toArray(andNot), RoaringBitmap.andNot(a, b).toArray());
+
+            RoaringBitmap copy = a.copy();
+            copy.add(5 << 16);
+            assertEquals(expectedA.size(), a.cardinality());
+            assertEquals(expectedA.contains(1234), a.contains(1234));
+        }
+    }
+
+    private static void fill(Random random, RoaringBitmap bitmap, TreeSet<Integer> expected) {
+        for (int chunk = 0; chunk < 4; chunk++) {
+            int count = random.nextBoolean() ? random.nextInt(100) : 3000 + random.nextInt(6000);
+            for (int i = 0; i < count; i++) {
+                int value = (chunk << 16) | random.nextInt(1 << 16);
+                bitmap.add(value);
+                expected.add(value);
+            }
+        }
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
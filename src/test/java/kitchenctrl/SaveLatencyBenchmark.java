@@ -0,0 +1,103 @@
+package kitchenctrl;
+
+import model.catalogue.Catalogue;
+import model.catalogue.Inventory;
+import model.catalogue.RecipeBook;
+import storage.CatalogueContentManager;
+import storage.Durability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the latency of saving a catalogue under each {@link Durability} level, for a small inventory,
+ * where the flushes dominate, and for a large recipe book, where writing the content does.
+ * Run with {@code gradlew benchmark}, on the disk the data files will live on.
+ */
+@Tag("benchmark")
+public class SaveLatencyBenchmark {
+    private static final int SMALL_INGREDIENT_COUNT = 1_000;
+    private static final int LARGE_RECIPE_COUNT = 200_000;
+    private static final int INGREDIENT_POOL = 5_000;
+    private static final int SMALL_SAVES = 200;
+    private static final int LARGE_SAVES = 10;
+    private static final int WARMUP_SAVES = 3;
+
+    private Path dataDir;
+    private CatalogueContentManager manager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("benchmarkdata");
+        manager = new CatalogueContentManager();
+        manager.setBasePath(dataDir);
+        manager.setInventoryFilePath(dataDir.resolve("inventory.txt"));
+        manager.setRecipeBookFilePath(dataDir.resolve("recipe_book.txt"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.walk(dataDir)
+                .sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+    }
+
+    @Test
+    public void benchmarkSmallInventorySaves() throws IOException {
+        Inventory inventory = StartupBenchmark.createInventory(SMALL_INGREDIENT_COUNT);
+        String name = inventory.getItems().get(0).getIngredientName();
+        for (Durability durability : Durability.values()) {
+            // Change the inventory before every save, as unchanged catalogues are not saved
+            report("small inventory", durability, inventory, SMALL_SAVES,
+                    save -> inventory.restoreQuantity(name, save + 1));
+        }
+        assertEquals(inventory.getCatalogueContent(), manager.loadInventory().getCatalogueContent());
+    }
+
+    @Test
+    public void benchmarkLargeRecipeBookSaves() throws IOException {
+        RecipeBook recipeBook = StartupBenchmark.createRecipeBook(LARGE_RECIPE_COUNT, INGREDIENT_POOL);
+        String name = recipeBook.getItems().get(0).getRecipeName();
+        for (Durability durability : Durability.values()) {
+            report("large recipe book", durability, recipeBook, LARGE_SAVES,
+                    save -> recipeBook.getItemByName(name).restoreQuantity("Benchmark Spice", save + 1));
+        }
+        assertEquals(LARGE_RECIPE_COUNT, manager.loadRecipeBook().getItems().size());
+    }
+
+    /** Saves a catalogue repeatedly under one durability level, printing the median and worst latency
+     * after a few untimed saves. */
+    private void report(String label, Durability durability, Catalogue<?> catalogue, int saves,
+            IntConsumer change) {
+        manager.setDurability(durability);
+        for (int save = 0; save < WARMUP_SAVES; save++) {
+            change.accept(saves + save);
+            manager.saveToFile(catalogue);
+        }
+
+        long[] latencies = new long[saves];
+        for (int save = 0; save < saves; save++) {
+            change.accept(save);
+            long start = System.nanoTime();
+            manager.saveToFile(catalogue);
+            latencies[save] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("BENCH %s %s: median %.2f ms, max %.2f ms over %d saves%n", label, durability,
+                latencies[saves / 2] / 1e6, latencies[saves - 1] / 1e6, saves);
+    }
+}
@@ -0,0 +1,129 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import storage.CatalogueContentManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures how long it takes to load the inventory and recipe book at startup.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class StartupBenchmark {
+    private static final int INGREDIENT_COUNT = 100_000;
+    private static final int RECIPE_COUNT = 50_000;
+    private static final int INGREDIENTS_PER_RECIPE = 6;
+    private static final int LEGACY_SAMPLE_SIZE = 5_000;
+
+    private Path dataDir;
+    private CatalogueContentManager manager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("benchmarkdata");
+        manager = new CatalogueContentManager();
+        manager.setBasePath(dataDir);
+        manager.setInventoryFilePath(dataDir.resolve("inventory.txt"));
+        manager.setRecipeBookFilePath(dataDir.resolve("recipe_book.txt"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.walk(dataDir)
+                .sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+    }
+
+    static String ingredientName(int i) {
+        return "ingredient" + i + " batch" + (i % 97);
+    }
+
+    static Inventory createInventory(int count) {
+        Inventory inventory = new Inventory();
+        ArrayList<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ingredients.add(new Ingredient(ingredientName(i), 1 + i % 500));
+        }
+        inventory.addAllItems(ingredients);
+        return inventory;
+    }
+
+    static RecipeBook createRecipeBook(int count, int ingredientPool) {
+        RecipeBook recipeBook = new RecipeBook();
+        ArrayList<Recipe> recipes = new ArrayList<>();
+        for (int r = 0; r < count; r++) {
+            ArrayList<Ingredient> ingredients = new ArrayList<>();
+            for (int j = 0; j < INGREDIENTS_PER_RECIPE; j++) {
+                int id = (int) ((r * 7919L + j * 104729L) % ingredientPool);
+                ingredients.add(new Ingredient(ingredientName(id), 1 + (r + j) % 20));
+            }
+            recipes.add(new Recipe("recipe" + r + " style" + (r % 31), ingredients));
+        }
+        recipeBook.addAllItems(recipes);
+        return recipeBook;
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    @Test
+    public void benchmarkStartupLoad() throws IOException {
+        manager.saveToFile(createInventory(INGREDIENT_COUNT));
+        manager.saveToFile(createRecipeBook(RECIPE_COUNT, INGREDIENT_COUNT));
+
+        long start = System.nanoTime();
+        Inventory inventory = manager.loadInventory();
+        long inventoryMillis = millisSince(start);
+
+        start = System.nanoTime();
+        RecipeBook recipeBook = manager.loadRecipeBook();
+        long recipeBookMillis = millisSince(start);
+
+        assertEquals(INGREDIENT_COUNT, inventory.getItems().size());
+        assertEquals(RECIPE_COUNT, recipeBook.getItems().size());
+        System.out.println("BENCH startup: " + INGREDIENT_COUNT + " ingredients in " + inventoryMillis + " ms, "
+                + RECIPE_COUNT + " recipes in " + recipeBookMillis + " ms");
+    }
+
+    @Test
+    public void benchmarkBulkVersusSequentialAdd() {
+        ArrayList<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < LEGACY_SAMPLE_SIZE; i++) {
+            ingredients.add(new Ingredient(ingredientName(i), 1));
+        }
+
+        long start = System.nanoTime();
+        Inventory sequential = new Inventory();
+        for (Ingredient ingredient : ingredients) {
+            sequential.addItem(new Ingredient(ingredient.getIngredientName(), 1), true);
+        }
+        long sequentialMillis = millisSince(start);
+
+        start = System.nanoTime();
+        Inventory bulk = new Inventory();
+        bulk.addAllItems(ingredients);
+        long bulkMillis = millisSince(start);
+
+        assertEquals(sequential.getCatalogueContent(), bulk.getCatalogueContent());
+        System.out.println("BENCH " + LEGACY_SAMPLE_SIZE + " ingredients: addItem one by one " + sequentialMillis
+                + " ms, addAllItems " + bulkMillis + " ms");
+    }
+}
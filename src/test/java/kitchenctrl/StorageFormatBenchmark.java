@@ -0,0 +1,93 @@
+package kitchenctrl;
+
+import model.catalogue.Catalogue;
+import model.catalogue.Inventory;
+import model.catalogue.RecipeBook;
+import storage.CatalogueContentManager;
+import storage.StorageFormat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the file size and the save and load times of the text and binary storage formats.
+ * Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class StorageFormatBenchmark {
+    private static final int INGREDIENT_COUNT = 1_000_000;
+    private static final int RECIPE_COUNT = 500_000;
+    private static final int INGREDIENT_POOL = 5_000;
+    private static final int RUNS = 3;
+
+    private Path dataDir;
+    private CatalogueContentManager manager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("benchmarkdata");
+        manager = new CatalogueContentManager();
+        manager.setBasePath(dataDir);
+        manager.setInventoryFilePath(dataDir.resolve("inventory.txt"));
+        manager.setRecipeBookFilePath(dataDir.resolve("recipe_book.txt"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.walk(dataDir)
+                .sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+    }
+
+    @Test
+    public void benchmarkInventoryFormats() throws Exception {
+        Inventory inventory = StartupBenchmark.createInventory(INGREDIENT_COUNT);
+        for (StorageFormat format : StorageFormat.values()) {
+            report("inventory", format, inventory, manager.getInventoryFilePath(), manager::loadInventory);
+        }
+    }
+
+    @Test
+    public void benchmarkRecipeBookFormats() throws Exception {
+        RecipeBook recipeBook = StartupBenchmark.createRecipeBook(RECIPE_COUNT, INGREDIENT_POOL);
+        for (StorageFormat format : StorageFormat.values()) {
+            report("recipe book", format, recipeBook, manager.getRecipeBookFilePath(), manager::loadRecipeBook);
+        }
+    }
+
+    /** Saves and loads a catalogue in one format, printing the best time of each and the file size. */
+    private void report(String label, StorageFormat format, Catalogue<?> catalogue, Path filePath,
+            Callable<Catalogue<?>> load) throws Exception {
+        manager.setStorageFormat(format);
+        long bestSave = Long.MAX_VALUE;
+        long bestLoad = Long.MAX_VALUE;
+        Catalogue<?> loaded = null;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            manager.saveToFile(catalogue);
+            bestSave = Math.min(bestSave, System.nanoTime() - start);
+
+            loaded = null; // Let the last load be collected first
+            start = System.nanoTime();
+            loaded = load.call();
+            bestLoad = Math.min(bestLoad, System.nanoTime() - start);
+        }
+
+        assertEquals(format, StorageFormat.detect(filePath));
+        assertEquals(catalogue.getItems().size(), loaded.getItems().size());
+        System.out.printf("BENCH %s %s: %.1f MB, save %.0f ms, load %.0f ms%n", label, format,
+                Files.size(filePath) / 1e6, bestSave / 1e6, bestLoad / 1e6);
+    }
+}
@@ -1,25 +1,36 @@
 package kitchenctrl;
 
 import model.Ingredient;
+import model.IngredientDictionary;
 import model.catalogue.Inventory;
 import model.catalogue.Recipe;
 import model.catalogue.RecipeBook;
 import storage.CatalogueContentManager;
+import storage.Durability;
+import storage.StorageFormat;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StorageTest {
@@ -105,6 +116,67 @@ public class StorageTest {
         assertEquals(expectedLines, lines);
     }
 
+    @Test
+    public void testSaveSkipsUnchangedCatalogues() throws IOException {
+        Path inventoryFile = manager.getInventoryFilePath();
+        Path recipeBookFile = manager.getRecipeBookFilePath();
+        Files.write(inventoryFile, "Milk (2)\nEggs (12)\n".getBytes());
+        Files.write(recipeBookFile, "Omelette\nEggs (3)\n".getBytes());
+        // A rewrite would set the modification time to now
+        FileTime past = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(inventoryFile, past);
+        Files.setLastModifiedTime(recipeBookFile, past);
+
+        Inventory inventory = manager.loadInventory();
+        RecipeBook recipeBook = manager.loadRecipeBook();
+        manager.saveToFile(inventory);
+        manager.saveToFile(recipeBook);
+        assertEquals(past, Files.getLastModifiedTime(inventoryFile));
+        assertEquals(past, Files.getLastModifiedTime(recipeBookFile));
+
+        // Cooking changes the inventory only
+        inventory.consumeAll(recipeBook.getItemByName("Omelette").getIngredients(), 1);
+        manager.saveToFile(inventory);
+        manager.saveToFile(recipeBook);
+        assertEquals("Milk (2)\nEggs (9)", Files.readString(inventoryFile).strip());
+        assertEquals(past, Files.getLastModifiedTime(recipeBookFile));
+
+        // Editing a recipe changes its book
+        recipeBook.getItemByName("Omelette").addItem(new Ingredient("Milk", 1), true);
+        manager.saveToFile(recipeBook);
+        assertEquals("Omelette\nEggs (3)\nMilk (1)", Files.readString(recipeBookFile).strip());
+
+        // A file changed by anything else is rewritten, even if the catalogue is unchanged
+        Files.write(inventoryFile, "Milk (1)\n".getBytes());
+        manager.saveToFile(inventory);
+        assertEquals("Milk (2)\nEggs (9)", Files.readString(inventoryFile).strip());
+        Files.delete(recipeBookFile);
+        manager.saveToFile(recipeBook);
+        assertEquals("Omelette\nEggs (3)\nMilk (1)", Files.readString(recipeBookFile).strip());
+    }
+
+    @Test
+    public void testSaveReplacesFileAtomically() throws IOException {
+        Path inventoryFile = manager.getInventoryFilePath();
+        Path tempFile = dataDir.resolve("inventory.txt.tmp");
+        Files.write(tempFile, "Left over from a crash".getBytes());
+        Inventory inventory = new Inventory();
+        for (Durability durability : Durability.values()) {
+            manager.setDurability(durability);
+            inventory.addItem(new Ingredient("Salt", 1), true);
+            manager.saveToFile(inventory);
+            assertEquals(inventory.getCatalogueContent(), manager.loadInventory().getCatalogueContent());
+            assertFalse(Files.exists(tempFile));
+        }
+
+        // A save that cannot write its temporary file leaves the previous content in place
+        Files.createDirectories(tempFile.resolve("blocked"));
+        String saved = Files.readString(inventoryFile);
+        inventory.addItem(new Ingredient("Pepper", 2), true);
+        manager.saveToFile(inventory);
+        assertEquals(saved, Files.readString(inventoryFile));
+    }
+
     // INVENTORY ERROR HANDLING TESTS
 
     @Test
@@ -120,6 +192,20 @@ public class StorageTest {
         assertEquals(50, inventory.getItemByName("Salt").getQuantity());
     }
 
+    @Test
+    public void testLoadInventoryWithCrLfAndLooseSpacing() throws IOException {
+        String content = "Sugar ( 20 )\r\nFlour(3)  \r\nOdd) (4)\r\nSalt (5)";
+        Files.write(manager.getInventoryFilePath(), content.getBytes());
+
+        Inventory inventory = manager.loadInventory();
+
+        assertEquals(3, inventory.getItems().size());
+        assertEquals(20, inventory.getItemByName("Sugar").getQuantity());
+        assertEquals(3, inventory.getItemByName("Flour").getQuantity());
+        assertEquals(5, inventory.getItemByName("Salt").getQuantity());
+        assertNull(inventory.getItemByName("Odd")); // Stray parenthesis, line ignored
+    }
+
     // RECIPE BOOK TESTS
 
     @Test
@@ -195,6 +281,36 @@ public class StorageTest {
         assertEquals(5, recipe3.getItems().size());
     }
 
+    @Test
+    public void testSaveOverLoadedFilesAndReload() throws IOException {
+        // Several read blocks long, so that lines straddle block boundaries
+        StringBuilder inventoryText = new StringBuilder();
+        StringBuilder recipeBookText = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            inventoryText.append("Ingredient ").append(i).append(" (").append(i % 900 + 1).append(")\n");
+            recipeBookText.append("Recipe ").append(i).append("\nIngredient ").append(i).append(" (2)\n\n");
+        }
+        Files.write(manager.getInventoryFilePath(), inventoryText.toString().getBytes());
+        Files.write(manager.getRecipeBookFilePath(), recipeBookText.toString().getBytes());
+
+        Inventory inventory = manager.loadInventory();
+        RecipeBook recipeBook = manager.loadRecipeBook();
+        assertEquals(20_000, inventory.getItems().size());
+        assertEquals(20_000, recipeBook.getItems().size());
+
+        // Saving replaces the files that were just read
+        inventory.addItem(new Ingredient("Saffron", 1), true);
+        recipeBook.addItem(new Recipe("Paella"), true);
+        manager.saveToFile(inventory);
+        manager.saveToFile(recipeBook);
+
+        Inventory reloadedInventory = manager.loadInventory();
+        RecipeBook reloadedRecipeBook = manager.loadRecipeBook();
+        assertEquals(inventory.getCatalogueContent(), reloadedInventory.getCatalogueContent());
+        assertEquals(recipeBook.getCatalogueContent(), reloadedRecipeBook.getCatalogueContent());
+        assertEquals(900, reloadedInventory.getItemByName("Ingredient 899").getQuantity());
+    }
+
     // RECIPE BOOK ERROR HANDLING TESTS
 
     @Test
@@ -222,5 +338,144 @@ public class StorageTest {
         assertNotNull(recipe.getItemByName("Soy Sauce"));
     }
 
-}
+    @Test
+    public void testLoadRecipeBookWithCrLfAndMissingName() throws IOException {
+        String content = "Toast\r\nBread (2)\r\n(5)\r\nButter(1)\r\n\r\nPorridge\r\nOats  (1)";
+        Files.write(manager.getRecipeBookFilePath(), content.getBytes());
+
+        RecipeBook book = manager.loadRecipeBook();
+
+        assertEquals(2, book.getItems().size());
+        Recipe toast = book.getItemByName("Toast");
+        assertEquals(2, toast.getItems().size()); // "(5)" has no name and is skipped
+        assertEquals(2, toast.getItemByName("Bread").getQuantity());
+        assertEquals(1, toast.getItemByName("Butter").getQuantity());
+        assertEquals(1, book.getItemByName("Porridge").getItemByName("Oats").getQuantity());
+    }
+
+    @Test
+    public void testParallelRecipeBookLoadMatchesSequential() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int r = 0; r < 400; r++) {
+            content.append("Dish ").append(r).append("\n");
+            content.append(r == 50 ? "parallelspice (2)\n" : "Flour (1)\n");
+            content.append(r % 97 == 0 ? "Egg (2\n" : "Egg (" + (1 + r % 5) + ")\n");
+            content.append(r == 350 ? "PARALLELSPICE (1)\n" : "");
+            content.append(r % 3 == 0 ? "\r\n" : "\n");
+        }
+        content.append("Dish 7\nSalt (1)\n"); // Duplicate name, skipped as in a sequential read
+        Files.write(manager.getRecipeBookFilePath(), content.toString().getBytes());
+
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream sequentialOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream parallelOut = new ByteArrayOutputStream();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        RecipeBook sequential;
+        RecipeBook parallel;
+        try {
+            System.setOut(new PrintStream(sequentialOut));
+            sequential = manager.parseRecipeBook(manager.getRecipeBookFilePath(), pool, Long.MAX_VALUE);
+            System.setOut(new PrintStream(parallelOut));
+            parallel = manager.parseRecipeBook(manager.getRecipeBookFilePath(), pool, 0);
+        } finally {
+            System.setOut(originalOut);
+            pool.shutdown();
+        }
+
+        assertEquals(400, parallel.getItems().size());
+        assertEquals(sequential.getCatalogueContent(), parallel.getCatalogueContent());
+        assertEquals(sequentialOut.toString(), parallelOut.toString());
+        assertTrue(parallelOut.toString().startsWith("Invalid ingredient format: Egg (2"));
+        // The spelling first in the file is canonical, whichever chunk was read first
+        assertEquals("parallelspice",
+                IngredientDictionary.getCanonicalName(IngredientDictionary.findId("PARALLELSPICE")));
+    }
+
+    @Test
+    public void testParallelRecipeBookLoadThrowsFirstInvalidIngredient() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int r = 0; r < 200; r++) {
+            content.append("Dish ").append(r).append("\nFlour (")
+                    .append(r == 120 ? "0" : r == 180 ? "100000" : "1").append(")\n\n");
+        }
+        Files.write(manager.getRecipeBookFilePath(), content.toString().getBytes());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> manager.parseRecipeBook(manager.getRecipeBookFilePath(), pool, 0));
+            IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+                    () -> manager.parseRecipeBook(manager.getRecipeBookFilePath(), pool, Long.MAX_VALUE));
+            assertEquals(expected.getMessage(), e.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
 
+    // BINARY FORMAT TESTS
+
+    @Test
+    public void testBinaryRoundTripKeepsContent() throws IOException {
+        String inventoryText = "Flour (5)\nsalt (100)\nCr\u00e8me Fra\u00eeche (2)\n";
+        String recipeBookText = "Pancakes\nFlour (2)\nEgg (3)\nFLOUR (1)\n\nEmpty\n\nCr\u00eapes\nEgg (1)\nFlour (2)\n";
+        Files.write(manager.getInventoryFilePath(), inventoryText.getBytes(StandardCharsets.UTF_8));
+        Files.write(manager.getRecipeBookFilePath(), recipeBookText.getBytes(StandardCharsets.UTF_8));
+
+        manager.setStorageFormat(StorageFormat.BINARY);
+        manager.saveToFile(manager.loadInventory()); // Loading a text file switches its saves back to text
+        assertEquals(StorageFormat.TEXT, StorageFormat.detect(manager.getInventoryFilePath()));
+
+        Inventory inventory = manager.loadInventory();
+        RecipeBook recipeBook = manager.loadRecipeBook();
+        manager.setStorageFormat(StorageFormat.BINARY);
+        manager.saveToFile(inventory);
+        manager.saveToFile(recipeBook);
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(manager.getInventoryFilePath()));
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(manager.getRecipeBookFilePath()));
+
+        assertEquals(inventory.getCatalogueContent(), manager.loadInventory().getCatalogueContent());
+        RecipeBook loaded = manager.loadRecipeBook();
+        assertEquals(recipeBook.getCatalogueContent(), loaded.getCatalogueContent());
+        assertTrue(loaded.getItemByName("Empty").getItems().isEmpty());
+
+        // Saves keep the format the file was loaded in
+        manager.saveToFile(loaded);
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(manager.getRecipeBookFilePath()));
+    }
+
+    @Test
+    public void testConvertFilesBetweenFormats() throws IOException {
+        String recipeBookText = "Fried Rice\nRice (2)\nEgg (2)\nsoy sauce (1)\n\nOmelette\nEgg (3)\n";
+        Files.write(manager.getRecipeBookFilePath(), recipeBookText.getBytes());
+        String inventoryText = "Rice (20)\nEgg (12)\n";
+        Files.write(manager.getInventoryFilePath(), inventoryText.getBytes());
+
+        manager.convertRecipeBookFile(manager.getRecipeBookFilePath(), StorageFormat.BINARY);
+        manager.convertInventoryFile(manager.getInventoryFilePath(), StorageFormat.BINARY);
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(manager.getRecipeBookFilePath()));
+        assertTrue(Files.size(manager.getRecipeBookFilePath()) < recipeBookText.length());
+        assertEquals(20, manager.loadInventory().getItemByName("Rice").getQuantity());
+
+        manager.convertRecipeBookFile(manager.getRecipeBookFilePath(), StorageFormat.TEXT);
+        manager.convertInventoryFile(manager.getInventoryFilePath(), StorageFormat.TEXT);
+        assertEquals(recipeBookText, Files.readString(manager.getRecipeBookFilePath()));
+        assertEquals(StorageFormat.TEXT, StorageFormat.detect(manager.getInventoryFilePath()));
+        assertEquals(inventoryText, manager.loadInventory().getCatalogueContent());
+
+        assertThrows(IOException.class, () -> manager.convertInventoryFile(dataDir.resolve("missing.txt"),
+                StorageFormat.BINARY));
+    }
+
+    @Test
+    public void testLoadCorruptBinaryFile() throws IOException {
+        Files.write(manager.getRecipeBookFilePath(), "Omelette\nEgg (3)\n".getBytes());
+        manager.convertRecipeBookFile(manager.getRecipeBookFilePath(), StorageFormat.BINARY);
+        byte[] content = Files.readAllBytes(manager.getRecipeBookFilePath());
+
+        // Truncated, then loaded as the wrong catalogue
+        Files.write(manager.getRecipeBookFilePath(), Arrays.copyOf(content, content.length - 1));
+        assertTrue(manager.loadRecipeBook().getItems().isEmpty());
+        Files.write(manager.getInventoryFilePath(), content);
+        assertTrue(manager.loadInventory().getItems().isEmpty());
+    }
+}
@@ -0,0 +1,120 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.TokenIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TokenIndexTest {
+    private static final String[] WORDS = {
+        "a", "an", "egg", "eggs", "flour", "flo", "our", "milk", "soy", "soy milk", "rice", "ri", "brown",
+        "brownie", "oil", "olive", "ol", "  spaced", "x y", "salted butter", "butter", "utt"
+    };
+
+    /** The original similar-name check, kept here as the reference implementation. */
+    private static <T> List<T> bruteForceSimilar(List<T> items, Function<T, String> keyOf, String key) {
+        String[] inputKeywords = key.split(" ");
+        return items.stream()
+                .filter(item -> {
+                    String[] itemKeywords = keyOf.apply(item).split(" ");
+                    return Arrays.stream(inputKeywords).anyMatch(inputWord ->
+                            Arrays.stream(itemKeywords).anyMatch(itemWord ->
+                                    inputWord.contains(itemWord) || itemWord.contains(inputWord)));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static String randomName(Random random) {
+        String name = WORDS[random.nextInt(WORDS.length)];
+        if (random.nextBoolean()) {
+            name += " " + WORDS[random.nextInt(WORDS.length)];
+        }
+        return random.nextInt(4) == 0 ? name.toUpperCase() : name;
+    }
+
+    private static void assertSameItems(List<?> expected, List<?> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void searchSimilarIngredient_matchesBruteForceUnderMutations() {
+        Random random = new Random(42);
+        Inventory inventory = new Inventory();
+        Function<Ingredient, String> keyOf = ingredient -> ingredient.getIngredientName().toLowerCase();
+
+        for (int step = 0; step < 2000; step++) {
+            String name = randomName(random);
+            switch (random.nextInt(4)) {
+            case 0, 1 -> inventory.addItem(new Ingredient(name, 1 + random.nextInt(5)), true);
+            case 2 -> inventory.restoreQuantity(name, 0);
+            default -> inventory.restoreQuantity(name, random.nextInt(3));
+            }
+
+            Ingredient query = new Ingredient(randomName(random), 1);
+            assertSameItems(bruteForceSimilar(inventory.getItems(), keyOf, keyOf.apply(query)),
+                    inventory.searchSimilarIngredient(query));
+        }
+    }
+
+    @Test
+    public void searchSimilarRecipe_matchesBruteForceUnderMutations() {
+        Random random = new Random(7);
+        RecipeBook recipeBook = new RecipeBook();
+        Function<Recipe, String> keyOf = recipe -> recipe.getRecipeName().trim().toLowerCase();
+
+        for (int step = 0; step < 2000; step++) {
+            String name = randomName(random);
+            switch (random.nextInt(4)) {
+            case 0, 1 -> recipeBook.addItem(new Recipe(name), true);
+            case 2 -> recipeBook.removeItemByName(name);
+            default -> {
+                Recipe existing = recipeBook.getItemByName(name);
+                if (existing != null) {
+                    recipeBook.editItem(existing, new Recipe(randomName(random)));
+                }
+            }
+            }
+
+            Recipe query = new Recipe(randomName(random));
+            assertSameItems(bruteForceSimilar(recipeBook.getItems(), keyOf, keyOf.apply(query)),
+                    recipeBook.searchSimilarRecipe(query));
+        }
+    }
+
+    @Test
+    public void findSimilar_handlesEmptyTokensLikeSplit() {
+        TokenIndex<String> index = new TokenIndex<>(Function.identity());
+        index.add("soy  milk"); // double space yields an empty token, which matches everything
+        index.add("rice");
+
+        assertEquals(List.of("soy  milk"), index.findSimilar("bread"));
+        assertEquals(List.of("soy  milk", "rice"), index.findSimilar(" rice"));
+        assertEquals(new ArrayList<>(List.of("soy  milk", "rice")), index.findSimilar("ric"));
+    }
+
+    @Test
+    public void replace_keepsPositionOfReplacedItem() {
+        TokenIndex<String> index = new TokenIndex<>(Function.identity());
+        index.add("apple pie");
+        index.add("banana bread");
+        index.add("apple crumble");
+        index.replace("apple pie", "apple tart");
+
+        assertEquals(List.of("apple tart", "apple crumble"), index.findSimilar("apple"));
+    }
+}
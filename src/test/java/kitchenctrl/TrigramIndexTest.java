@@ -0,0 +1,102 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Inventory;
+import model.catalogue.Recipe;
+import model.catalogue.RecipeBook;
+import model.index.TrigramIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TrigramIndexTest {
+    private static final String[] WORDS = {
+        "egg", "eggs", "flour", "milk", "soy milk", "rice", "brown rice", "olive oil", "salted butter",
+        "butter", "Peanut Butter", "chili", "CHILLI flakes", "a"
+    };
+    private static final String[] QUERIES = {
+        "e", "eg", "egg", "but", "butter", "ILL", "rice", "n r", "oil", "xyz", "salted butter", "a"
+    };
+
+    @Test
+    public void findItem_matchesScanUnderMutations() {
+        Random random = new Random(3);
+        Inventory inventory = new Inventory();
+        RecipeBook recipeBook = new RecipeBook();
+
+        for (int step = 0; step < 1500; step++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(20);
+            switch (random.nextInt(3)) {
+            case 0 -> {
+                inventory.addItem(new Ingredient(name, 1), true);
+                recipeBook.addItem(new Recipe(name), true);
+            }
+            case 1 -> {
+                inventory.restoreQuantity(name, 0);
+                recipeBook.removeItemByName(name);
+            }
+            default -> {
+                Recipe existing = recipeBook.getItemByName(name);
+                if (existing != null) {
+                    recipeBook.editItem(existing, new Recipe(WORDS[random.nextInt(WORDS.length)] + " v" + step));
+                }
+            }
+            }
+
+            String query = QUERIES[random.nextInt(QUERIES.length)];
+            assertEquals(inventory.findItem(query, Ingredient::getIngredientName).getFeedbackToUser(),
+                    inventory.findItem(query).getFeedbackToUser());
+            assertEquals(scanRecipes(recipeBook, query), recipeBook.findItem(query).getFeedbackToUser());
+        }
+    }
+
+    private static String scanRecipes(RecipeBook recipeBook, String query) {
+        String lowerQuery = query.trim().toLowerCase();
+        StringBuilder result = new StringBuilder("Found recipes:\n");
+        int count = 0;
+        for (Recipe recipe : recipeBook.getItems()) {
+            if (recipe.getRecipeName().toLowerCase().contains(lowerQuery)) {
+                result.append(++count).append(". ").append(recipe.getRecipeName()).append("\n");
+            }
+        }
+        return count == 0 ? "No recipes found containing: " + query : result.toString().trim();
+    }
+
+    @Test
+    public void find_survivesBurstOfRemovals() {
+        TrigramIndex<String> index = new TrigramIndex<>(Function.identity());
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add("item" + i);
+            index.add(items.get(i));
+        }
+        for (int i = 0; i < 500; i++) {
+            if (i % 10 != 1) {
+                index.remove(items.get(i)); // Enough removals to trigger a rebuild on the next query
+            }
+        }
+
+        assertEquals(50, index.find("item").size());
+        assertEquals(List.of("item1", "item11", "item21"), index.find("item").subList(0, 3));
+        index.add("item1000");
+        assertEquals(List.of("item1000"), index.find("m100"));
+    }
+
+    @Test
+    public void replace_keepsOrderAndDropsOldName() {
+        TrigramIndex<String> index = new TrigramIndex<>(Function.identity());
+        index.add("apple pie");
+        index.add("banana bread");
+        index.add("apple tart");
+        index.replace("apple pie", "cherry pie");
+
+        assertEquals(List.of("apple tart"), index.find("apple"));
+        assertEquals(List.of("cherry pie"), index.find("pie"));
+        assertEquals(List.of("cherry pie", "banana bread", "apple tart"), index.find("r"));
+    }
+}
@@ -0,0 +1,84 @@
+package kitchenctrl;
+
+import model.Ingredient;
+import model.catalogue.Inventory;
+import model.catalogue.RecipeBook;
+import model.index.CookableIndex;
+import model.index.CookableScan;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures ranking the best next purchases from the cookable index against re-running the cookable
+ * scan for every hypothetical purchase. Run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class UnlockBenchmark {
+    private static final int RECIPE_COUNT = 100_000;
+    private static final int INGREDIENT_POOL = 2_000;
+    /** The inventory stocks all but this many ingredients of the pool, so many recipes lack one or two. */
+    private static final int MISSING_INGREDIENTS = 100;
+    private static final int RUNS = 11;
+
+    @Test
+    public void benchmarkBestPurchases() {
+        RecipeBook recipeBook = StartupBenchmark.createRecipeBook(RECIPE_COUNT, INGREDIENT_POOL);
+        Inventory inventory = StartupBenchmark.createInventory(INGREDIENT_POOL - MISSING_INGREDIENTS);
+
+        // Baseline: for each missing ingredient, buy plenty, list the cookable recipes, then put the inventory back
+        int cookableNow = countCookable(recipeBook, inventory);
+        long scanStart = System.nanoTime();
+        for (int i = 0; i < MISSING_INGREDIENTS; i++) {
+            String name = StartupBenchmark.ingredientName(INGREDIENT_POOL - 1 - i);
+            inventory.restoreQuantity(name, 99_999);
+            countCookable(recipeBook, inventory);
+            inventory.restoreQuantity(name, 0);
+        }
+        double scanMillisPerPurchase = (System.nanoTime() - scanStart) / 1e6 / MISSING_INGREDIENTS;
+
+        CookableIndex index = new CookableIndex(recipeBook, inventory);
+        for (int size = 1; size <= CookableIndex.MAX_PURCHASE_SIZE; size++) {
+            long[] times = new long[RUNS];
+            ArrayList<CookableIndex.Purchase> purchases = null;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                purchases = index.getBestPurchases(size, 10);
+                times[run] = System.nanoTime() - start;
+            }
+            Arrays.sort(times);
+            assertEquals(purchases.get(0).getRecipeCount(), countUnlocked(recipeBook, inventory, purchases.get(0),
+                    cookableNow));
+            System.out.printf("BENCH best purchases of %d over %d recipes: index %.2f ms (best unlocks %d)%n",
+                    size, RECIPE_COUNT, times[RUNS / 2] / 1e6, purchases.get(0).getRecipeCount());
+        }
+        index.close();
+
+        System.out.printf("BENCH rescan per hypothetical purchase: %.1f ms, %.0f ms for the %d missing ingredients%n",
+                scanMillisPerPurchase, scanMillisPerPurchase * MISSING_INGREDIENTS, MISSING_INGREDIENTS);
+    }
+
+    private static int countCookable(RecipeBook recipeBook, Inventory inventory) {
+        return CookableScan.snapshot(inventory).findCookable(recipeBook.getItems()).size();
+    }
+
+    /** Makes the purchase on a copy of the inventory and counts the recipes it makes cookable. */
+    private static int countUnlocked(RecipeBook recipeBook, Inventory inventory, CookableIndex.Purchase purchase,
+            int cookableNow) {
+        Inventory bought = new Inventory();
+        for (Ingredient ingredient : inventory.getItems()) {
+            bought.restoreQuantity(ingredient.getIngredientName(), ingredient.getQuantity());
+        }
+        for (Ingredient ingredient : purchase.getIngredients()) {
+            Ingredient held = bought.getItemByName(ingredient.getIngredientName());
+            int quantity = held == null ? 0 : held.getQuantity();
+            bought.restoreQuantity(ingredient.getIngredientName(), quantity + ingredient.getQuantity());
+        }
+        return countCookable(recipeBook, bought) - cookableNow;
+    }
+}